@@ -0,0 +1,102 @@
+package org.example.common.csv;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * {@link CsvCursor} over Apache commons-csv, kept as the reference implementation behind the same interface.
+ */
+final class CommonsCsvCursor implements CsvCursor {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private CSVParser parser;
+    private Iterator<CSVRecord> records;
+    private CSVRecord current;
+    private long headerOffset;
+
+    CommonsCsvCursor(InputStream in) {
+        this.in = in;
+    }
+
+    private Iterator<CSVRecord> records() throws IOException {
+        if (records == null) {
+            Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+            parser = new CSVParser(reader, CSVFormat.DEFAULT);
+            records = parser.iterator();
+        }
+        return records;
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        try {
+            if (!records().hasNext()) {
+                current = null;
+                return false;
+            }
+            current = records.next();
+            return true;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public List<String> readHeader() throws IOException {
+        if (!next()) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>(current.size());
+        current.forEach(names::add);
+        headerOffset = current.getRecordNumber();
+        return names;
+    }
+
+    @Override
+    public long recordNumber() {
+        return current.getRecordNumber() - headerOffset;
+    }
+
+    @Override
+    public int size() {
+        return current.size();
+    }
+
+    @Override
+    public String get(int index) {
+        return index < current.size() ? current.get(index) : "";
+    }
+
+    @Override
+    public CharSequence view(int index) {
+        return get(index);
+    }
+
+    @Override
+    public int length(int index) {
+        return get(index).length();
+    }
+
+    @Override
+    public boolean isBlank(int index) {
+        return get(index).isBlank();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (parser != null) {
+            parser.close();
+        } else {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.common.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Forward-only iteration over CSV records, exposing each record in place as a {@link CsvRow}.
+ */
+public interface CsvCursor extends CsvRow, Closeable {
+
+    /**
+     * Advances to the next record; returns false at the end of input.
+     */
+    boolean next() throws IOException;
+
+    /**
+     * Reads the first record as the header row, so the following record is numbered 1. Returns an empty
+     * list for empty input.
+     */
+    List<String> readHeader() throws IOException;
+
+    /**
+     * Input bytes consumed through the end of the current record (or the header), where a new cursor over
+     * the same input can resume; -1 if the implementation cannot tell.
+     */
+    default long byteOffset() {
+        return -1;
+    }
+}
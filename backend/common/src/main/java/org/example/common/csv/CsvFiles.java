@@ -0,0 +1,95 @@
+package org.example.common.csv;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Locates stored CSV uploads and opens them for streaming reads.
+ * Compressed uploads (gzip or zstd) stay compressed on disk and are inflated on the fly as a stage in front
+ * of the CSV parser, detected by magic bytes rather than by file name.
+ */
+public final class CsvFiles {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final List<String> EXTENSIONS = List.of(".csv", ".csv.gz", ".csv.zst");
+
+    private CsvFiles() {}
+
+    /**
+     * Resolves the stored file for a fileId, falling back to the plain ".csv" name when nothing exists yet.
+     */
+    public static Path resolve(String uploadDir, UUID fileId) {
+        for (String extension : EXTENSIONS) {
+            Path candidate = Path.of(uploadDir, fileId + extension);
+            if (Files.exists(candidate)) {
+                return candidate;
+            }
+        }
+        return Path.of(uploadDir, fileId + ".csv");
+    }
+
+    /**
+     * Typed row file written by validation for the transaction service (see RowFileWriter / RowFileReader).
+     */
+    public static Path rowFile(String uploadDir, UUID fileId) {
+        return Path.of(uploadDir, fileId + ".rows");
+    }
+
+    /**
+     * Sorted fingerprints of the unique values of one byte range of a scattered file, kept until the gather step.
+     */
+    public static Path fingerprintRun(String uploadDir, UUID fileId, UUID runId, int range) {
+        return Path.of(uploadDir, fileId + "." + runId + ".range-" + range + ".fp");
+    }
+
+    /**
+     * Opens the file as a stream of uncompressed CSV bytes.
+     */
+    public static InputStream openStream(Path path) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE);
+        in.mark(4);
+        byte[] magic = in.readNBytes(4);
+        in.reset();
+
+        if (isGzip(magic)) {
+            return new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE);
+        }
+        if (isZstd(magic)) {
+            return new BufferedInputStream(new ZstdInputStream(in), BUFFER_SIZE);
+        }
+        return in;
+    }
+
+    /**
+     * Whether the file is stored compressed (and so cannot be read by byte offset).
+     */
+    public static boolean isCompressed(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] magic = in.readNBytes(4);
+            return isGzip(magic) || isZstd(magic);
+        }
+    }
+
+    private static boolean isGzip(byte[] magic) {
+        return magic.length >= 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B;
+    }
+
+    private static boolean isZstd(byte[] magic) {
+        return magic.length == 4 && (magic[0] & 0xFF) == 0x28 && (magic[1] & 0xFF) == 0xB5
+                && (magic[2] & 0xFF) == 0x2F && (magic[3] & 0xFF) == 0xFD;
+    }
+
+    /**
+     * Opens the file as UTF-8 text, ready for the CSV parser.
+     */
+    public static Reader openReader(Path path) throws IOException {
+        return new BufferedReader(new InputStreamReader(openStream(path), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.common.csv;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Selects the CSV parser implementation: the byte-level {@link CsvTokenizer} or Apache commons-csv.
+ * Both produce the same records for RFC 4180 input.
+ */
+public enum CsvParserType {
+
+    TOKENIZER {
+        @Override
+        public CsvCursor open(InputStream in) {
+            return new CsvTokenizer(in);
+        }
+
+        @Override
+        public CsvCursor open(ByteBuffer bytes) {
+            return new CsvTokenizer(bytes);
+        }
+    },
+
+    COMMONS {
+        @Override
+        public CsvCursor open(InputStream in) {
+            return new CommonsCsvCursor(in);
+        }
+
+        @Override
+        public CsvCursor open(ByteBuffer bytes) {
+            return new CommonsCsvCursor(new ByteBufferInputStream(bytes));
+        }
+    };
+
+    /**
+     * Parses UTF-8 CSV bytes from the stream; closing the cursor closes the stream.
+     */
+    public abstract CsvCursor open(InputStream in);
+
+    /**
+     * Parses UTF-8 CSV bytes between the buffer's position and limit, e.g. a memory-mapped range.
+     */
+    public abstract CsvCursor open(ByteBuffer bytes);
+}
@@ -0,0 +1,36 @@
+package org.example.common.csv;
+
+/**
+ * The current record of a {@link CsvCursor}. Indexes past the last field read as empty values.
+ * Views and values are only valid until the cursor advances.
+ */
+public interface CsvRow {
+
+    /**
+     * 1-based number of the record (data records only, once the header has been read).
+     */
+    long recordNumber();
+
+    int size();
+
+    /**
+     * The field as a String; this is where a value is materialized.
+     */
+    String get(int index);
+
+    /**
+     * The field without copying it. Character access is exact for ASCII content, which is what the
+     * numeric and date decoders read.
+     */
+    CharSequence view(int index);
+
+    /**
+     * Length of the field in UTF-16 chars, as {@code get(index).length()} would return.
+     */
+    int length(int index);
+
+    /**
+     * Whether the field is empty or whitespace only, as {@code get(index).isBlank()} would return.
+     */
+    boolean isBlank(int index);
+}
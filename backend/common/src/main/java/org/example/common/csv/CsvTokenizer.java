@@ -0,0 +1,367 @@
+package org.example.common.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RFC 4180 tokenizer working directly on UTF-8 bytes. Input is copied in large blocks into one reusable
+ * window; each record is split into field slices of that window, and quoted fields are unescaped in place.
+ * Nothing is allocated per record or per field: strings are only created when {@link #get(int)} is called,
+ * and {@link #view(int)} exposes a field as a reusable {@link CharSequence} over the bytes.
+ * <p>
+ * Matches {@code CSVFormat.DEFAULT}: comma separated, double-quote escaped, CRLF, LF or CR line endings,
+ * empty lines skipped, whitespace after a closing quote ignored.
+ */
+public final class CsvTokenizer implements CsvCursor {
+
+    private static final int DEFAULT_WINDOW_SIZE = 256 * 1024;
+    private static final byte COMMA = ',', QUOTE = '"', CR = '\r', LF = '\n';
+
+    private final InputStream stream; // null when reading from a buffer
+    private final ByteBuffer source;  // null when reading from a stream
+    private byte[] window = new byte[DEFAULT_WINDOW_SIZE];
+    private long windowStart; // input offset of window[0]
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    private int fieldCount;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] quoted = new boolean[16];
+    private FieldView[] views = new FieldView[16];
+    private long recordNumber;
+
+    public CsvTokenizer(InputStream stream) {
+        this.stream = stream;
+        this.source = null;
+    }
+
+    public CsvTokenizer(ByteBuffer source) {
+        this.stream = null;
+        this.source = source.slice();
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        // Skip empty lines
+        while (true) {
+            if (position == limit && !fill()) {
+                fieldCount = 0;
+                return false;
+            }
+            byte b = window[position];
+            if (b != CR && b != LF) {
+                break;
+            }
+            position++;
+        }
+
+        int recordStart = position;
+        int end;
+        while ((end = tokenize(recordStart)) < 0) {
+            int shift = compact(recordStart);
+            recordStart -= shift;
+            if (!fill()) {
+                endOfInput = true;
+            }
+        }
+        position = end;
+        for (int i = 0; i < fieldCount; i++) {
+            if (quoted[i]) {
+                unescape(i);
+            }
+        }
+        recordNumber++;
+        return true;
+    }
+
+    @Override
+    public List<String> readHeader() throws IOException {
+        if (!next()) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            names.add(get(i));
+        }
+        recordNumber = 0;
+        return names;
+    }
+
+    /**
+     * Splits the record starting at {@code from} into fields. Returns the position after the record, or -1
+     * if the window ends before the record does and more input may follow. The window is not modified, so
+     * tokenizing can simply be repeated after more input arrives.
+     */
+    private int tokenize(int from) throws IOException {
+        int p = from;
+        fieldCount = 0;
+        while (true) {
+            int start = p;
+            int end;
+            boolean isQuoted = false;
+            if (p < limit && window[p] == QUOTE) {
+                isQuoted = true;
+                p++;
+                while (true) {
+                    if (p >= limit) {
+                        if (endOfInput) {
+                            throw new IOException("EOF reached while reading encapsulated token (record " + (recordNumber + 1) + ").");
+                        }
+                        return -1;
+                    }
+                    if (window[p] == QUOTE) {
+                        if (p + 1 < limit && window[p + 1] == QUOTE) {
+                            p += 2;
+                            continue;
+                        }
+                        if (p + 1 >= limit && !endOfInput) {
+                            return -1; // cannot tell an escaped quote from a closing one yet
+                        }
+                        p++;
+                        break;
+                    }
+                    p++;
+                }
+                end = p;
+                while (p < limit && isSpace(window[p])) {
+                    p++;
+                }
+                if (p < limit && window[p] != COMMA && window[p] != CR && window[p] != LF) {
+                    throw new IOException("Invalid char between encapsulated token and delimiter (record " + (recordNumber + 1) + ").");
+                }
+            } else {
+                while (p < limit) {
+                    byte b = window[p];
+                    if (b == COMMA || b == CR || b == LF) {
+                        break;
+                    }
+                    p++;
+                }
+                end = p;
+            }
+            if (p >= limit && !endOfInput) {
+                return -1;
+            }
+
+            addField(start, end, isQuoted);
+            if (p >= limit) {
+                return p;
+            }
+            byte delimiter = window[p++];
+            if (delimiter == CR) {
+                if (p >= limit && !endOfInput) {
+                    return -1; // a following LF belongs to this line ending
+                }
+                return p < limit && window[p] == LF ? p + 1 : p;
+            }
+            if (delimiter == LF) {
+                return p;
+            }
+            if (p >= limit && endOfInput) {
+                addField(p, p, false); // trailing comma: one more empty field
+                return p;
+            }
+        }
+    }
+
+    private static boolean isSpace(byte b) {
+        return b != CR && b != LF && b >= 0 && Character.isWhitespace(b);
+    }
+
+    private void addField(int start, int end, boolean isQuoted) {
+        if (fieldCount == starts.length) {
+            int capacity = starts.length * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            quoted = Arrays.copyOf(quoted, capacity);
+            views = Arrays.copyOf(views, capacity);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        quoted[fieldCount] = isQuoted;
+        fieldCount++;
+    }
+
+    /**
+     * Removes the surrounding quotes and collapses doubled quotes, in place.
+     */
+    private void unescape(int field) {
+        int read = starts[field] + 1;
+        int end = ends[field] - 1; // closing quote
+        int write = starts[field];
+        while (read < end) {
+            byte b = window[read++];
+            if (b == QUOTE) {
+                read++; // second quote of an escaped pair
+            }
+            window[write++] = b;
+        }
+        ends[field] = write;
+        quoted[field] = false;
+    }
+
+    /**
+     * Moves the unfinished record to the start of the window (growing it if the record fills it) and
+     * returns how far it moved.
+     */
+    private int compact(int recordStart) {
+        int remaining = limit - recordStart;
+        if (recordStart == 0 && remaining == window.length) {
+            window = Arrays.copyOf(window, window.length * 2);
+            return 0;
+        }
+        System.arraycopy(window, recordStart, window, 0, remaining);
+        windowStart += recordStart;
+        position -= recordStart;
+        limit = remaining;
+        return recordStart;
+    }
+
+    /**
+     * Appends input to the window; returns false if there is no more.
+     */
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        if (position == limit) {
+            windowStart += limit;
+            position = 0;
+            limit = 0;
+        }
+        if (limit == window.length) {
+            window = Arrays.copyOf(window, window.length * 2);
+        }
+        int read;
+        if (source != null) {
+            read = Math.min(source.remaining(), window.length - limit);
+            source.get(window, limit, read);
+            if (read == 0) {
+                read = -1;
+            }
+        } else {
+            read = stream.read(window, limit, window.length - limit);
+        }
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    @Override
+    public long recordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public long byteOffset() {
+        return windowStart + position;
+    }
+
+    @Override
+    public int size() {
+        return fieldCount;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index >= fieldCount) {
+            return "";
+        }
+        return new String(window, starts[index], ends[index] - starts[index], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public CharSequence view(int index) {
+        if (index >= fieldCount) {
+            return "";
+        }
+        FieldView view = views[index];
+        if (view == null) {
+            view = views[index] = new FieldView(index);
+        }
+        return view;
+    }
+
+    @Override
+    public int length(int index) {
+        if (index >= fieldCount) {
+            return 0;
+        }
+        int length = 0;
+        for (int i = starts[index]; i < ends[index]; i++) {
+            byte b = window[i];
+            if ((b & 0xC0) != 0x80) {
+                length++; // first byte of a code point
+            }
+            if ((b & 0xF8) == 0xF0) {
+                length++; // 4-byte sequences become surrogate pairs
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public boolean isBlank(int index) {
+        if (index >= fieldCount) {
+            return true;
+        }
+        for (int i = starts[index]; i < ends[index]; i++) {
+            byte b = window[i];
+            if (b < 0) {
+                return get(index).isBlank(); // non-ASCII: defer to the full Unicode definition
+            }
+            if (!Character.isWhitespace(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * Zero-copy view of one field of the current record.
+     */
+    private final class FieldView implements CharSequence {
+        private final int field;
+
+        private FieldView(int field) {
+            this.field = field;
+        }
+
+        @Override
+        public int length() {
+            return ends[field] - starts[field];
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (window[starts[field] + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return get(field);
+        }
+    }
+}
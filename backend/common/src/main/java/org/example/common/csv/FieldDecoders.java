@@ -0,0 +1,181 @@
+package org.example.common.csv;
+
+/**
+ * Decodes date and amount fields straight from their characters (typically a {@link CsvRow#view(int)}) into
+ * primitives: ISO dates into epoch days, decimal amounts into unscaled or minor-unit longs. Nothing is
+ * allocated; every method returns {@link #INVALID} instead of throwing, so callers choose whether to report
+ * the value or fall back to {@code LocalDate.parse} / {@code new BigDecimal}.
+ */
+public final class FieldDecoders {
+
+    public static final long INVALID = Long.MIN_VALUE;
+    private static final int MAX_DIGITS = 18; // always fits in a long
+
+    private FieldDecoders() {}
+
+    /**
+     * Parses a yyyy-MM-dd date to days since 1970-01-01, or returns {@link #INVALID} if the text is not in
+     * that form or not a calendar date. Accepts exactly the four-digit-year dates {@code LocalDate.parse} accepts.
+     */
+    public static long isoEpochDay(CharSequence value) {
+        if (value.length() != 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return INVALID;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return INVALID;
+        }
+        return epochDay(year, month, day);
+    }
+
+    private static int digits(CharSequence value, int from, int count) {
+        int number = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    public static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Same arithmetic as {@link java.time.LocalDate#toEpochDay()}, for an already validated date.
+     */
+    public static long epochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y;
+        total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!(year % 4 == 0 && (year % 100 != 0 || year % 400 == 0))) {
+                total--;
+            }
+        }
+        return total - 719528; // days from 0000-01-01 to 1970-01-01
+    }
+
+    /**
+     * The amount's digits without the decimal point, so that {@code BigDecimal.valueOf(unscaled(v), scale(v))}
+     * equals {@code new BigDecimal(v)}. Returns {@link #INVALID} for anything new BigDecimal(String) would parse
+     * differently (exponents) or that does not fit in 18 digits.
+     */
+    public static long unscaled(CharSequence value) {
+        int length = value.length();
+        int position = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            position++;
+        }
+        long result = 0;
+        int digits = 0;
+        boolean point = false;
+        for (; position < length; position++) {
+            char c = value.charAt(position);
+            if (c == '.' && !point) {
+                point = true;
+                continue;
+            }
+            if (c < '0' || c > '9' || ++digits > MAX_DIGITS) {
+                return INVALID;
+            }
+            result = result * 10 + (c - '0');
+        }
+        if (digits == 0) {
+            return INVALID;
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * Number of digits after the decimal point.
+     */
+    public static int scale(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '.') {
+                return value.length() - i - 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Parses a plain decimal (optional sign, digits, optional fraction) into units of 10^-scale, e.g. "12.5"
+     * at scale 2 is 1250. Returns {@link #INVALID} if it is malformed, has more fraction digits than the
+     * scale (no rounding), or overflows a long.
+     */
+    public static long minorUnits(CharSequence value, int scale) {
+        int length = value.length();
+        int position = 0;
+        boolean negative = false;
+        if (position < length && (value.charAt(position) == '-' || value.charAt(position) == '+')) {
+            negative = value.charAt(position) == '-';
+            position++;
+        }
+
+        long result = 0;
+        int digits = 0;
+        boolean sawDigit = false;
+        int fractionDigits = -1; // -1 until the decimal point is seen
+        for (; position < length; position++) {
+            char c = value.charAt(position);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return INVALID;
+            }
+            if (fractionDigits >= 0 && ++fractionDigits > scale) {
+                return INVALID;
+            }
+            sawDigit = true;
+            if ((result != 0 || c != '0') && ++digits > MAX_DIGITS) {
+                return INVALID;
+            }
+            result = result * 10 + (c - '0');
+        }
+        if (!sawDigit) {
+            return INVALID;
+        }
+        return rescale(negative ? -result : result, Math.max(fractionDigits, 0), scale);
+    }
+
+    /**
+     * Converts {@code unscaled × 10^-scale} to units of 10^-targetScale, or returns {@link #INVALID} if that
+     * would drop non-zero digits or overflow.
+     */
+    public static long rescale(long unscaled, int scale, int targetScale) {
+        if (unscaled == INVALID) {
+            return INVALID;
+        }
+        long result = unscaled;
+        for (int s = scale; s > targetScale; s--) {
+            if (result % 10 != 0) {
+                return INVALID;
+            }
+            result /= 10;
+        }
+        for (int s = scale; s < targetScale; s++) {
+            if (result > Long.MAX_VALUE / 10 || result < -(Long.MAX_VALUE / 10)) {
+                return INVALID;
+            }
+            result *= 10;
+        }
+        return result;
+    }
+}
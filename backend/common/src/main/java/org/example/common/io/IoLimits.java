@@ -0,0 +1,87 @@
+package org.example.common.io;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Bounds blocking work by the resources it holds instead of by consumer thread counts: files being read at
+ * once, and database work running at once (no more than the connection pool has connections). Consumers
+ * over a limit wait for a permit instead of failing with a pool timeout, so listener concurrency (and
+ * virtual threads, where enabled) can be raised freely. Each service declares it as a bean with its own
+ * limits.
+ */
+public class IoLimits {
+
+    private final int maxOpenFiles;
+    private final int maxConnections;
+    private final Semaphore files;
+    private final Semaphore connections;
+
+    public IoLimits(int maxOpenFiles, int maxConnections) {
+        this.maxOpenFiles = maxOpenFiles;
+        this.maxConnections = maxConnections;
+        this.files = new Semaphore(maxOpenFiles, true);
+        this.connections = new Semaphore(maxConnections, true);
+    }
+
+    /**
+     * Runs work that keeps a file open, once fewer than max-open-files are open.
+     */
+    public void withFile(Runnable work) {
+        acquire(files);
+        try {
+            work.run();
+        } finally {
+            files.release();
+        }
+    }
+
+    /**
+     * Runs work that holds one database connection, once one is free. The work must not ask for another
+     * connection permit itself.
+     */
+    public void withConnection(Runnable work) {
+        withConnection(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Returns the result of work that holds one database connection, once one is free.
+     */
+    public <T> T withConnection(Supplier<T> work) {
+        acquire(connections);
+        try {
+            return work.get();
+        } finally {
+            connections.release();
+        }
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("openFiles", maxOpenFiles - files.availablePermits());
+        metrics.put("maxOpenFiles", maxOpenFiles);
+        metrics.put("waitingForFile", files.getQueueLength());
+        metrics.put("connectionsInUse", maxConnections - connections.availablePermits());
+        metrics.put("maxConnections", maxConnections);
+        metrics.put("waitingForConnection", connections.getQueueLength());
+        return metrics;
+    }
+
+    private static void acquire(Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an I/O permit", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.common.io;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-lane queue wait and throughput counters, to tune the size split between lanes.
+ */
+public class LaneMetrics {
+
+    private final long startedAt = System.currentTimeMillis();
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * Records one message handled by the lane. {@code enqueuedAt} is 0 when unknown, {@code bytes} 0 when
+     * the size is unknown; {@code aged} marks messages moved here from the large lane by the aging rule.
+     */
+    public void record(String lane, long enqueuedAt, long startedAt, long finishedAt, long bytes, boolean aged) {
+        Lane counters = lanes.computeIfAbsent(lane, name -> new Lane());
+        counters.messages.incrementAndGet();
+        if (enqueuedAt > 0) {
+            long wait = Math.max(startedAt - enqueuedAt, 0);
+            counters.waitedMessages.incrementAndGet();
+            counters.waitMillis.addAndGet(wait);
+            counters.maxWaitMillis.accumulateAndGet(wait, Math::max);
+        }
+        counters.busyMillis.addAndGet(finishedAt - startedAt);
+        counters.bytes.addAndGet(bytes);
+        if (aged) {
+            counters.aged.incrementAndGet();
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        double uptimeSeconds = Math.max((System.currentTimeMillis() - startedAt) / 1000.0, 1);
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        lanes.forEach((name, counters) -> {
+            long messages = counters.messages.get();
+            long waited = counters.waitedMessages.get();
+            Map<String, Object> lane = new LinkedHashMap<>();
+            lane.put("messages", messages);
+            lane.put("avgWaitMillis", waited > 0 ? counters.waitMillis.get() / waited : 0);
+            lane.put("maxWaitMillis", counters.maxWaitMillis.get());
+            lane.put("avgProcessingMillis", messages > 0 ? counters.busyMillis.get() / messages : 0);
+            lane.put("messagesPerMinute", messages * 60 / uptimeSeconds);
+            lane.put("bytesPerSecond", counters.bytes.get() / uptimeSeconds);
+            lane.put("aged", counters.aged.get());
+            metrics.put(name, lane);
+        });
+        return metrics;
+    }
+
+    private static final class Lane {
+        final AtomicLong messages = new AtomicLong();
+        final AtomicLong waitedMessages = new AtomicLong();
+        final AtomicLong waitMillis = new AtomicLong();
+        final AtomicLong maxWaitMillis = new AtomicLong();
+        final AtomicLong busyMillis = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+        final AtomicLong aged = new AtomicLong();
+    }
+}
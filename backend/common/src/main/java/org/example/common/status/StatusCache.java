@@ -0,0 +1,121 @@
+package org.example.common.status;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Size-bounded status cache keyed by fileId, with a TTL chosen per value (terminal states live longer)
+ * and short-lived negative entries for ids that are not in the database yet.
+ * Once full, the least recently used entry is evicted; expired entries are dropped on access.
+ */
+public class StatusCache<V> {
+
+    private final int maxSize;
+    private final Function<V, Duration> ttlPolicy;
+    private final long negativeTtlNanos;
+    private final LinkedHashMap<UUID, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public StatusCache(int maxSize, Function<V, Duration> ttlPolicy, Duration negativeTtl) {
+        this.maxSize = maxSize;
+        this.ttlPolicy = ttlPolicy;
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry<V>> eldest) {
+                if (size() > StatusCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Caches a known value, replacing any previous (or negative) entry.
+     */
+    public void put(UUID key, V value) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlPolicy.apply(value).toNanos());
+        synchronized (this) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Returns the cached value, or loads it outside the lock on a miss. An empty load result is cached as
+     * a negative entry so repeated lookups of unknown ids do not hit the database every time.
+     */
+    public Optional<V> get(UUID key, Function<UUID, Optional<V>> loader) {
+        synchronized (this) {
+            Entry<V> entry = liveEntry(key);
+            if (entry != null) {
+                (entry.value() != null ? hits : negativeHits).incrementAndGet();
+                return Optional.ofNullable(entry.value());
+            }
+        }
+
+        misses.incrementAndGet();
+        Optional<V> loaded = loader.apply(key);
+        long now = System.nanoTime();
+        Entry<V> entry = loaded
+                .map(value -> new Entry<>(value, now + ttlPolicy.apply(value).toNanos()))
+                .orElseGet(() -> new Entry<>(null, now + negativeTtlNanos));
+        synchronized (this) {
+            // A put() that raced with the load carries fresher data than the database read
+            if (liveEntry(key) == null) {
+                entries.put(key, entry);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the cached value without loading it.
+     */
+    public synchronized Optional<V> getIfPresent(UUID key) {
+        Entry<V> entry = liveEntry(key);
+        return entry != null ? Optional.ofNullable(entry.value()) : Optional.empty();
+    }
+
+    public synchronized void invalidate(UUID key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Hit/miss/eviction counters and current size, exposed for monitoring.
+     */
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", entries.size());
+        metrics.put("maxSize", maxSize);
+        metrics.put("hits", hits.get());
+        metrics.put("negativeHits", negativeHits.get());
+        metrics.put("misses", misses.get());
+        metrics.put("evictions", evictions.get());
+        metrics.put("expirations", expirations.get());
+        return metrics;
+    }
+
+    private Entry<V> liveEntry(UUID key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt() - System.nanoTime() <= 0) {
+            entries.remove(key);
+            expirations.incrementAndGet();
+            return null;
+        }
+        return entry;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+}
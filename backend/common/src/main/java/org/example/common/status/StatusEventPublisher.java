@@ -0,0 +1,140 @@
+package org.example.common.status;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Pushes status transitions to subscribed clients as server-sent events, replacing client polling.
+ * Emitters run on async requests, so an idle subscription holds no servlet thread. Subscriptions end
+ * automatically once a terminal state has been delivered. Events are sent on the given executor, in order per
+ * file, so a slow client never holds up the thread that changed the status.
+ */
+public class StatusEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusEventPublisher.class);
+    private static final String EVENT_NAME = "status";
+
+    private final Set<String> terminalStates;
+    private final long timeoutMillis;
+    private final Executor executor;
+    private final Map<UUID, Subscribers> subscribers = new ConcurrentHashMap<>();
+
+    public StatusEventPublisher(Set<String> terminalStates, Duration timeout, Executor executor) {
+        this.terminalStates = terminalStates;
+        this.timeoutMillis = timeout.toMillis();
+        this.executor = executor;
+    }
+
+    /**
+     * Registers a subscriber and sends it the current state. The snapshot is taken after registration, on the
+     * file's delivery queue, so a transition racing with the subscription is neither lost nor overtaken.
+     */
+    public SseEmitter subscribe(UUID fileId, Supplier<Map<String, Object>> currentState) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscribers file = subscribers.compute(fileId, (id, current) -> {
+            Subscribers registered = current != null ? current : new Subscribers();
+            registered.emitters.add(emitter);
+            return registered;
+        });
+        emitter.onCompletion(() -> unsubscribe(fileId, emitter));
+        emitter.onTimeout(() -> unsubscribe(fileId, emitter));
+        emitter.onError(e -> unsubscribe(fileId, emitter));
+
+        // Read when its turn comes, so it is at least as recent as every transition delivered before it
+        file.deliver(() -> send(fileId, emitter, currentState.get()));
+        return emitter;
+    }
+
+    /**
+     * Delivers a status transition to every subscriber of the file.
+     */
+    public void publish(UUID fileId, Map<String, Object> event) {
+        Subscribers file = subscribers.get(fileId);
+        if (file == null) {
+            return;
+        }
+        file.deliver(() -> {
+            for (SseEmitter emitter : file.emitters) {
+                send(fileId, emitter, event);
+            }
+        });
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(file -> file.emitters.size()).sum();
+    }
+
+    private void send(UUID fileId, SseEmitter emitter, Map<String, Object> event) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(event));
+            if (isTerminal(event)) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping status subscriber for file {}: {}", fileId, e.getMessage());
+            unsubscribe(fileId, emitter);
+        }
+    }
+
+    private void unsubscribe(UUID fileId, SseEmitter emitter) {
+        subscribers.computeIfPresent(fileId, (id, file) -> {
+            file.emitters.remove(emitter);
+            return file.emitters.isEmpty() ? null : file;
+        });
+    }
+
+    private boolean isTerminal(Map<String, Object> event) {
+        return terminalStates.contains(String.valueOf(event.get("status")));
+    }
+
+    /**
+     * The subscribers of one file and the deliveries still to be sent to them. At most one executor task drains
+     * a file's deliveries at a time, which keeps them in order; tasks are only submitted by publishing threads,
+     * so a bounded executor can hold up a publisher but never its own workers.
+     */
+    private final class Subscribers {
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        void deliver(Runnable delivery) {
+            pending.add(delivery);
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    drain();  // executor saturated or shutting down: send on the publishing thread
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                for (Runnable delivery = pending.poll(); delivery != null; delivery = pending.poll()) {
+                    try {
+                        delivery.run();
+                    } catch (RuntimeException e) {
+                        logger.warn("Failed to deliver a status event", e);
+                    }
+                }
+                draining.set(false);
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.common.csv;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reading a stored upload as ingest does, for the same transactions file kept raw, gzip- and zstd-compressed:
+ * {@link CsvFiles#openStream} decompressing on the fly in front of the tokenizer, which decodes the id, date
+ * and amount of every record. The files sit in the page cache, so this is the CPU cost of decompression; what
+ * compression saves in disk and network I/O is the size ratio, which {@link #main} prints first.
+ * <p>
+ * Run from the IDE, or after {@code mvn test-compile}:
+ * {@code java -cp "target/test-classes:target/classes:<test classpath>" org.example.common.csv.CompressedIngestBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressedIngestBenchmark {
+
+    private static final int ROWS = 500_000;
+
+    @Param({"raw", "gzip", "zstd"})
+    public String compression;
+
+    private Path dir;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("ingest-benchmark-");
+        file = write(dir, compression, csv(ROWS));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public long ingest() throws IOException {
+        long checksum = 0;
+        try (CsvCursor rows = CsvParserType.TOKENIZER.open(CsvFiles.openStream(file))) {
+            rows.readHeader();
+            while (rows.next()) {
+                checksum += rows.get(0).length() + FieldDecoders.isoEpochDay(rows.view(1)) + FieldDecoders.unscaled(rows.view(2));
+            }
+        }
+        return checksum;
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        Path dir = Files.createTempDirectory("ingest-benchmark-");
+        byte[] csv = csv(ROWS);
+        for (String compression : new String[] {"raw", "gzip", "zstd"}) {
+            Path file = write(dir, compression, csv);
+            System.out.printf("%s: %,d bytes on disk (%.1fx)%n", compression, Files.size(file), (double) csv.length / Files.size(file));
+            Files.delete(file);
+        }
+        Files.delete(dir);
+        new Runner(new OptionsBuilder()
+                .include(CompressedIngestBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static Path write(Path dir, String compression, byte[] csv) throws IOException {
+        Path file = dir.resolve(switch (compression) {
+            case "gzip" -> "upload.csv.gz";
+            case "zstd" -> "upload.csv.zst";
+            default -> "upload.csv";
+        });
+        try (OutputStream out = switch (compression) {
+            case "gzip" -> new GZIPOutputStream(Files.newOutputStream(file));
+            case "zstd" -> new ZstdOutputStream(Files.newOutputStream(file));
+            default -> Files.newOutputStream(file);
+        }) {
+            out.write(csv);
+        }
+        return file;
+    }
+
+    private static byte[] csv(int rows) {
+        Random random = new Random(42);
+        String[] customers = {"Anna Berg", "\"Smith, John\"", "Zoë Ångström", "O'Neil", "Kari Nordmann"};
+        String[] cities = {"Oslo", "Bergen", "München", "\"Washington, D.C.\"", "São Paulo"};
+        StringBuilder csv = new StringBuilder("TransactionID,TransactionDate,Amount,CustomerName,PaymentMethod,City\r\n");
+        for (int row = 0; row < rows; row++) {
+            csv.append("TX-2024-").append(100_000_000 + row)
+                    .append(",2024-").append(String.format("%02d-%02d", 1 + random.nextInt(12), 1 + random.nextInt(28)))
+                    .append(',').append(random.nextInt(100_000)).append('.').append(String.format("%02d", random.nextInt(100)))
+                    .append(',').append(customers[random.nextInt(customers.length)])
+                    .append(',').append(random.nextBoolean() ? "card" : "bank transfer")
+                    .append(',').append(cities[random.nextInt(cities.length)])
+                    .append("\r\n");
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.common.csv;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CsvTokenizer} against commons-csv ({@link CommonsCsvCursor}) over the same ~12 MB file, for a narrow
+ * transactions export (7 columns) and a wide one (60 columns), both with quoted fields, escaped quotes,
+ * embedded line breaks and non-ASCII names. {@code allFields} materializes every field as a String, as
+ * ingest does; {@code oneField} only looks at one column per record, as a duplicate check does. Reports time
+ * per file and, with the GC profiler, bytes allocated per file ({@code gc.alloc.rate.norm}).
+ * <p>
+ * Run from the IDE, or after {@code mvn test-compile}:
+ * {@code java -cp "target/test-classes:target/classes:<test classpath>" org.example.common.csv.CsvParserBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvParserBenchmark {
+
+    private static final int FILE_BYTES = 12 * 1024 * 1024;
+
+    @Param({"narrow", "wide"})
+    public String shape;
+
+    @Param({"TOKENIZER", "COMMONS"})
+    public CsvParserType parser;
+
+    private byte[] csv;
+
+    @Setup
+    public void setUp() {
+        csv = csv("wide".equals(shape) ? 60 : 7, new Random(42)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public long allFields(Blackhole blackhole) throws IOException {
+        long records = 0;
+        try (CsvCursor cursor = parser.open(new ByteArrayInputStream(csv))) {
+            cursor.readHeader();
+            while (cursor.next()) {
+                for (int i = 0; i < cursor.size(); i++) {
+                    blackhole.consume(cursor.get(i));
+                }
+                records++;
+            }
+        }
+        return records;
+    }
+
+    @Benchmark
+    public long oneField() throws IOException {
+        long checksum = 0;
+        try (CsvCursor cursor = parser.open(new ByteArrayInputStream(csv))) {
+            cursor.readHeader();
+            while (cursor.next()) {
+                CharSequence id = cursor.view(0);
+                checksum += id.length() > 0 ? id.charAt(id.length() - 1) : 0;
+            }
+        }
+        return checksum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CsvParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * A transactions export of about FILE_BYTES: id, date, amount, customer, payment method and city, then
+     * free-text and numeric attribute columns up to the requested width.
+     */
+    private static String csv(int columns, Random random) {
+        String[] customers = {"Anna Berg", "\"Smith, John\"", "Zoë Ångström", "O'Neil", "\"The \"\"Best\"\" Shop\""};
+        String[] cities = {"Oslo", "Bergen", "München", "\"Washington, D.C.\"", "São Paulo"};
+        StringBuilder csv = new StringBuilder("TransactionID,TransactionDate,Amount,CustomerName,PaymentMethod,City");
+        for (int column = 6; column < columns; column++) {
+            csv.append(",Attribute").append(column);
+        }
+        csv.append("\r\n");
+        for (int row = 0; csv.length() < FILE_BYTES; row++) {
+            csv.append("TX-2024-").append(100_000_000 + row)
+                    .append(",2024-").append(String.format("%02d-%02d", 1 + random.nextInt(12), 1 + random.nextInt(28)))
+                    .append(',').append(random.nextInt(100_000)).append('.').append(String.format("%02d", random.nextInt(100)))
+                    .append(',').append(customers[random.nextInt(customers.length)])
+                    .append(',').append(random.nextBoolean() ? "card" : "bank transfer")
+                    .append(',').append(cities[random.nextInt(cities.length)]);
+            for (int column = 6; column < columns; column++) {
+                csv.append(',');
+                switch (column % 4) {
+                    case 0 -> csv.append(random.nextInt(1_000_000));
+                    case 1 -> csv.append(random.nextInt(20) == 0 ? "\"note, with comma\r\nand a second line\"" : "note " + row);
+                    case 2 -> csv.append(random.nextInt(10) == 0 ? "" : "SKU-" + random.nextInt(10_000));
+                    default -> csv.append(random.nextDouble() * 100);
+                }
+            }
+            csv.append("\r\n");
+        }
+        return csv.toString();
+    }
+}
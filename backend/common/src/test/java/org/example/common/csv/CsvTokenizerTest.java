@@ -0,0 +1,150 @@
+package org.example.common.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RFC 4180 edge cases, read from a buffer and from a stream that returns a few bytes per read, and checked
+ * against commons-csv on the same input.
+ */
+class CsvTokenizerTest {
+
+    @Test
+    void embeddedCrlfInQuotedField() throws IOException {
+        assertRecords("id,note\r\n1,\"line one\r\nline two\"\r\n2,x\r\n",
+                List.of("id", "note"), List.of("1", "line one\r\nline two"), List.of("2", "x"));
+    }
+
+    @Test
+    void doubledQuotes() throws IOException {
+        assertRecords("a,b\r\n\"say \"\"hi\"\"\",\"\"\"\"\r\n",
+                List.of("a", "b"), List.of("say \"hi\"", "\""));
+    }
+
+    @Test
+    void trailingEmptyField() throws IOException {
+        assertRecords("a,b,c\r\n1,2,\r\n,,\r\n",
+                List.of("a", "b", "c"), List.of("1", "2", ""), List.of("", "", ""));
+    }
+
+    @Test
+    void noFinalNewline() throws IOException {
+        assertRecords("a,b\n1,2\n3,\"4\"", List.of("a", "b"), List.of("1", "2"), List.of("3", "4"));
+        assertRecords("a,b\n1,", List.of("a", "b"), List.of("1", ""));
+    }
+
+    @Test
+    void emptyQuotedFieldAndQuotedSeparators() throws IOException {
+        assertRecords("a,b,c\n\"\",\"x,y\",\"\n\"\n",
+                List.of("a", "b", "c"), List.of("", "x,y", "\n"));
+    }
+
+    @Test
+    void mixedLineEndingsAndBlankLines() throws IOException {
+        assertRecords("a,b\r\n\r\n1,2\n\n3,4\r5,6\r\n",
+                List.of("a", "b"), List.of("1", "2"), List.of("3", "4"), List.of("5", "6"));
+    }
+
+    @Test
+    void viewsMatchValues() throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(ByteBuffer.wrap(bytes("id,name\n\"A,1\",\"  \"\nB,Zoë\n")))) {
+            tokenizer.readHeader();
+            assertTrue(tokenizer.next());
+            assertEquals("A,1", tokenizer.view(0).toString());
+            assertEquals(3, tokenizer.view(0).length());
+            assertTrue(tokenizer.isBlank(1));
+            assertTrue(tokenizer.next());
+            assertEquals("Zoë", tokenizer.get(1));
+            assertEquals(3, tokenizer.length(1));  // UTF-16 chars, not bytes
+            assertFalse(tokenizer.isBlank(1));
+            assertEquals("", tokenizer.get(5));    // past the last field
+            assertFalse(tokenizer.next());
+        }
+    }
+
+    @Test
+    void matchesCommonsCsvAcrossWindowRefills() throws IOException {
+        // Well over the 256 KB window, so records straddle refills and compaction
+        Random random = new Random(11);
+        StringBuilder csv = new StringBuilder("id,note,amount\r\n");
+        for (int i = 0; i < 20_000; i++) {
+            csv.append(i).append(',');
+            switch (random.nextInt(4)) {
+                case 0 -> csv.append("\"multi\r\nline \"\"quoted\"\" ").append("x".repeat(random.nextInt(40))).append('"');
+                case 1 -> csv.append("\"a,b\"");
+                case 2 -> csv.append("");
+                default -> csv.append("plain é ").append(i);
+            }
+            csv.append(',').append(random.nextInt(1000)).append(".5\r\n");
+        }
+        String input = csv.append("last,\"no newline\",").toString();
+
+        List<List<String>> expected = read(new CommonsCsvCursor(new ByteArrayInputStream(bytes(input))));
+        assertEquals(20_002, expected.size());
+        assertEquals(expected, read(new CsvTokenizer(ByteBuffer.wrap(bytes(input)))));
+        assertEquals(expected, read(new CsvTokenizer(new TricklingInputStream(bytes(input), 4093))));
+    }
+
+    @SafeVarargs
+    private static void assertRecords(String input, List<String>... expected) throws IOException {
+        List<List<String>> records = List.of(expected);
+        assertEquals(records, read(new CsvTokenizer(ByteBuffer.wrap(bytes(input)))), "buffer");
+        assertEquals(records, read(new CsvTokenizer(new TricklingInputStream(bytes(input), 3))), "stream");
+        assertEquals(records, read(new CommonsCsvCursor(new ByteArrayInputStream(bytes(input)))), "commons-csv");
+    }
+
+    /**
+     * The header followed by every record.
+     */
+    private static List<List<String>> read(CsvCursor cursor) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (cursor) {
+            records.add(cursor.readHeader());
+            while (cursor.next()) {
+                List<String> record = new ArrayList<>(cursor.size());
+                for (int i = 0; i < cursor.size(); i++) {
+                    record.add(cursor.get(i));
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns at most {@code maxRead} bytes per read, like a slow network stream.
+     */
+    private static final class TricklingInputStream extends InputStream {
+        private final ByteArrayInputStream in;
+        private final int maxRead;
+
+        TricklingInputStream(byte[] bytes, int maxRead) {
+            this.in = new ByteArrayInputStream(bytes);
+            this.maxRead = maxRead;
+        }
+
+        @Override
+        public int read() {
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            return in.read(buffer, offset, Math.min(length, maxRead));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.common.csv;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FieldDecoders} against the JDK parsers they replace, per field value: {@code isoEpochDay} against
+ * {@code LocalDate.parse}, {@code unscaled}/{@code scale} against {@code new BigDecimal}, and
+ * {@code minorUnits} against {@code new BigDecimal(..).movePointRight(2).longValueExact()}. The values are
+ * Strings for both sides, so the JDK parsers are not charged for materializing the field. Reports time per
+ * value and, with the GC profiler, bytes allocated per value ({@code gc.alloc.rate.norm}).
+ * <p>
+ * Run from the IDE, or after {@code mvn test-compile}:
+ * {@code java -cp "target/test-classes:target/classes:<test classpath>" org.example.common.csv.FieldDecodersBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(FieldDecodersBenchmark.VALUES)
+public class FieldDecodersBenchmark {
+
+    static final int VALUES = 1024;
+
+    private final String[] dates = new String[VALUES];
+    private final String[] amounts = new String[VALUES];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < VALUES; i++) {
+            dates[i] = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(2_000)).toString();
+            amounts[i] = (random.nextInt(10) == 0 ? "-" : "") + random.nextInt(100_000) + "." + String.format("%02d", random.nextInt(100));
+        }
+    }
+
+    @Benchmark
+    public long isoEpochDay() {
+        long sum = 0;
+        for (String date : dates) {
+            sum += FieldDecoders.isoEpochDay(date);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long localDateParse() {
+        long sum = 0;
+        for (String date : dates) {
+            sum += LocalDate.parse(date).toEpochDay();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long unscaled() {
+        long sum = 0;
+        for (String amount : amounts) {
+            sum += FieldDecoders.unscaled(amount) + FieldDecoders.scale(amount);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole blackhole) {
+        for (String amount : amounts) {
+            blackhole.consume(new BigDecimal(amount));
+        }
+    }
+
+    @Benchmark
+    public long minorUnits() {
+        long sum = 0;
+        for (String amount : amounts) {
+            sum += FieldDecoders.minorUnits(amount, 2);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long bigDecimalMinorUnits() {
+        long sum = 0;
+        for (String amount : amounts) {
+            sum += new BigDecimal(amount).movePointRight(2).longValueExact();
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FieldDecodersBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.common.io;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many small files through consumers bounded by {@link IoLimits}, each file modelling the blocking I/O of a
+ * listener message with sleeps: a status write, reading the file, inserting its rows and a final status write.
+ * Today's five consumers are compared with many more, which only pays off because the limits, not the consumer
+ * count, bound the open files and connections. transaction-service's TransactionListenerLoadTest drives the
+ * real listener path against PostgreSQL.
+ * <p>
+ * Timing-based, so only run with {@code mvn test -Pload-tests}.
+ * <p>
+ * {@link #main} prints files/s for a range of consumer counts, on virtual threads too when the runtime has
+ * them: {@code java -cp "target/test-classes:target/classes:<test classpath>" org.example.common.io.IoLimitsLoadTest [files]}
+ */
+@Tag("load")
+class IoLimitsLoadTest {
+
+    private static final int MAX_OPEN_FILES = 16;
+    private static final int MAX_CONNECTIONS = 10;
+    private static final long STATUS_MILLIS = 2;
+    private static final long READ_MILLIS = 5;
+    private static final long INSERT_MILLIS = 5;
+
+    @Test
+    void moreConsumersStayWithinTheLimits() throws Exception {
+        Result today = run(Executors.newFixedThreadPool(5), 400);
+        Result raised = run(Executors.newFixedThreadPool(64), 400);
+
+        System.out.printf("5 consumers: %s%n64 consumers: %s%n", today, raised);
+        assertTrue(raised.peakOpenFiles() <= MAX_OPEN_FILES, raised.toString());
+        assertTrue(raised.peakConnections() <= MAX_CONNECTIONS, raised.toString());
+    }
+
+    public static void main(String[] args) throws Exception {
+        int files = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        run(Executors.newFixedThreadPool(16), files);  // warm-up
+        for (int consumers : new int[] {5, 16, 64, 256}) {
+            System.out.printf("platform x %3d: %s%n", consumers, run(Executors.newFixedThreadPool(consumers), files));
+        }
+        if (Runtime.version().feature() >= 21) {
+            ExecutorService virtual = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            System.out.printf("virtual, one per file: %s%n", run(virtual, files));
+        }
+    }
+
+    private static Result run(ExecutorService consumers, int files) throws InterruptedException {
+        IoLimits limits = new IoLimits(MAX_OPEN_FILES, MAX_CONNECTIONS);
+        Peak openFiles = new Peak();
+        Peak connections = new Peak();
+        long start = System.nanoTime();
+        for (int i = 0; i < files; i++) {
+            consumers.execute(() -> {
+                limits.withConnection(() -> connections.hold(STATUS_MILLIS));
+                limits.withFile(() -> {
+                    openFiles.enter();
+                    try {
+                        sleep(READ_MILLIS);
+                        limits.withConnection(() -> connections.hold(INSERT_MILLIS));
+                    } finally {
+                        openFiles.exit();
+                    }
+                });
+                limits.withConnection(() -> connections.hold(STATUS_MILLIS));
+            });
+        }
+        consumers.shutdown();
+        assertTrue(consumers.awaitTermination(5, TimeUnit.MINUTES), "load run did not finish");
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Result(files / seconds, openFiles.max.get(), connections.max.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Result(double filesPerSecond, int peakOpenFiles, int peakConnections) {
+        @Override
+        public String toString() {
+            return String.format("%,.0f files/s, peak %d open files, %d connections", filesPerSecond, peakOpenFiles, peakConnections);
+        }
+    }
+
+    /**
+     * The most holders of a resource at once.
+     */
+    private static final class Peak {
+        final AtomicInteger current = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+
+        void enter() {
+            max.accumulateAndGet(current.incrementAndGet(), Math::max);
+        }
+
+        void exit() {
+            current.decrementAndGet();
+        }
+
+        void hold(long millis) {
+            enter();
+            try {
+                sleep(millis);
+            } finally {
+                exit();
+            }
+        }
+    }
+}
@@ -1,20 +1,52 @@
 package org.example.dataprocessing.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.concurrent.ForkJoinPool;
+
 @Configuration
 public class ColumnMappingAsyncConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(ColumnMappingAsyncConfig.class);
+
+    /**
+     * Sends processing status events to subscribers (see StatusConfig). With spring.threads.virtual.enabled on
+     * a Java 21+ runtime, one virtual thread per task, at most processing.io.max-open-files at a time; otherwise
+     * a small platform thread pool.
+     */
     @Bean(name = "columnMappingExecutor")
-    public ThreadPoolTaskExecutor columnMappingExecutor() {
+    public AsyncTaskExecutor columnMappingExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                                   @Value("${processing.io.max-open-files:16}") int maxOpenFiles) {
+        if (virtualThreads && Runtime.version().feature() >= 21) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("columnMappingThread-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxOpenFiles);
+            return executor;
+        }
+        if (virtualThreads) {
+            logger.warn("Virtual threads need Java 21 or later (running {}), using platform threads", Runtime.version());
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);  // Number of threads actively processing uploads
-        executor.setMaxPoolSize(10);  // Max threads if more concurrent uploads occur
-        executor.setQueueCapacity(50); // Number of files that can wait before execution
+        executor.setCorePoolSize(5);  // Number of threads sending events
+        executor.setMaxPoolSize(10);  // Max threads when subscribers are slow
+        executor.setQueueCapacity(50); // Files with events waiting; beyond this the publishing thread sends
         executor.setThreadNamePrefix("columnMappingThread-");
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Work-stealing pool for validating the byte-range chunks of large files (0 = one thread per core).
+     */
+    @Bean(name = "validationPool", destroyMethod = "shutdown")
+    public ForkJoinPool validationPool(@Value("${processing.validation.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
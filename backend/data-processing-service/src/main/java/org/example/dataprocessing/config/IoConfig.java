@@ -0,0 +1,23 @@
+package org.example.dataprocessing.config;
+
+import org.example.common.io.IoLimits;
+import org.example.common.io.LaneMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IoConfig {
+
+    // Files validated at once, and error/status batches written at once (at most the connection pool size)
+    @Bean
+    public IoLimits ioLimits(@Value("${processing.io.max-open-files:16}") int maxOpenFiles,
+                             @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxConnections) {
+        return new IoLimits(maxOpenFiles, maxConnections);
+    }
+
+    @Bean
+    public LaneMetrics laneMetrics() {
+        return new LaneMetrics();
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.dataprocessing.config;
 
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -16,4 +17,33 @@ public class RabbitMQConfig {
     public Queue transactionProcessingQueue() {
         return new Queue("transaction-processing-queue", true);
     }
+
+    /**
+     * Large-file lane of the CSV processing queue (see ProcessingLanes).
+     */
+    @Bean
+    public Queue csvProcessingLargeQueue() {
+        return largeLane("csv-processing-queue.large", "csv-processing-queue");
+    }
+
+    /**
+     * Large-file lane of the transaction processing queue.
+     */
+    @Bean
+    public Queue transactionProcessingLargeQueue() {
+        return largeLane("transaction-processing-queue.large", "transaction-processing-queue");
+    }
+
+    /**
+     * Aging rule: an expired message is dead-lettered into the regular lane, where the regular consumers pick
+     * it up as well. The expiration itself is the processing.lanes.aging-ttl stamped on each message by
+     * ProcessingLanes, so the queue arguments stay the same whatever the TTL; only a queue declared with an
+     * x-message-ttl argument by an older version must be deleted once.
+     */
+    private Queue largeLane(String name, String regularLane) {
+        return QueueBuilder.durable(name)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(regularLane)
+                .build();
+    }
 }
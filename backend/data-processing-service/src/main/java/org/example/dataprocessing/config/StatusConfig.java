@@ -0,0 +1,32 @@
+package org.example.dataprocessing.config;
+
+import org.example.common.status.StatusCache;
+import org.example.common.status.StatusEventPublisher;
+import org.example.dataprocessing.service.ProcessingState;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+@Configuration
+public class StatusConfig {
+
+    @Bean(name = "processingStatusCache")
+    public StatusCache<ProcessingState> processingStatusCache(@Value("${processing.status-cache.max-size:10000}") int maxSize,
+                                                              @Value("${processing.status-cache.active-ttl:30s}") Duration activeTtl,
+                                                              @Value("${processing.status-cache.terminal-ttl:30m}") Duration terminalTtl,
+                                                              @Value("${processing.status-cache.negative-ttl:5s}") Duration negativeTtl) {
+        // Terminal states never change again, so they can stay cached much longer than in-flight ones
+        return new StatusCache<>(maxSize, state -> state.isTerminal() ? terminalTtl : activeTtl, negativeTtl);
+    }
+
+    @Bean(name = "processingStatusEvents")
+    public StatusEventPublisher processingStatusEvents(@Value("${processing.status-events.timeout:10m}") Duration timeout,
+                                                       @Qualifier("columnMappingExecutor") Executor executor) {
+        return new StatusEventPublisher(Set.of("COMPLETED", "FAILED"), timeout, executor);
+    }
+}
@@ -1,11 +1,16 @@
 package org.example.dataprocessing.controller;
 
+import org.example.dataprocessing.model.ErrorBudget;
+import org.example.dataprocessing.model.ValidationRule;
 import org.example.dataprocessing.service.ColumnMappingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -22,13 +27,15 @@ public class ColumnMappingController {
     }
 
     /**
-     * Saves column mapping and starts CSV processing.
+     * Saves column mapping (with optional validation "rules" and "errorBudget") and starts CSV processing.
      */
     @PostMapping
     public ResponseEntity<Map<String, Object>> saveMapping(@RequestBody Map<String, Object> request) {
         try {
             UUID fileId = UUID.fromString(request.get("fileId").toString());
             Map<String, String> mappings = (Map<String, String>) request.get("mappings");
+            List<ValidationRule> rules = ValidationRule.listFrom(request.get("rules"));
+            ErrorBudget errorBudget = ErrorBudget.from(request.get("errorBudget"));
 
             if (fileId == null || mappings == null || mappings.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of(
@@ -36,7 +43,7 @@ public class ColumnMappingController {
                 ));
             }
 
-            columnMappingService.saveColumnMapping(fileId, mappings);
+            columnMappingService.saveColumnMapping(fileId, mappings, rules, errorBudget);
 
             return ResponseEntity.ok(Map.of(
                     "fileId", fileId,
@@ -53,6 +60,52 @@ public class ColumnMappingController {
     }
 
 
+    /**
+     * Saves one column mapping for many files (e.g. a bulk upload) and starts processing all of them.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> saveBatchMapping(@RequestBody Map<String, Object> request) {
+        try {
+            List<UUID> fileIds = ((List<?>) request.get("fileIds")).stream()
+                    .map(id -> UUID.fromString(id.toString()))
+                    .toList();
+            Map<String, String> mappings = (Map<String, String>) request.get("mappings");
+            List<ValidationRule> rules = ValidationRule.listFrom(request.get("rules"));
+            ErrorBudget errorBudget = ErrorBudget.from(request.get("errorBudget"));
+
+            if (fileIds.isEmpty() || mappings == null || mappings.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "message", "Invalid request: fileIds and mappings are required."
+                ));
+            }
+
+            columnMappingService.saveColumnMappings(fileIds, mappings, rules, errorBudget);
+
+            return ResponseEntity.ok(Map.of(
+                    "fileCount", fileIds.size(),
+                    "message", "Mapping saved for " + fileIds.size() + " files. Async file data validation process started."
+            ));
+        } catch (Exception e) {
+            logger.error("Error saving batch mapping: {}", e.getMessage(), e);
+
+            return ResponseEntity.badRequest().body(Map.of(
+                    "message", "Error saving batch mapping: " + e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Retrieves aggregate processing status for a set of files.
+     */
+    @PostMapping("/batch/status")
+    public ResponseEntity<Map<String, Object>> getBatchStatus(@RequestBody Map<String, List<UUID>> request) {
+        List<UUID> fileIds = request.get("fileIds");
+        if (fileIds == null || fileIds.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid request: fileIds are required."));
+        }
+        return ResponseEntity.ok(columnMappingService.getBatchStatus(fileIds));
+    }
+
     /**
      * Retrieves processing status (status & error count only).
      */
@@ -62,18 +115,64 @@ public class ColumnMappingController {
     }
 
     /**
-     * Retrieves validation errors (paginated).
+     * Streams processing status transitions (with error counts) as server-sent events (replaces polling).
+     */
+    @GetMapping(value = "/status/{fileId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProcessingStatus(@PathVariable UUID fileId) {
+        return columnMappingService.subscribeToStatus(fileId);
+    }
+
+    /**
+     * Retrieves status cache metrics (size, hits, misses, evictions).
+     */
+    @GetMapping("/status-cache")
+    public ResponseEntity<Map<String, Object>> getStatusCacheMetrics() {
+        return ResponseEntity.ok(columnMappingService.getStatusCacheMetrics());
+    }
+
+    /**
+     * Retrieves per-lane queue wait time and throughput (regular and large-file lanes).
+     */
+    @GetMapping("/lanes")
+    public ResponseEntity<Map<String, Object>> getLaneMetrics() {
+        return ResponseEntity.ok(columnMappingService.getLaneMetrics());
+    }
+
+    /**
+     * Retrieves files being validated and error and status batches being written, with consumers waiting for either.
+     */
+    @GetMapping("/io")
+    public ResponseEntity<Map<String, Object>> getIoMetrics() {
+        return ResponseEntity.ok(columnMappingService.getIoMetrics());
+    }
+
+    /**
+     * Retrieves validation errors (keyset paginated: pass nextAfterRow/nextAfterId of the previous page).
      */
     @GetMapping("/errors/{fileId}")
     public ResponseEntity<?> getValidationErrors(
             @PathVariable UUID fileId,
-            @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "0") long afterRow,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String rule,
+            @RequestParam(required = false) String column) {
         try {
-            return ResponseEntity.ok(columnMappingService.getValidationErrors(fileId, page, size));
+            if (size < 1 || size > 1000) {
+                return ResponseEntity.badRequest().body(Map.of("message", "size must be between 1 and 1000."));
+            }
+            return ResponseEntity.ok(columnMappingService.getValidationErrors(fileId, afterRow, afterId, size, rule, column));
         } catch (Exception e) {
             logger.error(" Error retrieving validation errors for file {}: {}", fileId, e.getMessage(), e);
             return ResponseEntity.badRequest().body(" Error retrieving errors.");
         }
     }
+
+    /**
+     * Retrieves validation error counts per rule and column, with a sample of the first errors.
+     */
+    @GetMapping("/errors/{fileId}/summary")
+    public ResponseEntity<Map<String, Object>> getValidationErrorSummary(@PathVariable UUID fileId) {
+        return ResponseEntity.ok(columnMappingService.getValidationErrorSummary(fileId));
+    }
 }
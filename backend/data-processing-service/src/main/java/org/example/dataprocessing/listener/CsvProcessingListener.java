@@ -1,11 +1,19 @@
 package org.example.dataprocessing.listener;
 
+import org.example.common.io.IoLimits;
+import org.example.common.io.LaneMetrics;
+import org.example.dataprocessing.messaging.ProcessingLanes;
+import org.example.dataprocessing.messaging.RangeTask;
 import org.example.dataprocessing.service.ColumnMappingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -13,18 +21,50 @@ public class CsvProcessingListener {
 
     private static final Logger logger = LoggerFactory.getLogger(CsvProcessingListener.class);
     private final ColumnMappingService columnMappingService;
+    private final LaneMetrics laneMetrics;
+    private final IoLimits ioLimits;
 
-    public CsvProcessingListener(ColumnMappingService columnMappingService) {
+    public CsvProcessingListener(ColumnMappingService columnMappingService, LaneMetrics laneMetrics, IoLimits ioLimits) {
         this.columnMappingService = columnMappingService;
+        this.laneMetrics = laneMetrics;
+        this.ioLimits = ioLimits;
     }
 
-    @RabbitListener(queues = "${rabbitmq.queue.csv-processing}")
-    public void processCsvMessage(String fileId) {
+    @RabbitListener(queues = "${rabbitmq.queue.csv-processing}", concurrency = "${rabbitmq.listener.csv-processing.concurrency:1}")
+    public void processCsvMessage(String message,
+                                  @Header(name = ProcessingLanes.ENQUEUED_AT_HEADER, required = false) Long enqueuedAt,
+                                  @Header(name = ProcessingLanes.SIZE_HEADER, required = false) Long size,
+                                  @Header(name = "x-death", required = false) List<Map<String, ?>> deaths) {
+        process(ProcessingLanes.REGULAR, message, enqueuedAt, size, deaths != null);
+    }
+
+    /**
+     * Large-file lane, with its own consumers so large files never hold up the regular lane.
+     */
+    @RabbitListener(queues = "${rabbitmq.queue.csv-processing-large}", concurrency = "${rabbitmq.listener.csv-processing-large.concurrency:1}")
+    public void processLargeCsvMessage(String message,
+                                       @Header(name = ProcessingLanes.ENQUEUED_AT_HEADER, required = false) Long enqueuedAt,
+                                       @Header(name = ProcessingLanes.SIZE_HEADER, required = false) Long size) {
+        process(ProcessingLanes.LARGE, message, enqueuedAt, size, false);
+    }
+
+    private void process(String lane, String message, Long enqueuedAt, Long size, boolean aged) {
+        long startedAt = System.currentTimeMillis();
         try {
-            logger.info("📥 Received file {} for processing via RabbitMQ", fileId);
-            columnMappingService.processCsvFile(UUID.fromString(fileId));
+            Optional<RangeTask> rangeTask = RangeTask.parse(message);
+            if (rangeTask.isPresent()) {
+                logger.info("📥 Received range {} of file {} for processing via RabbitMQ", rangeTask.get().index(), rangeTask.get().fileId());
+                ioLimits.withFile(() -> columnMappingService.processRange(rangeTask.get()));
+                return;
+            }
+            logger.info("📥 Received file {} for processing via RabbitMQ ({} lane{})", message, lane, aged ? ", aged" : "");
+            UUID fileId = UUID.fromString(message);
+            ioLimits.withFile(() -> columnMappingService.processCsvFile(fileId));
         } catch (Exception e) {
-            logger.error(" Error processing file {}: {}", fileId, e.getMessage(), e);
+            logger.error(" Error processing file {}: {}", message, e.getMessage(), e);
+        } finally {
+            laneMetrics.record(lane, enqueuedAt != null ? enqueuedAt : 0, startedAt, System.currentTimeMillis(),
+                    size != null ? size : 0, aged);
         }
     }
 }
@@ -13,19 +13,36 @@ public class CsvProcessingProducer {
 
     private static final Logger logger = LoggerFactory.getLogger(CsvProcessingProducer.class);
     private final RabbitTemplate rabbitTemplate;
+    private final ProcessingLanes processingLanes;
 
     @Value("${rabbitmq.queue.csv-processing}")
     private String csvProcessingQueue;
 
-    public CsvProcessingProducer(RabbitTemplate rabbitTemplate) {
+    @Value("${rabbitmq.queue.csv-processing-large}")
+    private String csvProcessingLargeQueue;
+
+    public CsvProcessingProducer(RabbitTemplate rabbitTemplate, ProcessingLanes processingLanes) {
         this.rabbitTemplate = rabbitTemplate;
+        this.processingLanes = processingLanes;
     }
 
     /**
-     * Sends fileId to RabbitMQ for async processing.
+     * Sends fileId to RabbitMQ for async processing, on the lane for its size.
      */
     public void sendFileIdForProcessing(UUID fileId) {
-        logger.info("📤 Sending fileId {} to CSV processing queue", fileId);
-        rabbitTemplate.convertAndSend(csvProcessingQueue, fileId.toString());
+        long size = processingLanes.estimatedSize(fileId);
+        String lane = processingLanes.laneFor(size);
+        logger.info("📤 Sending fileId {} to CSV processing queue ({} lane)", fileId, lane);
+        rabbitTemplate.convertAndSend(ProcessingLanes.LARGE.equals(lane) ? csvProcessingLargeQueue : csvProcessingQueue,
+                (Object) fileId.toString(), processingLanes.stamp(lane, size));
+    }
+
+    /**
+     * Sends one byte range of a large file on the large lane; any data-processing instance may pick it up.
+     */
+    public void sendRangeForProcessing(RangeTask task, long bytes) {
+        logger.debug("Sending range {} of file {} to CSV processing queue", task.index(), task.fileId());
+        rabbitTemplate.convertAndSend(csvProcessingLargeQueue, (Object) task.toMessage(),
+                processingLanes.stamp(ProcessingLanes.LARGE, bytes));
     }
 }
@@ -0,0 +1,79 @@
+package org.example.dataprocessing.messaging;
+
+import org.example.common.csv.CsvFiles;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Size-aware lanes for the CSV and transaction processing queues: files estimated at or above the large
+ * threshold go to the ".large" queues, which have their own consumers, so one huge file never sits in front
+ * of many small ones. Large-lane messages carry the aging TTL as their expiration and are dead-lettered into the
+ * regular lane when it runs out (see RabbitMQConfig), so large files are not starved either.
+ */
+@Component
+public class ProcessingLanes {
+
+    public static final String REGULAR = "regular";
+    public static final String LARGE = "large";
+
+    // Message headers: when the message was published and how many bytes of CSV it covers
+    public static final String ENQUEUED_AT_HEADER = "x-enqueued-at";
+    public static final String SIZE_HEADER = "x-file-size";
+
+    @Value("${file.upload-dir}")
+    private String uploadDir = "uploads/";
+
+    @Value("${processing.lanes.large-threshold-bytes:67108864}")
+    private long largeThresholdBytes;
+
+    @Value("${processing.lanes.compressed-expansion:8}")
+    private long compressedExpansion;
+
+    @Value("${processing.lanes.aging-ttl:10m}")
+    private Duration agingTtl = Duration.ZERO;
+
+    /**
+     * Estimated uncompressed CSV size of the stored file; compressed uploads count as their size on disk
+     * times the expected expansion.
+     */
+    public long estimatedSize(UUID fileId) {
+        Path file = CsvFiles.resolve(uploadDir, fileId);
+        try {
+            if (!Files.exists(file)) {
+                return 0;
+            }
+            long size = Files.size(file);
+            return CsvFiles.isCompressed(file) ? size * compressedExpansion : size;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not size file " + fileId, e);
+        }
+    }
+
+    public String laneFor(long size) {
+        return size >= largeThresholdBytes ? LARGE : REGULAR;
+    }
+
+    /**
+     * Stamps the publish time and size on a message, for the lane metrics of its consumer, and on the large
+     * lane the aging TTL. The TTL is set per message rather than as a queue argument, so changing it needs
+     * no queue redeclaration.
+     */
+    public MessagePostProcessor stamp(String lane, long size) {
+        return message -> {
+            message.getMessageProperties().setHeader(ENQUEUED_AT_HEADER, System.currentTimeMillis());
+            message.getMessageProperties().setHeader(SIZE_HEADER, size);
+            if (LARGE.equals(lane) && !agingTtl.isZero()) {
+                message.getMessageProperties().setExpiration(String.valueOf(agingTtl.toMillis()));
+            }
+            return message;
+        };
+    }
+}
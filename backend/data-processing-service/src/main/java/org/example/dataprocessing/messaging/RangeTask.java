@@ -0,0 +1,31 @@
+package org.example.dataprocessing.messaging;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * One byte range of a scattered file, sent on the CSV processing queue as "range:fileId:runId:index" next to
+ * the plain fileId messages that start processing a whole file.
+ */
+public record RangeTask(UUID fileId, UUID runId, int index) {
+
+    private static final String PREFIX = "range:";
+
+    public String toMessage() {
+        return PREFIX + fileId + ":" + runId + ":" + index;
+    }
+
+    /**
+     * The range task in the message, or empty if it is a plain fileId.
+     */
+    public static Optional<RangeTask> parse(String message) {
+        if (!message.startsWith(PREFIX)) {
+            return Optional.empty();
+        }
+        String[] parts = message.substring(PREFIX.length()).split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed range task: " + message);
+        }
+        return Optional.of(new RangeTask(UUID.fromString(parts[0]), UUID.fromString(parts[1]), Integer.parseInt(parts[2])));
+    }
+}
@@ -13,19 +13,27 @@ public class TransactionMessageProducer {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionMessageProducer.class);
     private final RabbitTemplate rabbitTemplate;
+    private final ProcessingLanes processingLanes;
 
     @Value("${rabbitmq.queue.transaction-processing}")
     private String transactionQueue;
 
-    public TransactionMessageProducer(RabbitTemplate rabbitTemplate) {
+    @Value("${rabbitmq.queue.transaction-processing-large}")
+    private String transactionLargeQueue;
+
+    public TransactionMessageProducer(RabbitTemplate rabbitTemplate, ProcessingLanes processingLanes) {
         this.rabbitTemplate = rabbitTemplate;
+        this.processingLanes = processingLanes;
     }
 
     /**
-     * Sends fileId to transaction-service via RabbitMQ.
+     * Sends fileId to transaction-service via RabbitMQ, on the lane for its size.
      */
     public void sendFileIdToTransactionService(UUID fileId) {
-        logger.info("Sending fileId {} to transaction-service queue", fileId);
-        rabbitTemplate.convertAndSend(transactionQueue, fileId.toString());
+        long size = processingLanes.estimatedSize(fileId);
+        String lane = processingLanes.laneFor(size);
+        logger.info("Sending fileId {} to transaction-service queue ({} lane)", fileId, lane);
+        rabbitTemplate.convertAndSend(ProcessingLanes.LARGE.equals(lane) ? transactionLargeQueue : transactionQueue,
+                (Object) fileId.toString(), processingLanes.stamp(lane, size));
     }
 }
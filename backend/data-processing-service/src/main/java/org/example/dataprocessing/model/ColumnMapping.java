@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -19,6 +20,12 @@ public class ColumnMapping {
     @Column(columnDefinition = "TEXT")  // Store JSON as TEXT
     private String mappingsJson;
 
+    @Column(columnDefinition = "TEXT")  // Declarative validation rules as JSON; null means the default rules
+    private String rulesJson;
+
+    @Column(columnDefinition = "TEXT")  // Error budget as JSON; null means the configured defaults
+    private String errorBudgetJson;
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -46,6 +53,44 @@ public class ColumnMapping {
         this.mappingsJson = convertMapToJson(mappings);
     }
 
+    public List<ValidationRule> getRules() {
+        if (rulesJson == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(rulesJson, new TypeReference<List<ValidationRule>>() {});
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to convert JSON to rules", e);
+        }
+    }
+
+    public void setRules(List<ValidationRule> rules) {
+        try {
+            this.rulesJson = rules != null ? objectMapper.writeValueAsString(rules) : null;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to convert rules to JSON", e);
+        }
+    }
+
+    public ErrorBudget getErrorBudget() {
+        if (errorBudgetJson == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(errorBudgetJson, ErrorBudget.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to convert JSON to error budget", e);
+        }
+    }
+
+    public void setErrorBudget(ErrorBudget errorBudget) {
+        try {
+            this.errorBudgetJson = errorBudget != null ? objectMapper.writeValueAsString(errorBudget) : null;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to convert error budget to JSON", e);
+        }
+    }
+
     public Instant getCreatedAt() { return createdAt; }
 
     private String convertMapToJson(Map<String, String> map) {
@@ -0,0 +1,74 @@
+package org.example.dataprocessing.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Outcome of validating one column's rules against a file. A later mapping edit only re-runs the rules of a
+ * column when its rules (as JSON) changed, the stored file changed, or the previous run did not finish;
+ * otherwise the column's errors already in validation_error are kept as they are.
+ */
+@Entity
+@Table(name = "column_validation_result", uniqueConstraints =
+        @UniqueConstraint(name = "uk_column_validation_result_file_column", columnNames = {"file_id", "column_name"}))
+public class ColumnValidationResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "column_validation_result_seq")
+    @SequenceGenerator(name = "column_validation_result_seq", sequenceName = "column_validation_result_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "file_id", nullable = false)
+    private UUID fileId;
+
+    @Column(name = "column_name", nullable = false)
+    private String columnName;
+
+    @Column(columnDefinition = "TEXT", nullable = false)  // The column's rules when it was validated
+    private String rulesJson;
+
+    @Column(nullable = false)
+    private long fileSize;
+
+    @Column(nullable = false)
+    private long fileModified;  // epoch millis of the stored file
+
+    @Column(nullable = false)
+    private long rowCount;
+
+    @Column(nullable = false)
+    private long errorCount;
+
+    @Column(nullable = false)
+    private boolean complete;  // false if validation stopped early
+
+    @Column(nullable = false)
+    private Instant validatedAt;
+
+    public ColumnValidationResult() {}
+
+    public ColumnValidationResult(UUID fileId, String columnName, String rulesJson, long fileSize, long fileModified,
+                                  long rowCount, long errorCount, boolean complete) {
+        this.fileId = fileId;
+        this.columnName = columnName;
+        this.rulesJson = rulesJson;
+        this.fileSize = fileSize;
+        this.fileModified = fileModified;
+        this.rowCount = rowCount;
+        this.errorCount = errorCount;
+        this.complete = complete;
+        this.validatedAt = Instant.now();
+    }
+
+    public Long getId() { return id; }
+    public UUID getFileId() { return fileId; }
+    public String getColumnName() { return columnName; }
+    public String getRulesJson() { return rulesJson; }
+    public long getFileSize() { return fileSize; }
+    public long getFileModified() { return fileModified; }
+    public long getRowCount() { return rowCount; }
+    public long getErrorCount() { return errorCount; }
+    public boolean isComplete() { return complete; }
+    public Instant getValidatedAt() { return validatedAt; }
+}
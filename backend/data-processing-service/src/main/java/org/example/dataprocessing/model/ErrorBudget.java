@@ -0,0 +1,55 @@
+package org.example.dataprocessing.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * How many validation errors a file may produce before validation stops early, stored as JSON with the mapping.
+ * <ul>
+ *   <li>{@code maxErrors}: stop once more than this many errors were found (0 or less: no limit)</li>
+ *   <li>{@code maxErrorRate}: stop if, once {@code rateWindowRows} rows are validated, there are more errors per
+ *       row than this (0 or less: no limit). A sequential pass measures the first rows of the file; a parallel
+ *       pass measures whichever rows its chunks validated first, a sample spread across the file; a scattered
+ *       range measures its own first rows</li>
+ *   <li>{@code fullReport}: never stop early, so every error is reported</li>
+ * </ul>
+ * Unset fields fall back to the configured defaults.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ErrorBudget(Long maxErrors, Double maxErrorRate, Long rateWindowRows, Boolean fullReport) {
+
+    public static final ErrorBudget FULL_REPORT = new ErrorBudget(null, null, null, true);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Converts the "errorBudget" element of a request body; null or missing means the defaults.
+     */
+    public static ErrorBudget from(Object budget) {
+        if (budget == null) {
+            return null;
+        }
+        try {
+            return objectMapper.convertValue(budget, ErrorBudget.class);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid error budget: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * This budget with unset fields taken from {@code defaults}.
+     */
+    public ErrorBudget orElse(ErrorBudget defaults) {
+        return new ErrorBudget(
+                maxErrors != null ? maxErrors : defaults.maxErrors(),
+                maxErrorRate != null ? maxErrorRate : defaults.maxErrorRate(),
+                rateWindowRows != null ? rateWindowRows : defaults.rateWindowRows(),
+                fullReport != null ? fullReport : defaults.fullReport());
+    }
+
+    @JsonIgnore
+    public boolean isFullReport() {
+        return Boolean.TRUE.equals(fullReport);
+    }
+}
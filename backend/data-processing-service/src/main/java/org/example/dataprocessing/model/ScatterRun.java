@@ -0,0 +1,50 @@
+package org.example.dataprocessing.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A file being validated as separate byte-range tasks (see {@link ValidationRange}). Workers count finished
+ * ranges here; the one that finishes the last range claims the gather step. A new run of the same file
+ * replaces the row, so tasks of an older run can tell they are stale by their runId.
+ */
+@Entity
+@Table(name = "validation_scatter_run")
+public class ScatterRun {
+
+    @Id
+    @Column(name = "file_id")
+    private UUID fileId;
+
+    @Column(name = "run_id", nullable = false)
+    private UUID runId;
+
+    @Column(nullable = false)
+    private int rangeCount;
+
+    @Column(nullable = false)
+    private int rangesDone;
+
+    @Column(nullable = false)
+    private boolean gathered;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    public ScatterRun() {}
+
+    public ScatterRun(UUID fileId, UUID runId, int rangeCount) {
+        this.fileId = fileId;
+        this.runId = runId;
+        this.rangeCount = rangeCount;
+        this.startedAt = Instant.now();
+    }
+
+    public UUID getFileId() { return fileId; }
+    public UUID getRunId() { return runId; }
+    public int getRangeCount() { return rangeCount; }
+    public int getRangesDone() { return rangesDone; }
+    public boolean isGathered() { return gathered; }
+    public Instant getStartedAt() { return startedAt; }
+}
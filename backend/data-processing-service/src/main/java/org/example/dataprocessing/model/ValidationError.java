@@ -0,0 +1,61 @@
+package org.example.dataprocessing.model;
+
+import jakarta.persistence.*;
+import java.util.UUID;
+
+/**
+ * One validation error of a file. Rows are keyed by (file, row, id) so error pages are read with keyset
+ * pagination instead of offsets. Errors of a scatter/gather range carry the run they were written by, so
+ * a task left over from a replaced run only ever touches its own.
+ */
+@Entity
+@Table(name = "validation_error", indexes = {
+        @Index(name = "idx_validation_error_file_row", columnList = "file_id, row_number, id"),
+        @Index(name = "idx_validation_error_file_rule", columnList = "file_id, rule, column_name")
+})
+public class ValidationError {
+
+    public static final int MESSAGE_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "validation_error_seq")
+    @SequenceGenerator(name = "validation_error_seq", sequenceName = "validation_error_seq", allocationSize = 1000)
+    private Long id;
+
+    @Column(name = "file_id", nullable = false)
+    private UUID fileId;
+
+    @Column(name = "row_number", nullable = false)
+    private long rowNumber;
+
+    @Column(name = "run_id")
+    private UUID runId;  // scatter/gather run, null otherwise
+
+    @Column(nullable = false, length = 20)
+    private String rule; // required, unique, date, decimal, enum, length, compare
+
+    @Column(name = "column_name", nullable = false)
+    private String columnName;
+
+    @Column(nullable = false, length = MESSAGE_LENGTH)
+    private String message;  // truncated to fit by ValidationErrorStore
+
+    public ValidationError() {}
+
+    public ValidationError(UUID fileId, UUID runId, long rowNumber, String rule, String columnName, String message) {
+        this.fileId = fileId;
+        this.runId = runId;
+        this.rowNumber = rowNumber;
+        this.rule = rule;
+        this.columnName = columnName;
+        this.message = message;
+    }
+
+    public Long getId() { return id; }
+    public UUID getFileId() { return fileId; }
+    public UUID getRunId() { return runId; }
+    public long getRowNumber() { return rowNumber; }
+    public String getRule() { return rule; }
+    public String getColumnName() { return columnName; }
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,67 @@
+package org.example.dataprocessing.model;
+
+import jakarta.persistence.*;
+import java.util.UUID;
+
+/**
+ * One record-aligned byte range of a scattered file, and its outcome once a worker validated it.
+ */
+@Entity
+@Table(name = "validation_range", uniqueConstraints =
+        @UniqueConstraint(name = "uk_validation_range_file_index", columnNames = {"file_id", "range_index"}))
+public class ValidationRange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "validation_range_seq")
+    @SequenceGenerator(name = "validation_range_seq", sequenceName = "validation_range_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "file_id", nullable = false)
+    private UUID fileId;
+
+    @Column(name = "run_id", nullable = false)
+    private UUID runId;
+
+    @Column(name = "range_index", nullable = false)
+    private int rangeIndex;
+
+    @Column(nullable = false)
+    private long startOffset;
+
+    @Column(nullable = false)
+    private long endOffset;  // exclusive
+
+    @Column(nullable = false)
+    private boolean done;
+
+    @Column(nullable = false)
+    private long rowCount;
+
+    @Column(nullable = false)
+    private long errorCount;
+
+    @Column(length = 500)
+    private String stopReason;  // set if the range stopped early on its error budget
+
+    public ValidationRange() {}
+
+    public ValidationRange(UUID fileId, UUID runId, int rangeIndex, long startOffset, long endOffset) {
+        this.fileId = fileId;
+        this.runId = runId;
+        this.rangeIndex = rangeIndex;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    public Long getId() { return id; }
+    public UUID getFileId() { return fileId; }
+    public UUID getRunId() { return runId; }
+    public int getRangeIndex() { return rangeIndex; }
+    public long getStartOffset() { return startOffset; }
+    public long getEndOffset() { return endOffset; }
+    public boolean isDone() { return done; }
+    public long getRowCount() { return rowCount; }
+    public long getErrorCount() { return errorCount; }
+    public String getStopReason() { return stopReason; }
+    public boolean isComplete() { return stopReason == null; }
+}
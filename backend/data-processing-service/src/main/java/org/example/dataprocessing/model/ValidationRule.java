@@ -0,0 +1,54 @@
+package org.example.dataprocessing.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One declarative validation rule of a column mapping, stored as JSON with the mapping.
+ * <ul>
+ *   <li>{@code required}: the column must not be blank</li>
+ *   <li>{@code unique}: values must not repeat within the file (at most one per mapping)</li>
+ *   <li>{@code date}: {@code format} built from yyyy, MM, M, dd, d and literal separators (default yyyy-MM-dd)</li>
+ *   <li>{@code decimal}: at most {@code scale} fraction digits (default 2), optional {@code min}/{@code max}</li>
+ *   <li>{@code enum}: one of {@code values}</li>
+ *   <li>{@code length}: between {@code min} and {@code max} characters</li>
+ *   <li>{@code compare}: {@code column} {@code operator} (=, !=, &lt;, &lt;=, &gt;, &gt;=) {@code other}, as dates or
+ *       decimals when the column has such a rule, otherwise as text</li>
+ * </ul>
+ * Empty values only fail {@code required} and {@code unique}. {@code message} overrides the default error text.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ValidationRule(String type, String column, String format, List<String> values,
+                             BigDecimal min, BigDecimal max, Integer scale,
+                             String operator, String other, String message) {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ValidationRule {
+        if (type == null || column == null) {
+            throw new IllegalArgumentException("Validation rules need a type and a column.");
+        }
+    }
+
+    public static ValidationRule of(String type, String column, String format, String message) {
+        return new ValidationRule(type, column, format, null, null, null, null, null, null, message);
+    }
+
+    /**
+     * Converts the "rules" element of a request body; null or missing means no custom rules.
+     */
+    public static List<ValidationRule> listFrom(Object rules) {
+        if (rules == null) {
+            return null;
+        }
+        try {
+            return objectMapper.convertValue(rules, new TypeReference<List<ValidationRule>>() {});
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid validation rules: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.dataprocessing.repository;
+
+import org.example.dataprocessing.model.ColumnValidationResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ColumnValidationResultRepository extends JpaRepository<ColumnValidationResult, Long> {
+
+    List<ColumnValidationResult> findByFileId(UUID fileId);
+
+    /**
+     * Removes the results of the given columns, before they are validated again or when they lost their rules.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ColumnValidationResult r WHERE r.fileId = :fileId AND r.columnName IN (:columns)")
+    int deleteByFileIdAndColumns(@Param("fileId") UUID fileId, @Param("columns") Collection<String> columns);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ColumnValidationResult r WHERE r.fileId = :fileId")
+    int deleteByFileId(@Param("fileId") UUID fileId);
+}
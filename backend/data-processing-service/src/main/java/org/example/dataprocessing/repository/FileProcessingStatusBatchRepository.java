@@ -0,0 +1,17 @@
+package org.example.dataprocessing.repository;
+
+import org.example.dataprocessing.model.FileProcessingStatus;
+
+import java.util.List;
+
+/**
+ * Batched status writes, mixed into {@link FileProcessingStatusRepository}.
+ */
+public interface FileProcessingStatusBatchRepository {
+
+    /**
+     * Upserts the statuses with one multi-row statement per batch, with the same semantics as
+     * {@link FileProcessingStatusRepository#updateProcessingStatus}. File ids must be distinct.
+     */
+    void upsertStatuses(List<FileProcessingStatus> statuses, int batchSize);
+}
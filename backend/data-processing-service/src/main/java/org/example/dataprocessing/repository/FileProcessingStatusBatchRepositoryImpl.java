@@ -0,0 +1,54 @@
+package org.example.dataprocessing.repository;
+
+import org.example.dataprocessing.model.FileProcessingStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FileProcessingStatusBatchRepositoryImpl implements FileProcessingStatusBatchRepository {
+
+    private static final String INSERT = """
+    INSERT INTO file_processing_status (file_id, status, error_count, validation_errors, processing_start, processing_end) 
+    VALUES """;
+    private static final String ROW = "(?, ?, ?, ?, NOW(), CASE WHEN ? IN ('COMPLETED', 'FAILED') THEN NOW() END)";
+    private static final String ON_CONFLICT = """
+     ON CONFLICT (file_id) 
+    DO UPDATE SET 
+    status = EXCLUDED.status, 
+    error_count = EXCLUDED.error_count, 
+    validation_errors = EXCLUDED.validation_errors, 
+    processing_end = CASE 
+        WHEN EXCLUDED.status = 'COMPLETED' OR EXCLUDED.status = 'FAILED' THEN NOW() 
+        ELSE file_processing_status.processing_end 
+    END
+    """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FileProcessingStatusBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void upsertStatuses(List<FileProcessingStatus> statuses, int batchSize) {
+        for (int from = 0; from < statuses.size(); from += batchSize) {
+            List<FileProcessingStatus> batch = statuses.subList(from, Math.min(from + batchSize, statuses.size()));
+            StringBuilder sql = new StringBuilder(INSERT);
+            List<Object> args = new ArrayList<>(batch.size() * 5);
+            for (FileProcessingStatus status : batch) {
+                if (!args.isEmpty()) {
+                    sql.append(", ");
+                }
+                sql.append(ROW);
+                args.add(status.getFileId());
+                args.add(status.getStatus());
+                args.add(status.getErrorCount());
+                args.add(status.getValidationErrors());
+                args.add(status.getStatus());
+            }
+            sql.append(ON_CONFLICT);
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+    }
+}
@@ -8,11 +8,14 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface FileProcessingStatusRepository extends JpaRepository<FileProcessingStatus, UUID> {
+public interface FileProcessingStatusRepository extends JpaRepository<FileProcessingStatus, UUID>,
+        FileProcessingStatusBatchRepository {
 
     /**
      * Updates or inserts processing status and validation errors in DB.
@@ -51,4 +54,14 @@ public interface FileProcessingStatusRepository extends JpaRepository<FileProces
      */
     @Query(value = "SELECT validation_errors FROM file_processing_status WHERE file_id = :fileId", nativeQuery = true)
     Optional<String> findValidationErrors(@Param("fileId") UUID fileId);
+
+    /**
+     * Counts files and validation errors per status for a set of files (bulk upload progress).
+     */
+    @Query(value = """
+    SELECT status, COUNT(*), SUM(error_count) FROM file_processing_status 
+    WHERE file_id IN (:fileIds) 
+    GROUP BY status
+    """, nativeQuery = true)
+    List<Object[]> countByStatus(@Param("fileIds") Collection<UUID> fileIds);
 }
@@ -0,0 +1,54 @@
+package org.example.dataprocessing.repository;
+
+import org.example.dataprocessing.model.ScatterRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Repository
+public interface ScatterRunRepository extends JpaRepository<ScatterRun, UUID> {
+
+    /**
+     * Marks the range validated and counts it towards its run, in one statement so a redelivered task is
+     * never counted twice. Returns 1 while the run is current (whether or not the range was already counted),
+     * 0 once it was replaced or abandoned.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+    WITH finished AS (
+        UPDATE validation_range SET done = true, row_count = :rowCount, error_count = :errorCount, stop_reason = :stopReason 
+        WHERE file_id = :fileId AND run_id = :runId AND range_index = :rangeIndex AND done = false 
+        RETURNING file_id
+    )
+    UPDATE validation_scatter_run SET ranges_done = ranges_done + (SELECT count(*) FROM finished) 
+    WHERE file_id = :fileId AND run_id = :runId
+    """, nativeQuery = true)
+    int finishRange(@Param("fileId") UUID fileId,
+                    @Param("runId") UUID runId,
+                    @Param("rangeIndex") int rangeIndex,
+                    @Param("rowCount") long rowCount,
+                    @Param("errorCount") long errorCount,
+                    @Param("stopReason") String stopReason);
+
+    /**
+     * Claims the gather step once every range is done. Exactly one caller gets 1.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+    UPDATE ScatterRun r SET r.gathered = true 
+    WHERE r.fileId = :fileId AND r.runId = :runId AND r.gathered = false AND r.rangesDone = r.rangeCount
+    """)
+    int claimGather(@Param("fileId") UUID fileId, @Param("runId") UUID runId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ScatterRun r WHERE r.fileId = :fileId")
+    int deleteByFileId(@Param("fileId") UUID fileId);
+}
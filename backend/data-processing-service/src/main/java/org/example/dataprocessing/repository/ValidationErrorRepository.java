@@ -0,0 +1,88 @@
+package org.example.dataprocessing.repository;
+
+import org.example.dataprocessing.model.ValidationError;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ValidationErrorRepository extends JpaRepository<ValidationError, Long> {
+
+    /**
+     * Removes the errors of a previous run of the file.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ValidationError e WHERE e.fileId = :fileId")
+    int deleteByFileId(@Param("fileId") UUID fileId);
+
+    /**
+     * Removes the errors of some columns only, when just their rules are validated again.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ValidationError e WHERE e.fileId = :fileId AND e.columnName IN (:columns)")
+    int deleteByFileIdAndColumns(@Param("fileId") UUID fileId, @Param("columns") Collection<String> columns);
+
+    /**
+     * Removes the errors a scatter/gather run wrote with row numbers in [fromRow, toRow).
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+    DELETE FROM ValidationError e 
+    WHERE e.fileId = :fileId AND e.runId = :runId AND e.rowNumber >= :fromRow AND e.rowNumber < :toRow
+    """)
+    int deleteRunRows(@Param("fileId") UUID fileId, @Param("runId") UUID runId, @Param("fromRow") long fromRow,
+                      @Param("toRow") long toRow);
+
+    /**
+     * Shifts the row numbers a scatter/gather run wrote in [fromRow, toRow) by offset.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+    UPDATE ValidationError e SET e.rowNumber = e.rowNumber + :offset 
+    WHERE e.fileId = :fileId AND e.runId = :runId AND e.rowNumber >= :fromRow AND e.rowNumber < :toRow
+    """)
+    int shiftRunRows(@Param("fileId") UUID fileId, @Param("runId") UUID runId, @Param("fromRow") long fromRow,
+                     @Param("toRow") long toRow, @Param("offset") long offset);
+
+    /**
+     * Keyset page: errors after (afterRow, afterId) in row order, optionally filtered by rule and column.
+     */
+    @Query("""
+    SELECT e FROM ValidationError e
+    WHERE e.fileId = :fileId
+      AND (e.rowNumber > :afterRow OR (e.rowNumber = :afterRow AND e.id > :afterId))
+      AND (:rule IS NULL OR e.rule = :rule)
+      AND (:column IS NULL OR e.columnName = :column)
+    ORDER BY e.rowNumber, e.id
+    """)
+    List<ValidationError> findPage(@Param("fileId") UUID fileId,
+                                   @Param("afterRow") long afterRow,
+                                   @Param("afterId") long afterId,
+                                   @Param("rule") String rule,
+                                   @Param("column") String column,
+                                   Limit limit);
+
+    /**
+     * Counts a file's errors per rule and column.
+     */
+    @Query("SELECT e.rule, e.columnName, COUNT(e) FROM ValidationError e WHERE e.fileId = :fileId GROUP BY e.rule, e.columnName")
+    List<Object[]> countByRuleAndColumn(@Param("fileId") UUID fileId);
+
+    /**
+     * Counts a file's errors per column.
+     */
+    @Query("SELECT e.columnName, COUNT(e) FROM ValidationError e WHERE e.fileId = :fileId GROUP BY e.columnName")
+    List<Object[]> countByColumn(@Param("fileId") UUID fileId);
+}
@@ -0,0 +1,26 @@
+package org.example.dataprocessing.repository;
+
+import org.example.dataprocessing.model.ValidationRange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ValidationRangeRepository extends JpaRepository<ValidationRange, Long> {
+
+    Optional<ValidationRange> findByFileIdAndRunIdAndRangeIndex(UUID fileId, UUID runId, int rangeIndex);
+
+    List<ValidationRange> findByFileIdAndRunIdOrderByRangeIndex(UUID fileId, UUID runId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ValidationRange r WHERE r.fileId = :fileId")
+    int deleteByFileId(@Param("fileId") UUID fileId);
+}
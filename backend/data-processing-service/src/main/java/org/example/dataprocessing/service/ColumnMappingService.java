@@ -1,26 +1,34 @@
 package org.example.dataprocessing.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import org.example.common.csv.CsvFiles;
+import org.example.common.io.IoLimits;
+import org.example.common.io.LaneMetrics;
+import org.example.common.status.StatusCache;
+import org.example.common.status.StatusEventPublisher;
 import org.example.dataprocessing.messaging.CsvProcessingProducer;
+import org.example.dataprocessing.messaging.RangeTask;
 import org.example.dataprocessing.messaging.TransactionMessageProducer;
 import org.example.dataprocessing.model.ColumnMapping;
+import org.example.dataprocessing.model.ColumnValidationResult;
+import org.example.dataprocessing.model.ErrorBudget;
+import org.example.dataprocessing.model.ValidationRule;
 import org.example.dataprocessing.repository.ColumnMappingRepository;
+import org.example.dataprocessing.repository.ColumnValidationResultRepository;
 import org.example.dataprocessing.repository.FileProcessingStatusRepository;
+import org.example.dataprocessing.validation.CsvValidator;
+import org.example.dataprocessing.validation.RecordValidator;
+import org.example.dataprocessing.validation.ValidationResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.regex.Pattern;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class ColumnMappingService {
@@ -31,43 +39,112 @@ public class ColumnMappingService {
     private final TransactionMessageProducer transactionMessageProducer;
     private final CsvProcessingProducer csvProcessingProducer;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final Map<UUID, String> fileProcessingStatusCache = new ConcurrentHashMap<>();
-    private final Map<UUID, Integer> fileErrorCountCache = new ConcurrentHashMap<>();
+    private final StatusCache<ProcessingState> processingStatusCache;
+    private final StatusEventPublisher processingStatusEvents;
+    private final CsvValidator csvValidator;
+    private final ValidationErrorStore validationErrorStore;
+    private final ColumnValidationResultRepository columnValidationResultRepository;
+    private final ProcessingStatusWriter processingStatusWriter;
+    private final ScatterGatherService scatterGatherService;
+    private final LaneMetrics laneMetrics;
+    private final IoLimits ioLimits;
     @Value("${file.upload-dir}")
     private String uploadDir = "uploads/";
+    @Value("${processing.row-file.enabled:true}")
+    private boolean rowFileEnabled;
+    @Value("${processing.validation.error-budget.max-errors:0}")
+    private long defaultMaxErrors;
+    @Value("${processing.validation.error-budget.max-error-rate:0}")
+    private double defaultMaxErrorRate;
+    @Value("${processing.validation.error-budget.rate-window-rows:1000}")
+    private long defaultRateWindowRows;
+    @Value("${processing.validation.incremental:true}")
+    private boolean incrementalValidation;
 
     public ColumnMappingService(ColumnMappingRepository columnMappingRepository,
                                 FileProcessingStatusRepository fileProcessingStatusRepository,
                                 TransactionMessageProducer transactionMessageProducer,
-                                CsvProcessingProducer csvProcessingProducer) {
+                                CsvProcessingProducer csvProcessingProducer,
+                                StatusCache<ProcessingState> processingStatusCache,
+                                StatusEventPublisher processingStatusEvents,
+                                CsvValidator csvValidator,
+                                ValidationErrorStore validationErrorStore,
+                                ColumnValidationResultRepository columnValidationResultRepository,
+                                ProcessingStatusWriter processingStatusWriter,
+                                ScatterGatherService scatterGatherService,
+                                LaneMetrics laneMetrics,
+                                IoLimits ioLimits) {
         this.columnMappingRepository = columnMappingRepository;
         this.fileProcessingStatusRepository = fileProcessingStatusRepository;
         this.transactionMessageProducer = transactionMessageProducer;
         this.csvProcessingProducer =csvProcessingProducer;
+        this.processingStatusCache = processingStatusCache;
+        this.processingStatusEvents = processingStatusEvents;
+        this.csvValidator = csvValidator;
+        this.validationErrorStore = validationErrorStore;
+        this.columnValidationResultRepository = columnValidationResultRepository;
+        this.processingStatusWriter = processingStatusWriter;
+        this.scatterGatherService = scatterGatherService;
+        this.laneMetrics = laneMetrics;
+        this.ioLimits = ioLimits;
     }
 
-    public void saveColumnMapping(UUID fileId, Map<String, String> mappings) {
+    /**
+     * Saves the mapping with its validation rules and error budget (null keeps the defaults) and starts processing.
+     */
+    public void saveColumnMapping(UUID fileId, Map<String, String> mappings, List<ValidationRule> rules,
+                                  ErrorBudget errorBudget) {
         Optional<ColumnMapping> existingMapping = columnMappingRepository.findByFileId(fileId);
 
         if (existingMapping.isPresent()) {
             //  Update existing mappings instead of throwing an error
             ColumnMapping columnMapping = existingMapping.get();
             columnMapping.setMappings(mappings);
+            columnMapping.setRules(rules);
+            columnMapping.setErrorBudget(errorBudget);
             columnMappingRepository.save(columnMapping);
             logger.info(" Updated column mapping for file {}", fileId);
         } else {
             //  Insert new mapping if not present
-            columnMappingRepository.save(new ColumnMapping(fileId, mappings));
+            ColumnMapping columnMapping = new ColumnMapping(fileId, mappings);
+            columnMapping.setRules(rules);
+            columnMapping.setErrorBudget(errorBudget);
+            columnMappingRepository.save(columnMapping);
             logger.info(" Saved new column mapping for file {}", fileId);
         }
 
         startProcessing(fileId);
     }
 
+    /**
+     * Applies one mapping to every file of a bulk upload and enqueues them all for processing.
+     */
+    public void saveColumnMappings(List<UUID> fileIds, Map<String, String> mappings, List<ValidationRule> rules,
+                                   ErrorBudget errorBudget) {
+        Map<UUID, ColumnMapping> existing = new HashMap<>();
+        columnMappingRepository.findAllById(fileIds).forEach(mapping -> existing.put(mapping.getFileId(), mapping));
+
+        List<ColumnMapping> toSave = new ArrayList<>(fileIds.size());
+        for (UUID fileId : fileIds) {
+            ColumnMapping columnMapping = existing.get(fileId);
+            if (columnMapping != null) {
+                columnMapping.setMappings(mappings);
+            } else {
+                columnMapping = new ColumnMapping(fileId, mappings);
+            }
+            columnMapping.setRules(rules);
+            columnMapping.setErrorBudget(errorBudget);
+            toSave.add(columnMapping);
+        }
+        columnMappingRepository.saveAll(toSave);
+        logger.info(" Saved column mapping for {} files", fileIds.size());
+
+        fileIds.forEach(this::startProcessing);
+    }
+
     public void startProcessing(UUID fileId) {
         try{
-            fileProcessingStatusCache.put(fileId, "PROCESSING");
-            fileErrorCountCache.put(fileId, 0);
+            processingStatusCache.put(fileId, new ProcessingState("PROCESSING", 0));
             logger.info("Processing started for file {}", fileId);
 
             updateProcessingStatus(fileId, "PROCESSING", 0, List.of());
@@ -87,7 +164,7 @@ public class ColumnMappingService {
 
     public void processCsvFile(UUID fileId) {
         try{
-            Optional<ColumnMapping> mappingOpt = columnMappingRepository.findByFileId(fileId);
+            Optional<ColumnMapping> mappingOpt = ioLimits.withConnection(() -> columnMappingRepository.findByFileId(fileId));
             if (mappingOpt.isEmpty()) {
                 logger.error(" No column mapping found for file {}", fileId);
                 updateProcessingStatus(fileId, "FAILED", 0, List.of("No column mapping found."));
@@ -95,20 +172,55 @@ public class ColumnMappingService {
             }
 
             ColumnMapping mapping = mappingOpt.get();
-            Path filePath = Path.of(uploadDir, fileId + ".csv");
-
-            // Shared transaction ID set for global duplicate tracking across all records
-            Set<String> transactionIds = ConcurrentHashMap.newKeySet();
-            List<String> errors = new ArrayList<>();
-
-            try (BufferedReader reader = new BufferedReader(new FileReader(filePath.toFile()));
-                 CSVParser parser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
+            Path filePath = CsvFiles.resolve(uploadDir, fileId);
+
+            // Rules are compiled once per file; errors are streamed to the error store, not kept in memory
+            // A row file from an earlier run must never be ingested for this one
+            Path rowFile = CsvFiles.rowFile(uploadDir, fileId);
+            Files.deleteIfExists(rowFile);
+
+            // Only columns whose rules changed since their last complete run are validated again
+            List<ValidationRule> rules = RecordValidator.effectiveRules(mapping.getMappings(), mapping.getRules());
+            Map<String, String> columnRules = rulesJsonByColumn(rules);
+            long fileSize = Files.size(filePath);
+            long fileModified = Files.getLastModifiedTime(filePath).toMillis();
+            Map<String, ColumnValidationResult> previous = new HashMap<>();
+            if (incrementalValidation) {
+                ioLimits.withConnection(() -> columnValidationResultRepository.findByFileId(fileId))
+                        .forEach(columnResult -> previous.put(columnResult.getColumnName(), columnResult));
+            }
+            Set<String> stale = staleColumns(rules, columnRules, previous, fileSize, fileModified);
+            Set<String> cleared = new HashSet<>(stale);
+            previous.keySet().stream().filter(column -> !columnRules.containsKey(column)).forEach(cleared::add);
+            boolean fullRun = previous.isEmpty() || stale.size() == columnRules.size();
+            long reusedErrors = previous.values().stream()
+                    .filter(columnResult -> columnRules.containsKey(columnResult.getColumnName()) && !stale.contains(columnResult.getColumnName()))
+                    .mapToLong(ColumnValidationResult::getErrorCount).sum();
+
+            if (fullRun && scatterGatherService.shouldScatter(filePath)) {
+                // Validated range by range on every instance; the range finished last sets the status
+                ioLimits.withConnection(() -> columnValidationResultRepository.deleteByFileId(fileId));
+                int ranges = scatterGatherService.scatter(fileId, filePath);
+                logger.info("Scattered file {} into {} range tasks", fileId, ranges);
+                return;
+            }
 
-                for (CSVRecord record : parser) {  // Reads and validates each row immediately
-                    String error = validateRecord(record, mapping.getMappings(), transactionIds);
-                    if (!error.isEmpty()) {
-                        errors.add(error);
-                    }
+            ValidationResult result = null;
+            if (fullRun) {
+                ioLimits.withConnection(() -> columnValidationResultRepository.deleteByFileId(fileId));
+            } else if (!cleared.isEmpty()) {
+                ioLimits.withConnection(() -> columnValidationResultRepository.deleteByFileIdAndColumns(fileId, cleared));
+            }
+            try (ValidationErrorStore.Writer errorWriter = fullRun ? validationErrorStore.open(fileId)
+                    : validationErrorStore.open(fileId, cleared)) {
+                if (fullRun || !stale.isEmpty()) {
+                    result = csvValidator.validate(filePath, mapping.getMappings(), rules, fullRun ? null : stale,
+                            errorBudget(mapping), errorWriter, rowFileEnabled && reusedErrors == 0 ? rowFile : null);
+                    logger.info("Validated {} rows of file {} ({}): {} errors (row file written: {})",
+                            result.rowCount(), fileId, fullRun ? "all columns" : "columns " + stale,
+                            result.errorCount(), result.rowFileWritten());
+                } else {
+                    logger.info("Validation rules of file {} are unchanged, reusing the previous results", fileId);
                 }
             } catch (Exception e) {
                 logger.error(" Error processing CSV file {}: {}", fileId, e.getMessage(), e);
@@ -116,23 +228,135 @@ public class ColumnMappingService {
                 return;
             }
 
-            if (!errors.isEmpty()) {
-                updateProcessingStatus(fileId, "FAILED", errors.size(), errors);
+            finishValidation(fileId, filePath, columnRules, fullRun ? columnRules.keySet() : stale, result);
+        }catch (Exception e) {
+            logger.error(" Critical error processing file {}: {}", fileId, e.getMessage(), e);
+
+            try {
+                updateProcessingStatus(fileId, "FAILED", 0, List.of(" System error: " + e.getMessage()));
+            } catch (Exception dbError) {
+                logger.error(" Error updating status in catch block for file {}: {}", fileId, dbError.getMessage(), dbError);
+            }
+        }
+
+    }
+
+    /**
+     * Validates one byte range of a scattered file; the call that finishes the file's last range gathers the
+     * ranges and sets the file's status.
+     */
+    public void processRange(RangeTask task) {
+        UUID fileId = task.fileId();
+        try {
+            Optional<ColumnMapping> mappingOpt = ioLimits.withConnection(() -> columnMappingRepository.findByFileId(fileId));
+            if (mappingOpt.isEmpty()) {
+                logger.error(" No column mapping found for file {}", fileId);
+                scatterGatherService.abandon(fileId);
+                updateProcessingStatus(fileId, "FAILED", 0, List.of("No column mapping found."));
                 return;
             }
 
-            transactionMessageProducer.sendFileIdToTransactionService(fileId);
-            updateProcessingStatus(fileId, "COMPLETED", 0, null);
-        }catch (Exception e) {
-            logger.error(" Critical error processing file {}: {}", fileId, e.getMessage(), e);
+            ColumnMapping mapping = mappingOpt.get();
+            List<ValidationRule> rules = RecordValidator.effectiveRules(mapping.getMappings(), mapping.getRules());
+            Optional<ValidationResult> result = scatterGatherService.processRange(task, mapping.getMappings(), rules, errorBudget(mapping));
+            if (result.isPresent()) {
+                Map<String, String> columnRules = rulesJsonByColumn(rules);
+                finishValidation(fileId, CsvFiles.resolve(uploadDir, fileId), columnRules, columnRules.keySet(), result.get());
+            }
+        } catch (Exception e) {
+            logger.error(" Error processing range {} of file {}: {}", task.index(), fileId, e.getMessage(), e);
 
             try {
+                scatterGatherService.abandon(fileId);
                 updateProcessingStatus(fileId, "FAILED", 0, List.of(" System error: " + e.getMessage()));
             } catch (Exception dbError) {
                 logger.error(" Error updating status in catch block for file {}: {}", fileId, dbError.getMessage(), dbError);
             }
         }
+    }
+
+    /**
+     * Records the per-column results of a run (none when nothing was validated again) and sets the final
+     * status from all of the file's errors, handing a valid file to the transaction service.
+     */
+    private void finishValidation(UUID fileId, Path filePath, Map<String, String> columnRules,
+                                  Collection<String> validatedColumns, ValidationResult result) throws Exception {
+        Map<String, Long> errorsByColumn = validationErrorStore.countsByColumn(fileId);
+        if (result != null) {
+            long fileSize = Files.size(filePath);
+            long fileModified = Files.getLastModifiedTime(filePath).toMillis();
+            List<ColumnValidationResult> columnResults = new ArrayList<>();
+            for (String column : validatedColumns) {
+                columnResults.add(new ColumnValidationResult(fileId, column, columnRules.get(column), fileSize,
+                        fileModified, result.rowCount(), errorsByColumn.getOrDefault(column, 0L), !result.stoppedEarly()));
+            }
+            ioLimits.withConnection(() -> columnValidationResultRepository.saveAll(columnResults));
+        }
+        int errorCount = (int) Math.min(errorsByColumn.values().stream().mapToLong(Long::longValue).sum(), Integer.MAX_VALUE);
+
+        if (result != null && result.stoppedEarly()) {
+            // Record how far validation got ahead of the first errors
+            List<String> sample = new ArrayList<>();
+            sample.add("Validation stopped after row " + result.rowCount() + ": " + result.stopReason()
+                    + ". Save the mapping with a full-report error budget to list every error.");
+            sample.addAll(validationErrorStore.sample(fileId));
+            updateProcessingStatus(fileId, "FAILED", errorCount, sample);
+            return;
+        }
 
+        if (errorCount > 0) {
+            updateProcessingStatus(fileId, "FAILED", errorCount, validationErrorStore.sample(fileId));
+            return;
+        }
+
+        transactionMessageProducer.sendFileIdToTransactionService(fileId);
+        updateProcessingStatus(fileId, "COMPLETED", 0, null);
+    }
+
+    /**
+     * Each column's rules as JSON, in rule order, to detect which columns' rules changed between runs.
+     */
+    private Map<String, String> rulesJsonByColumn(List<ValidationRule> rules) throws Exception {
+        Map<String, List<ValidationRule>> byColumn = new LinkedHashMap<>();
+        for (ValidationRule rule : rules) {
+            byColumn.computeIfAbsent(rule.column(), column -> new ArrayList<>()).add(rule);
+        }
+        Map<String, String> json = new LinkedHashMap<>();
+        for (Map.Entry<String, List<ValidationRule>> entry : byColumn.entrySet()) {
+            json.put(entry.getKey(), objectMapper.writeValueAsString(entry.getValue()));
+        }
+        return json;
+    }
+
+    /**
+     * Columns without a reusable result: new or changed rules, a changed file, or a run that stopped early.
+     * A comparison is re-run too when the column it compares against is.
+     */
+    private Set<String> staleColumns(List<ValidationRule> rules, Map<String, String> columnRules,
+                                     Map<String, ColumnValidationResult> previous, long fileSize, long fileModified) {
+        Set<String> stale = new LinkedHashSet<>();
+        for (Map.Entry<String, String> entry : columnRules.entrySet()) {
+            ColumnValidationResult columnResult = previous.get(entry.getKey());
+            if (columnResult == null || !columnResult.isComplete() || !columnResult.getRulesJson().equals(entry.getValue())
+                    || columnResult.getFileSize() != fileSize || columnResult.getFileModified() != fileModified) {
+                stale.add(entry.getKey());
+            }
+        }
+        for (ValidationRule rule : rules) {
+            if ("compare".equals(rule.type()) && stale.contains(rule.other())) {
+                stale.add(rule.column());
+            }
+        }
+        return stale;
+    }
+
+    /**
+     * The mapping's error budget with unset fields taken from the configured defaults.
+     */
+    private ErrorBudget errorBudget(ColumnMapping mapping) {
+        ErrorBudget defaults = new ErrorBudget(defaultMaxErrors, defaultMaxErrorRate, defaultRateWindowRows, false);
+        ErrorBudget budget = mapping.getErrorBudget();
+        return budget != null ? budget.orElse(defaults) : defaults;
     }
 
     @Transactional
@@ -140,10 +364,12 @@ public class ColumnMappingService {
         try {
             String errorJson = errors != null ? objectMapper.writeValueAsString(errors) : "[]";
 
-            fileProcessingStatusCache.put(fileId, status);
-            fileErrorCountCache.put(fileId, errorCount);
+            ProcessingState state = new ProcessingState(status, errorCount);
+            processingStatusCache.put(fileId, state);
 
-            fileProcessingStatusRepository.updateProcessingStatus(fileId, status, errorCount, errorJson);
+            // In-flight states are written behind and coalesced; terminal states are written before returning
+            processingStatusWriter.write(fileId, status, errorCount, errorJson);
+            processingStatusEvents.publish(fileId, statusView(fileId, state));
             logger.info(" Successfully updated processing status for file {}", fileId);
         } catch (Exception e) {
             logger.error(" Error updating processing status for file {}: {}", fileId, e.getMessage(), e);
@@ -153,25 +379,87 @@ public class ColumnMappingService {
 
 
     public Map<String, Object> getProcessingStatus(UUID fileId) {
-        if (fileProcessingStatusCache.containsKey(fileId)) {
-            return Map.of(
-                    "fileId", fileId,
-                    "status", fileProcessingStatusCache.get(fileId),
-                    "errorCount", fileErrorCountCache.getOrDefault(fileId, 0),
-                    "errorUrl", "/api/mapping/errors/" + fileId
-            );
+        Optional<ProcessingState> state = processingStatusCache.get(fileId, this::loadProcessingState);
+        if (state.isEmpty()) {
+            return Map.of("fileId", fileId, "status", "NOT_FOUND");
         }
 
+        return statusView(fileId, state.get());
+    }
+
+    /**
+     * Subscribes to processing status transitions as server-sent events, starting with the current status.
+     */
+    public SseEmitter subscribeToStatus(UUID fileId) {
+        return processingStatusEvents.subscribe(fileId, () -> getProcessingStatus(fileId));
+    }
+
+    private Map<String, Object> statusView(UUID fileId, ProcessingState state) {
+        return Map.of(
+                "fileId", fileId,
+                "status", state.status(),
+                "errorCount", state.errorCount(),
+                "errorUrl", "/api/mapping/errors/" + fileId
+        );
+    }
+
+    /**
+     * Aggregate processing progress for a set of files (e.g. one bulk upload).
+     */
+    public Map<String, Object> getBatchStatus(List<UUID> fileIds) {
+        Map<String, Integer> statusCounts = new TreeMap<>();
+        int tracked = 0;
+        long totalErrors = 0;
+        for (Object[] row : fileProcessingStatusRepository.countByStatus(fileIds)) {
+            int count = ((Number) row[1]).intValue();
+            statusCounts.put(row[0].toString(), count);
+            tracked += count;
+            totalErrors += row[2] != null ? ((Number) row[2]).longValue() : 0;
+        }
+        if (tracked < fileIds.size()) {
+            statusCounts.put("NOT_STARTED", fileIds.size() - tracked);
+        }
+
+        return Map.of(
+                "total", fileIds.size(),
+                "statusCounts", statusCounts,
+                "errorCount", totalErrors
+        );
+    }
+
+    /**
+     * Status cache hit/miss/eviction counters.
+     */
+    public Map<String, Object> getStatusCacheMetrics() {
+        return processingStatusCache.getMetrics();
+    }
+
+    /**
+     * Per-lane wait time and throughput of the CSV processing queues.
+     */
+    public Map<String, Object> getLaneMetrics() {
+        return laneMetrics.getMetrics();
+    }
+
+    public Map<String, Object> getIoMetrics() {
+        return ioLimits.getMetrics();
+    }
+
+    private Optional<ProcessingState> loadProcessingState(UUID fileId) {
+        Optional<ProcessingState> pending = processingStatusWriter.pending(fileId);
+        if (pending.isPresent()) {
+            return pending;
+        }
         Optional<Object[]> result = fileProcessingStatusRepository.findProcessingStatus(fileId);
         logger.info("Processing status query result for fileId {}: {}", fileId, result);
 
         if (result.isEmpty()) {
-            return Map.of("fileId", fileId, "status", "NOT_FOUND");
+            return Optional.empty();
         }
 
         Object[] outerArray = result.get();
         if (outerArray.length == 0 || !(outerArray[0] instanceof Object[] innerArray)) {
-            return Map.of("fileId", fileId, "status", "NOT_FOUND");
+            return Optional.empty();
         }
 
         logger.info("Row retrieved from DB for fileId {}: {}", fileId, Arrays.deepToString(innerArray));
@@ -179,51 +467,45 @@ public class ColumnMappingService {
         String status = innerArray[0] != null ? innerArray[0].toString() : "UNKNOWN";
         int errorCount = (innerArray.length > 1 && innerArray[1] instanceof Number) ? ((Number) innerArray[1]).intValue() : 0;
 
-
-        fileProcessingStatusCache.put(fileId, status);
-        fileErrorCountCache.put(fileId, errorCount);
-
-        return Map.of(
-                "fileId", fileId,
-                "status", status,
-                "errorCount", errorCount,
-                "errorUrl", "/api/mapping/errors/" + fileId
-        );
+        return Optional.of(new ProcessingState(status, errorCount));
     }
 
-    public List<String> getValidationErrors(UUID fileId, int page, int size) {
-        Optional<String> errorsJson = fileProcessingStatusRepository.findValidationErrors(fileId);
-        if (errorsJson.isEmpty()) return List.of("No errors found.");
-
-        try {
-            List<String> allErrors = objectMapper.readValue(errorsJson.get(), List.class);
-            int start = Math.min((page - 1) * size, allErrors.size());
-            int end = Math.min(start + size, allErrors.size());
-
-            return allErrors.subList(start, end);
-        } catch (Exception e) {
-            logger.error(" Error retrieving validation errors: {}", e.getMessage(), e);
-            return List.of("Error retrieving errors.");
-        }
+    /**
+     * Retrieves a keyset page of validation errors, optionally filtered by rule and column.
+     */
+    public Map<String, Object> getValidationErrors(UUID fileId, long afterRow, long afterId, int size, String rule, String column) {
+        return validationErrorStore.page(fileId, afterRow, afterId, size, rule, column);
     }
 
-    private String validateRecord(CSVRecord record, Map<String, String> mappings, Set<String> transactionIds) {
-        StringBuilder error = new StringBuilder();
-
-        if (mappings.containsKey("TransactionID")) {
-            String transactionId = record.get("TransactionID");
-            if (transactionId.isEmpty() || !transactionIds.add(transactionId)) {
-                error.append("Row ").append(record.getRecordNumber()).append(": Duplicate or missing TransactionID. ");
+    /**
+     * Validation error counts per rule and column, per-column validation results, and the sample kept with the
+     * processing status.
+     */
+    public Map<String, Object> getValidationErrorSummary(UUID fileId) {
+        List<String> sample = List.of();
+        Optional<String> sampleJson = fileProcessingStatusRepository.findValidationErrors(fileId);
+        if (sampleJson.isPresent()) {
+            try {
+                sample = objectMapper.readValue(sampleJson.get(), List.class);
+            } catch (Exception e) {
+                logger.error(" Error reading validation error sample for file {}: {}", fileId, e.getMessage(), e);
             }
         }
-
-        if (mappings.containsKey("TransactionDate")) {
-            String date = record.get("TransactionDate");
-            if (!Pattern.matches("\\d{4}-\\d{2}-\\d{2}", date)) {
-                error.append("Row ").append(record.getRecordNumber()).append(": Invalid date format. ");
-            }
+        List<Map<String, Object>> columns = new ArrayList<>();
+        for (ColumnValidationResult columnResult : columnValidationResultRepository.findByFileId(fileId)) {
+            columns.add(Map.of(
+                    "column", columnResult.getColumnName(),
+                    "rowCount", columnResult.getRowCount(),
+                    "errorCount", columnResult.getErrorCount(),
+                    "complete", columnResult.isComplete(),
+                    "validatedAt", columnResult.getValidatedAt().toString()
+            ));
         }
-
-        return error.toString().trim();
+        return Map.of(
+                "fileId", fileId,
+                "counts", validationErrorStore.summary(fileId),
+                "columns", columns,
+                "sample", sample
+        );
     }
 }
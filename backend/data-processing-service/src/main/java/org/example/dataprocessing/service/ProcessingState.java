@@ -0,0 +1,11 @@
+package org.example.dataprocessing.service;
+
+/**
+ * Cached processing status of a file: its state and validation error count.
+ */
+public record ProcessingState(String status, int errorCount) {
+
+    public boolean isTerminal() {
+        return "COMPLETED".equals(status) || "FAILED".equals(status);
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.dataprocessing.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.common.io.IoLimits;
+import org.example.dataprocessing.model.FileProcessingStatus;
+import org.example.dataprocessing.repository.FileProcessingStatusRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind writer for file_processing_status. In-flight states are coalesced per fileId (only the latest
+ * is kept) and flushed on a short interval as multi-row upserts; terminal states are written immediately,
+ * replacing anything still pending for the file. All database writes are serialized, so a flush can never
+ * overwrite a newer terminal state.
+ */
+@Service
+public class ProcessingStatusWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessingStatusWriter.class);
+
+    private final FileProcessingStatusRepository fileProcessingStatusRepository;
+    private final IoLimits ioLimits;
+    private final Map<UUID, FileProcessingStatus> pending = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private ScheduledExecutorService flusher;
+
+    @Value("${processing.status-writer.flush-interval:200ms}")
+    private Duration flushInterval;
+
+    @Value("${processing.status-writer.batch-size:500}")
+    private int batchSize;
+
+    public ProcessingStatusWriter(FileProcessingStatusRepository fileProcessingStatusRepository, IoLimits ioLimits) {
+        this.fileProcessingStatusRepository = fileProcessingStatusRepository;
+        this.ioLimits = ioLimits;
+    }
+
+    @PostConstruct
+    void start() {
+        if (flushInterval.isZero()) {
+            return; // write-through
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "status-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        flush();
+    }
+
+    /**
+     * Records a status transition. Terminal states are written before this returns; others are queued.
+     */
+    public void write(UUID fileId, String status, int errorCount, String errorsJson) {
+        FileProcessingStatus update = new FileProcessingStatus(fileId, status, errorCount, errorsJson);
+        if (flusher == null || new ProcessingState(status, errorCount).isTerminal()) {
+            synchronized (writeLock) {
+                pending.remove(fileId);
+                ioLimits.withConnection(() -> fileProcessingStatusRepository.updateProcessingStatus(fileId, status, errorCount, errorsJson));
+            }
+            return;
+        }
+        pending.put(fileId, update);
+    }
+
+    /**
+     * The state queued for the file but not yet written, if any.
+     */
+    public Optional<ProcessingState> pending(UUID fileId) {
+        FileProcessingStatus update = pending.get(fileId);
+        return update == null ? Optional.empty() : Optional.of(new ProcessingState(update.getStatus(), update.getErrorCount()));
+    }
+
+    /**
+     * Writes every queued state. On failure the states are queued again unless a newer one arrived meanwhile.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            List<FileProcessingStatus> batch = new ArrayList<>();
+            pending.forEach((fileId, update) -> {
+                if (pending.remove(fileId, update)) {
+                    batch.add(update);
+                }
+            });
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                ioLimits.withConnection(() -> fileProcessingStatusRepository.upsertStatuses(batch, batchSize));
+                logger.debug("Flushed {} processing status updates", batch.size());
+            } catch (RuntimeException e) {
+                batch.forEach(update -> pending.putIfAbsent(update.getFileId(), update));
+                throw e;
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error(" Error flushing processing status updates: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.dataprocessing.service;
+
+import org.example.common.csv.CsvFiles;
+import org.example.common.io.IoLimits;
+import org.example.dataprocessing.messaging.CsvProcessingProducer;
+import org.example.dataprocessing.messaging.RangeTask;
+import org.example.dataprocessing.model.ErrorBudget;
+import org.example.dataprocessing.model.ScatterRun;
+import org.example.dataprocessing.model.ValidationRange;
+import org.example.dataprocessing.model.ValidationRule;
+import org.example.dataprocessing.repository.ScatterRunRepository;
+import org.example.dataprocessing.repository.ValidationRangeRepository;
+import org.example.dataprocessing.validation.CsvValidator;
+import org.example.dataprocessing.validation.ValidationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Scatter/gather validation of large files across data-processing instances. The coordinator splits the
+ * file into record-aligned byte ranges and publishes one task per range on the CSV processing queue; any
+ * instance validates a range, writing its errors under range row keys. The instance that finishes the last
+ * range gathers: it numbers the rows globally, drops errors past a range that ran out of error budget, and
+ * reports TransactionIDs duplicated across ranges. Instances must share the upload directory.
+ */
+@Service
+public class ScatterGatherService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScatterGatherService.class);
+
+    private final CsvValidator csvValidator;
+    private final ValidationErrorStore validationErrorStore;
+    private final ScatterRunRepository scatterRunRepository;
+    private final ValidationRangeRepository validationRangeRepository;
+    private final CsvProcessingProducer csvProcessingProducer;
+    private final IoLimits ioLimits;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir = "uploads/";
+
+    @Value("${processing.scatter.enabled:false}")
+    private boolean enabled;
+
+    @Value("${processing.scatter.threshold-bytes:536870912}")
+    private long thresholdBytes;
+
+    @Value("${processing.scatter.range-size-bytes:134217728}")
+    private long rangeSizeBytes;
+
+    public ScatterGatherService(CsvValidator csvValidator,
+                                ValidationErrorStore validationErrorStore,
+                                ScatterRunRepository scatterRunRepository,
+                                ValidationRangeRepository validationRangeRepository,
+                                CsvProcessingProducer csvProcessingProducer,
+                                IoLimits ioLimits) {
+        this.csvValidator = csvValidator;
+        this.validationErrorStore = validationErrorStore;
+        this.scatterRunRepository = scatterRunRepository;
+        this.validationRangeRepository = validationRangeRepository;
+        this.csvProcessingProducer = csvProcessingProducer;
+        this.ioLimits = ioLimits;
+    }
+
+    /**
+     * Whether the file is validated as range tasks: large enough, and uncompressed so it can be read by offset.
+     */
+    public boolean shouldScatter(Path file) throws IOException {
+        return enabled && Files.size(file) >= thresholdBytes && !CsvFiles.isCompressed(file);
+    }
+
+    /**
+     * Clears the file's previous errors and run, records its ranges and publishes one task per range.
+     * Returns the number of ranges.
+     */
+    public int scatter(UUID fileId, Path file) throws IOException {
+        List<long[]> offsets = csvValidator.splitRanges(file, rangeSizeBytes);
+        UUID runId = UUID.randomUUID();
+
+        validationErrorStore.discard(fileId);
+        abandon(fileId);
+        List<ValidationRange> ranges = new ArrayList<>(offsets.size());
+        for (int i = 0; i < offsets.size(); i++) {
+            ranges.add(new ValidationRange(fileId, runId, i, offsets.get(i)[0], offsets.get(i)[1]));
+        }
+        ioLimits.withConnection(() -> validationRangeRepository.saveAll(ranges));
+        ioLimits.withConnection(() -> scatterRunRepository.save(new ScatterRun(fileId, runId, ranges.size())));
+
+        for (int i = 0; i < ranges.size(); i++) {
+            csvProcessingProducer.sendRangeForProcessing(new RangeTask(fileId, runId, i), offsets.get(i)[1] - offsets.get(i)[0]);
+        }
+        return ranges.size();
+    }
+
+    /**
+     * Validates the task's range unless it already was (a redelivered task), then tries to claim the gather
+     * step. Returns the gathered result of the whole file if this call gathered, empty otherwise, including
+     * for tasks of a run that was replaced or abandoned. Errors and fingerprints are written under the task's
+     * run, and dropped again if the run was replaced while the range was being validated.
+     */
+    public Optional<ValidationResult> processRange(RangeTask task, Map<String, String> mappings, List<ValidationRule> rules,
+                                                   ErrorBudget budget) throws IOException {
+        Optional<ValidationRange> range = ioLimits.withConnection(
+                () -> validationRangeRepository.findByFileIdAndRunIdAndRangeIndex(task.fileId(), task.runId(), task.index()));
+        if (range.isEmpty()) {
+            logger.info("Skipping range {} of file {}: run {} is no longer current", task.index(), task.fileId(), task.runId());
+            return Optional.empty();
+        }
+
+        if (!range.get().isDone()) {
+            Path file = CsvFiles.resolve(uploadDir, task.fileId());
+            Path fingerprintRun = CsvFiles.fingerprintRun(uploadDir, task.fileId(), task.runId(), task.index());
+            long fromRow = CsvValidator.rangeKey(task.index());
+            long toRow = CsvValidator.rangeKey(task.index() + 1);
+            ValidationResult result;
+            // A redelivered task replaces whatever an interrupted attempt wrote for the range
+            try (ValidationErrorStore.Writer errorWriter = validationErrorStore.openRows(task.fileId(), task.runId(), fromRow, toRow)) {
+                result = csvValidator.validateRange(file, mappings, rules, budget, task.index(),
+                        range.get().getStartOffset(), range.get().getEndOffset(), errorWriter, fingerprintRun);
+            }
+            if (ioLimits.withConnection(() -> scatterRunRepository.finishRange(task.fileId(), task.runId(), task.index(),
+                    result.rowCount(), result.errorCount(), result.stopReason())) == 0) {
+                logger.info("Discarding range {} of file {}: run {} was replaced while it was validated",
+                        task.index(), task.fileId(), task.runId());
+                validationErrorStore.discardRows(task.fileId(), task.runId(), fromRow, toRow);
+                Files.deleteIfExists(fingerprintRun);
+                return Optional.empty();
+            }
+            logger.info("Validated range {} of file {}: {} rows, {} errors", task.index(), task.fileId(),
+                    result.rowCount(), result.errorCount());
+        }
+
+        if (ioLimits.withConnection(() -> scatterRunRepository.claimGather(task.fileId(), task.runId())) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(gather(task.fileId(), task.runId(), mappings, rules));
+    }
+
+    /**
+     * Forgets the file's run, so its remaining tasks are skipped.
+     */
+    public void abandon(UUID fileId) {
+        ioLimits.withConnection(() -> scatterRunRepository.deleteByFileId(fileId));
+        ioLimits.withConnection(() -> validationRangeRepository.deleteByFileId(fileId));
+    }
+
+    private ValidationResult gather(UUID fileId, UUID runId, Map<String, String> mappings, List<ValidationRule> rules) throws IOException {
+        List<ValidationRange> ranges = ioLimits.withConnection(
+                () -> validationRangeRepository.findByFileIdAndRunIdOrderByRangeIndex(fileId, runId));
+
+        // Rows can only be numbered up to the first range that stopped early
+        int lastRange = 0;
+        while (lastRange < ranges.size() - 1 && ranges.get(lastRange).isComplete()) {
+            lastRange++;
+        }
+        long[] rowBases = new long[ranges.size()];
+        long rows = 0;
+        long errorCount = 0;
+        for (int i = 0; i <= lastRange; i++) {
+            rowBases[i] = rows;
+            if (i > 0) {
+                validationErrorStore.shiftRows(fileId, runId, CsvValidator.rangeKey(i), CsvValidator.rangeKey(i + 1), rows - CsvValidator.rangeKey(i));
+            }
+            rows += ranges.get(i).getRowCount();
+            errorCount += ranges.get(i).getErrorCount();
+        }
+        validationErrorStore.discardRows(fileId, runId, CsvValidator.rangeKey(lastRange + 1), Long.MAX_VALUE);
+        String stopReason = ranges.get(lastRange).getStopReason();
+
+        List<Path> fingerprintRuns = ranges.stream()
+                .map(range -> CsvFiles.fingerprintRun(uploadDir, fileId, runId, range.getRangeIndex()))
+                .toList();
+        try {
+            if (stopReason == null) {
+                List<long[]> offsets = ranges.stream()
+                        .map(range -> new long[]{range.getStartOffset(), range.getEndOffset()})
+                        .toList();
+                try (ValidationErrorStore.Writer errorWriter = validationErrorStore.append(fileId)) {
+                    errorCount += csvValidator.confirmCrossRangeDuplicates(CsvFiles.resolve(uploadDir, fileId), mappings,
+                            rules, offsets, fingerprintRuns, rowBases, errorWriter);
+                }
+            }
+        } finally {
+            for (Path fingerprintRun : fingerprintRuns) {
+                Files.deleteIfExists(fingerprintRun);
+            }
+        }
+        logger.info("Gathered {} ranges of file {}: {} rows, {} errors", ranges.size(), fileId, rows, errorCount);
+        return new ValidationResult(rows, errorCount, false, stopReason);
+    }
+}
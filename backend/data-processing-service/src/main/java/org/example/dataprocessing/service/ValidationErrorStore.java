@@ -0,0 +1,201 @@
+package org.example.dataprocessing.service;
+
+import org.example.common.io.IoLimits;
+import org.example.dataprocessing.model.ValidationError;
+import org.example.dataprocessing.repository.ValidationErrorRepository;
+import org.example.dataprocessing.validation.ErrorSink;
+import org.example.dataprocessing.validation.FieldRule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Stores validation errors in the validation_error table, written in batches while a file is validated and
+ * read back page by page with keyset pagination. Only the error count and a small sample are kept on the
+ * file's processing status.
+ */
+@Service
+public class ValidationErrorStore {
+
+    private final ValidationErrorRepository validationErrorRepository;
+    private final IoLimits ioLimits;
+
+    @Value("${processing.validation.error-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${processing.validation.error-sample-size:100}")
+    private int sampleSize;
+
+    public ValidationErrorStore(ValidationErrorRepository validationErrorRepository, IoLimits ioLimits) {
+        this.validationErrorRepository = validationErrorRepository;
+        this.ioLimits = ioLimits;
+    }
+
+    /**
+     * Clears the errors of any previous run of the file and returns a writer for the new run.
+     */
+    public Writer open(UUID fileId) {
+        discard(fileId);
+        return new Writer(fileId, null);
+    }
+
+    /**
+     * Returns a writer that adds to the file's current errors.
+     */
+    public Writer append(UUID fileId) {
+        return new Writer(fileId, null);
+    }
+
+    /**
+     * Drops all errors of the file.
+     */
+    public void discard(UUID fileId) {
+        ioLimits.withConnection(() -> validationErrorRepository.deleteByFileId(fileId));
+    }
+
+    /**
+     * Clears the errors the scatter/gather run wrote in rows [fromRow, toRow), left by an earlier attempt at
+     * the same range, and returns a writer for them.
+     */
+    public Writer openRows(UUID fileId, UUID runId, long fromRow, long toRow) {
+        ioLimits.withConnection(() -> validationErrorRepository.deleteRunRows(fileId, runId, fromRow, toRow));
+        return new Writer(fileId, runId);
+    }
+
+    /**
+     * Moves the run's errors in rows [fromRow, toRow) by offset rows.
+     */
+    public void shiftRows(UUID fileId, UUID runId, long fromRow, long toRow, long offset) {
+        ioLimits.withConnection(() -> validationErrorRepository.shiftRunRows(fileId, runId, fromRow, toRow, offset));
+    }
+
+    /**
+     * Drops the run's errors in rows [fromRow, toRow).
+     */
+    public void discardRows(UUID fileId, UUID runId, long fromRow, long toRow) {
+        ioLimits.withConnection(() -> validationErrorRepository.deleteRunRows(fileId, runId, fromRow, toRow));
+    }
+
+    /**
+     * Clears only the given columns' errors from a previous run and returns a writer for re-validating them.
+     */
+    public Writer open(UUID fileId, Collection<String> columns) {
+        if (!columns.isEmpty()) {
+            ioLimits.withConnection(() -> validationErrorRepository.deleteByFileIdAndColumns(fileId, columns));
+        }
+        return new Writer(fileId, null);
+    }
+
+    /**
+     * The first errors of the file in row order, formatted as "Row N: message".
+     */
+    public List<String> sample(UUID fileId) {
+        return ioLimits.withConnection(() -> validationErrorRepository.findPage(fileId, 0, 0, null, null, Limit.of(sampleSize))).stream()
+                .map(error -> "Row " + error.getRowNumber() + ": " + error.getMessage())
+                .toList();
+    }
+
+    /**
+     * One page of errors after the given cursor, optionally filtered by rule and column. The response carries
+     * the cursor of the next page when there may be more.
+     */
+    public Map<String, Object> page(UUID fileId, long afterRow, long afterId, int size, String rule, String column) {
+        List<ValidationError> errors = ioLimits.withConnection(
+                () -> validationErrorRepository.findPage(fileId, afterRow, afterId, rule, column, Limit.of(size)));
+
+        List<Map<String, Object>> entries = new ArrayList<>(errors.size());
+        for (ValidationError error : errors) {
+            entries.add(Map.of(
+                    "id", error.getId(),
+                    "row", error.getRowNumber(),
+                    "rule", error.getRule(),
+                    "column", error.getColumnName(),
+                    "message", error.getMessage()
+            ));
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("fileId", fileId);
+        page.put("errors", entries);
+        if (errors.size() == size) {
+            ValidationError last = errors.get(errors.size() - 1);
+            page.put("nextAfterRow", last.getRowNumber());
+            page.put("nextAfterId", last.getId());
+        }
+        return page;
+    }
+
+    /**
+     * Error counts per rule and column.
+     */
+    public List<Map<String, Object>> summary(UUID fileId) {
+        List<Map<String, Object>> counts = new ArrayList<>();
+        for (Object[] row : ioLimits.withConnection(() -> validationErrorRepository.countByRuleAndColumn(fileId))) {
+            counts.add(Map.of("rule", row[0], "column", row[1], "count", row[2]));
+        }
+        return counts;
+    }
+
+    /**
+     * Number of errors per column.
+     */
+    public Map<String, Long> countsByColumn(UUID fileId) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : ioLimits.withConnection(() -> validationErrorRepository.countByColumn(fileId))) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Cuts a message to the column length, so one long message (an allowed-values list, say) cannot fail
+     * the batch it is saved in.
+     */
+    static String truncate(String message) {
+        if (message.length() <= ValidationError.MESSAGE_LENGTH) {
+            return message;
+        }
+        int end = ValidationError.MESSAGE_LENGTH - 3;
+        if (Character.isHighSurrogate(message.charAt(end - 1))) {
+            end--;  // keep surrogate pairs whole
+        }
+        return message.substring(0, end) + "...";
+    }
+
+    /**
+     * Buffers errors of one validation run and inserts them in batches. Not thread-safe: the validator
+     * reports errors from one thread.
+     */
+    public final class Writer implements ErrorSink, AutoCloseable {
+        private final UUID fileId;
+        private final UUID runId;
+        private final List<ValidationError> batch = new ArrayList<>();
+
+        private Writer(UUID fileId, UUID runId) {
+            this.fileId = fileId;
+            this.runId = runId;
+        }
+
+        @Override
+        public void add(long row, FieldRule rule) {
+            batch.add(new ValidationError(fileId, runId, row, rule.type(), rule.column(), truncate(rule.message())));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        public void flush() {
+            if (!batch.isEmpty()) {
+                ioLimits.withConnection(() -> validationErrorRepository.saveAll(batch));
+                batch.clear();
+            }
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
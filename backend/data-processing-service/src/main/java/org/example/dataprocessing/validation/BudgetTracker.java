@@ -0,0 +1,89 @@
+package org.example.dataprocessing.validation;
+
+import org.example.dataprocessing.model.ErrorBudget;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the rows and errors of one validation run against its {@link ErrorBudget}. Validating threads report
+ * through their own {@link Meter}, which only touches the shared counters every {@value #REPORT_INTERVAL} rows
+ * or when a row added errors, and learns there whether to stop.
+ */
+final class BudgetTracker {
+
+    private static final int REPORT_INTERVAL = 1024;
+
+    private final boolean unlimited;
+    private final long maxErrors;
+    private final double maxErrorRate;
+    private final long rateWindowRows;
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile String stopReason;
+
+    BudgetTracker(ErrorBudget budget) {
+        this.maxErrors = budget != null && budget.maxErrors() != null && budget.maxErrors() > 0 ? budget.maxErrors() : Long.MAX_VALUE;
+        this.maxErrorRate = budget != null && budget.maxErrorRate() != null && budget.maxErrorRate() > 0 ? budget.maxErrorRate() : Double.MAX_VALUE;
+        this.rateWindowRows = budget != null && budget.rateWindowRows() != null ? Math.max(budget.rateWindowRows(), 1) : 1;
+        this.unlimited = budget == null || budget.isFullReport() || (maxErrors == Long.MAX_VALUE && maxErrorRate == Double.MAX_VALUE);
+    }
+
+    /**
+     * Why validation stopped early, or null while it is within budget.
+     */
+    String stopReason() {
+        return stopReason;
+    }
+
+    boolean exhausted() {
+        return stopReason != null;
+    }
+
+    Meter meter() {
+        return new Meter();
+    }
+
+    private boolean report(long rowDelta, long errorDelta) {
+        if (stopReason != null) {
+            return false;
+        }
+        long totalRows = rows.addAndGet(rowDelta);
+        long totalErrors = errors.addAndGet(errorDelta);
+        if (totalErrors > maxErrors) {
+            stopReason = "more than " + maxErrors + " errors";
+        } else if (totalRows >= rateWindowRows && totalRows - rowDelta < rateWindowRows
+                && totalErrors > maxErrorRate * totalRows) {
+            stopReason = totalErrors + " errors in the first " + totalRows + " rows validated (limit " + maxErrorRate + " per row)";
+        }
+        return stopReason == null;
+    }
+
+    /**
+     * Per-thread progress: call {@link #next(long)} after each validated row.
+     */
+    final class Meter {
+        private long rowCount;
+        private long reportedRows;
+        private long reportedErrors;
+
+        private Meter() {}
+
+        /**
+         * Records a validated row; {@code errorCount} is this thread's error total so far. Returns false once
+         * validation should stop.
+         */
+        boolean next(long errorCount) {
+            if (unlimited) {
+                return true;
+            }
+            rowCount++;
+            if (errorCount == reportedErrors && rowCount - reportedRows < REPORT_INTERVAL) {
+                return true;
+            }
+            boolean withinBudget = report(rowCount - reportedRows, errorCount - reportedErrors);
+            reportedRows = rowCount;
+            reportedErrors = errorCount;
+            return withinBudget;
+        }
+    }
+}
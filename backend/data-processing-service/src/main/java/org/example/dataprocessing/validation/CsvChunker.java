@@ -0,0 +1,116 @@
+package org.example.dataprocessing.validation;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits an uncompressed CSV file into byte ranges that start and end on record boundaries.
+ * A single sequential pass tracks quote parity, so line breaks inside quoted fields never become split points.
+ * Records may end in LF, CRLF or a lone CR, as the parsers accept all three.
+ */
+public final class CsvChunker {
+
+    private static final int SCAN_BUFFER_SIZE = 1024 * 1024;
+
+    private CsvChunker() {}
+
+    /**
+     * Header row names and the byte offset of the first data record.
+     */
+    public record Header(List<String> names, long dataStart) {}
+
+    /**
+     * Reads the header row, which must end within the first {@value #SCAN_BUFFER_SIZE} bytes.
+     */
+    public static Header readHeader(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(SCAN_BUFFER_SIZE, channel.size()));
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+            // keep filling
+        }
+        buffer.flip();
+
+        int end = buffer.limit();
+        long dataStart = channel.size();
+        boolean inQuotes = false;
+        for (int i = 0; i < buffer.limit(); i++) {
+            byte b = buffer.get(i);
+            if (b == '"') {
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                end = i;
+                dataStart = i + 1;
+                break;
+            } else if (b == '\r' && !inQuotes) {
+                end = i;
+                dataStart = i + 1 + (nextByteIs(channel, i + 1, (byte) '\n') ? 1 : 0);
+                break;
+            }
+        }
+        if (dataStart == channel.size() && end == buffer.limit() && buffer.limit() < channel.size()) {
+            throw new IOException("The header row is longer than " + SCAN_BUFFER_SIZE + " bytes.");
+        }
+
+        String headerLine = StandardCharsets.UTF_8.decode(buffer.limit(end)).toString();
+        try (CSVParser parser = CSVParser.parse(headerLine, CSVFormat.DEFAULT)) {
+            List<String> names = new ArrayList<>();
+            parser.forEach(record -> record.forEach(names::add));
+            return new Header(names, dataStart);
+        }
+    }
+
+    /**
+     * Returns [start, end) ranges of roughly {@code targetSize} bytes covering {@code [start, end)}.
+     */
+    public static List<long[]> split(FileChannel channel, long start, long end, long targetSize) throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(SCAN_BUFFER_SIZE);
+        long chunkStart = start;
+        long nextSplit = start + targetSize;
+        boolean inQuotes = false;
+        boolean afterCr = false;
+
+        long position = start;
+        while (position < end) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                long offset = position + i;
+                long boundary = afterCr && b != '\n' ? offset : -1;  // a lone CR ended the previous record
+                afterCr = false;
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n' && !inQuotes) {
+                    boundary = offset + 1;
+                } else if (b == '\r' && !inQuotes) {
+                    afterCr = true;  // a record boundary unless LF follows
+                }
+                if (boundary >= nextSplit) {
+                    ranges.add(new long[]{chunkStart, boundary});
+                    chunkStart = boundary;
+                    nextSplit = boundary + targetSize;
+                }
+            }
+            position += read;
+        }
+        if (chunkStart < end) {
+            ranges.add(new long[]{chunkStart, end});
+        }
+        return ranges;
+    }
+
+    private static boolean nextByteIs(FileChannel channel, long position, byte expected) throws IOException {
+        ByteBuffer next = ByteBuffer.allocate(1);
+        return channel.read(next, position) == 1 && next.get(0) == expected;
+    }
+}
@@ -0,0 +1,424 @@
+package org.example.dataprocessing.validation;
+
+import org.example.common.csv.CsvCursor;
+import org.example.common.csv.CsvFiles;
+import org.example.common.csv.CsvParserType;
+import org.example.dataprocessing.model.ErrorBudget;
+import org.example.dataprocessing.model.ValidationRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Validates stored CSV files. Large uncompressed files are memory-mapped, split into record-aligned byte
+ * ranges and validated on a fork-join pool; smaller or compressed files are validated in one streaming pass.
+ * Both modes report identical errors: rows are numbered globally and duplicates are detected across chunks.
+ * Errors are streamed to an {@link ErrorSink} rather than collected, so heap use does not grow with them.
+ * Validation stops early once the run's {@link ErrorBudget} is used up.
+ */
+@Component
+public class CsvValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvValidator.class);
+
+    // Positions are (chunk index << LOCAL_ROW_BITS) | row within chunk, so they sort in file order
+    private static final int LOCAL_ROW_BITS = 40;
+    private static final long LOCAL_ROW_MASK = (1L << LOCAL_ROW_BITS) - 1;
+
+    private final ForkJoinPool validationPool;
+
+    @Value("${processing.validation.parallel-threshold-bytes:67108864}")
+    private long parallelThresholdBytes;
+
+    @Value("${processing.validation.chunk-size-bytes:33554432}")
+    private long chunkSizeBytes;
+
+    @Value("${processing.validation.duplicate-detector:fingerprint}")
+    private String duplicateDetector;
+
+    @Value("${processing.csv.parser:tokenizer}")
+    private CsvParserType parserType;
+
+    public CsvValidator(ForkJoinPool validationPool) {
+        this.validationPool = validationPool;
+    }
+
+    /**
+     * Validates the file against the mapping's rules (the default rules when {@code rules} is null),
+     * writing every error to the sink. When {@code rowFile} is given and the file is valid, its typed
+     * transaction rows are published there as well (see {@link RowFileWriter}). Once the error budget is
+     * exceeded validation stops; the result then covers the leading rows that were validated, and only their
+     * errors are written. A null budget, or a full-report one, never stops.
+     */
+    public ValidationResult validate(Path file, Map<String, String> mappings, List<ValidationRule> rules,
+                                     ErrorBudget budget, ErrorSink sink, Path rowFile) throws IOException {
+        return validate(file, mappings, rules, null, budget, sink, rowFile);
+    }
+
+    /**
+     * Validates only the rules of the given columns (all when null), e.g. after just those rules changed.
+     */
+    public ValidationResult validate(Path file, Map<String, String> mappings, List<ValidationRule> rules,
+                                     Set<String> columns, ErrorBudget budget, ErrorSink sink, Path rowFile) throws IOException {
+        BudgetTracker tracker = new BudgetTracker(budget);
+        if (Files.size(file) >= parallelThresholdBytes && !CsvFiles.isCompressed(file)) {
+            return validateParallel(file, mappings, rules, columns, tracker, sink, rowFile);
+        }
+        return validateSequential(file, mappings, rules, columns, tracker, sink, rowFile);
+    }
+
+    private ValidationResult validateSequential(Path file, Map<String, String> mappings, List<ValidationRule> rules,
+                                                Set<String> columns, BudgetTracker budget, ErrorSink sink, Path rowFile) throws IOException {
+        DuplicateDetector uniqueValues = newDuplicateDetector();
+        RecordValidator validator;
+        RowFileWriter rowWriter = null;
+        long[] errorCount = {0};
+        long rowCount = 0;
+
+        try (CsvCursor rows = parserType.open(CsvFiles.openStream(file))) {
+            List<String> header = rows.readHeader();
+            validator = RecordValidator.forHeader(header, mappings, rules, columns);
+            RecordValidator.ErrorCollector collector = (row, ruleId) -> {
+                sink.add(row, validator.rule(ruleId));
+                errorCount[0]++;
+            };
+            rowWriter = rowFile != null ? RowFileWriter.create(rowFile, header, mappings, 1) : null;
+            RowFileWriter.Segment rowSegment = rowWriter != null ? rowWriter.segment(0) : null;
+            BudgetTracker.Meter meter = budget.meter();
+
+            while (rows.next()) {  // Reads and validates each row immediately
+                rowCount = rows.recordNumber();
+                validator.validate(rows, rowCount, uniqueValues, collector);
+                if (rowSegment != null) {
+                    rowSegment.write(rows);
+                }
+                if (!meter.next(errorCount[0])) {
+                    logger.info("Stopped validating {} after row {}: {}", file, rowCount, budget.stopReason());
+                    break;
+                }
+            }
+
+            if (!budget.exhausted() && uniqueValues.hasCandidates()) {
+                try (CsvCursor candidateRows = parserType.open(CsvFiles.openStream(file))) {
+                    candidateRows.readHeader();
+                    errorCount[0] += confirmDuplicates(collectCandidates(candidateRows, 0, validator, uniqueValues), validator, sink);
+                }
+            }
+            return new ValidationResult(rowCount, errorCount[0], publishRowFile(rowWriter, errorCount[0] > 0 || budget.exhausted()), budget.stopReason());
+        } finally {
+            if (rowWriter != null) {
+                rowWriter.close();
+            }
+        }
+    }
+
+    private ValidationResult validateParallel(Path file, Map<String, String> mappings, List<ValidationRule> rules,
+                                              Set<String> columns, BudgetTracker budget, ErrorSink sink, Path rowFile) throws IOException {
+        List<ErrorSpill> spills = new ArrayList<>();
+        RowFileWriter rowWriter = null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CsvChunker.Header header = CsvChunker.readHeader(channel);
+            RecordValidator validator = RecordValidator.forHeader(header.names(), mappings, rules, columns);
+            List<long[]> ranges = CsvChunker.split(channel, header.dataStart(), channel.size(), chunkSizeBytes);
+            DuplicateDetector uniqueValues = newDuplicateDetector();
+            ranges.forEach(range -> spills.add(new ErrorSpill()));
+            rowWriter = rowFile != null ? RowFileWriter.create(rowFile, header.names(), mappings, ranges.size()) : null;
+            RowFileWriter rowSegments = rowWriter;
+
+            if (ranges.size() == 1 && channel.size() - header.dataStart() > 2 * chunkSizeBytes) {
+                logger.warn("Found no record boundary to split {} at, validating it on one thread", file);
+            }
+            logger.info("Validating {} in {} chunks on {} threads", file, ranges.size(), validationPool.getParallelism());
+
+            // Each chunk spills its errors to its own file until global row numbers are known
+            List<ChunkRows> chunkRows = forEachChunk(channel, ranges, (cursor, chunkBase) -> {
+                int chunk = (int) (chunkBase >>> LOCAL_ROW_BITS);
+                ErrorSpill spill = spills.get(chunk);
+                RowFileWriter.Segment segment = rowSegments != null ? rowSegments.segment(chunk) : null;
+                BudgetTracker.Meter meter = budget.meter();
+                long count = 0;
+                while (cursor.next()) {
+                    count = cursor.recordNumber();
+                    validator.validate(cursor, chunkBase | count, uniqueValues, spill);
+                    if (segment != null) {
+                        segment.write(cursor);
+                    }
+                    if (!meter.next(spill.count())) {
+                        return new ChunkRows(count, false);
+                    }
+                }
+                return new ChunkRows(count, true);
+            });
+
+            // Rows can only be numbered up to the first chunk that stopped early
+            int lastChunk = 0;
+            while (lastChunk < chunkRows.size() - 1 && chunkRows.get(lastChunk).complete()) {
+                lastChunk++;
+            }
+            long[] rowBases = new long[ranges.size()];
+            long rows = 0;
+            for (int i = 0; i <= lastChunk; i++) {
+                rowBases[i] = rows;
+                rows += chunkRows.get(i).rows();
+            }
+            if (budget.exhausted()) {
+                logger.info("Stopped validating {} after row {}: {}", file, rows, budget.stopReason());
+            }
+
+            long[] errorCount = {0};
+            int numberedChunks = lastChunk + 1;
+            for (int i = 0; i < numberedChunks; i++) {
+                spills.get(i).replay((position, ruleId) -> {
+                    if ((position >>> LOCAL_ROW_BITS) < numberedChunks) {
+                        sink.add(toRow(position, rowBases), validator.rule(ruleId));
+                        errorCount[0]++;
+                    }
+                });
+            }
+
+            if (!budget.exhausted() && uniqueValues.hasCandidates()) {
+                List<List<IdOccurrence>> chunkCandidates = forEachChunk(channel, ranges,
+                        (cursor, chunkBase) -> collectCandidates(cursor, chunkBase, validator, uniqueValues));
+                List<IdOccurrence> candidates = new ArrayList<>();
+                chunkCandidates.forEach(chunk -> chunk.forEach(occurrence ->
+                        candidates.add(new IdOccurrence(toRow(occurrence.position(), rowBases), occurrence.id()))));
+                errorCount[0] += confirmDuplicates(candidates, validator, sink);
+            }
+            return new ValidationResult(rows, errorCount[0], publishRowFile(rowWriter, errorCount[0] > 0 || budget.exhausted()), budget.stopReason());
+        } finally {
+            for (ErrorSpill spill : spills) {
+                spill.close();
+            }
+            if (rowWriter != null) {
+                rowWriter.close();
+            }
+        }
+    }
+
+    /**
+     * Record-aligned byte ranges of roughly {@code rangeSize} bytes covering the data rows of an uncompressed
+     * file, to be validated as separate tasks with {@link #validateRange}.
+     */
+    public List<long[]> splitRanges(Path file, long rangeSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CsvChunker.Header header = CsvChunker.readHeader(channel);
+            return CsvChunker.split(channel, header.dataStart(), channel.size(), rangeSize);
+        }
+    }
+
+    /**
+     * Row key of the first row of a range: rows of range {@code index} are reported as {@code rangeKey(index)
+     * + local row} until the rows before the range are counted, so they sort in file order meanwhile.
+     */
+    public static long rangeKey(int index) {
+        return (long) index << LOCAL_ROW_BITS;
+    }
+
+    /**
+     * Validates one byte range of the file on its own, with its own error budget, reporting rows by range
+     * key (see {@link #rangeKey}). Duplicates within the range are reported here; the fingerprints of the
+     * range's unique values are written to {@code fingerprintRun} so that {@link #confirmCrossRangeDuplicates}
+     * can find those repeated in other ranges. No run is written if the range stopped early.
+     */
+    public ValidationResult validateRange(Path file, Map<String, String> mappings, List<ValidationRule> rules,
+                                          ErrorBudget budget, int index, long start, long end, ErrorSink sink,
+                                          Path fingerprintRun) throws IOException {
+        BudgetTracker tracker = new BudgetTracker(budget);
+        DuplicateDetector uniqueValues = newDuplicateDetector();
+        long rangeBase = rangeKey(index);
+        long[] errorCount = {0};
+        long rowCount = 0;
+        long[] fingerprints = new long[1024];
+        int fingerprintCount = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            RecordValidator validator = RecordValidator.forHeader(CsvChunker.readHeader(channel).names(), mappings, rules);
+            RecordValidator.ErrorCollector collector = (row, ruleId) -> {
+                sink.add(row, validator.rule(ruleId));
+                errorCount[0]++;
+            };
+            BudgetTracker.Meter meter = tracker.meter();
+            try (CsvCursor rows = parserType.open(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start))) {
+                while (rows.next()) {
+                    rowCount = rows.recordNumber();
+                    validator.validate(rows, rangeBase | rowCount, uniqueValues, collector);
+                    CharSequence value = validator.uniqueView(rows);
+                    if (value != null && value.length() > 0) {
+                        if (fingerprintCount == fingerprints.length) {
+                            fingerprints = Arrays.copyOf(fingerprints, fingerprintCount * 2);
+                        }
+                        fingerprints[fingerprintCount++] = FingerprintDuplicateDetector.fingerprint(value);
+                    }
+                    if (!meter.next(errorCount[0])) {
+                        logger.info("Stopped validating range {} of {} after row {}: {}", index, file, rowCount, tracker.stopReason());
+                        break;
+                    }
+                }
+            }
+
+            if (!tracker.exhausted()) {
+                if (uniqueValues.hasCandidates()) {
+                    try (CsvCursor rows = parserType.open(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start))) {
+                        errorCount[0] += confirmDuplicates(collectCandidates(rows, rangeBase, validator, uniqueValues), validator, sink);
+                    }
+                }
+                FingerprintRuns.write(fingerprintRun, fingerprints, fingerprintCount);
+            }
+        }
+        return new ValidationResult(rowCount, errorCount[0], false, tracker.stopReason());
+    }
+
+    /**
+     * Reports the unique-column duplicates that span ranges validated by {@link #validateRange}: the first
+     * occurrence within a range of every id that already occurred in an earlier range (later occurrences
+     * within a range were reported by that range). {@code rowBases[i]} is the number of rows before range i.
+     * Only ranges sharing a fingerprint with another range are read again. Returns the number reported.
+     */
+    public long confirmCrossRangeDuplicates(Path file, Map<String, String> mappings, List<ValidationRule> rules,
+                                            List<long[]> ranges, List<Path> fingerprintRuns, long[] rowBases,
+                                            ErrorSink sink) throws IOException {
+        Map<Long, BitSet> shared = FingerprintRuns.shared(fingerprintRuns);
+        if (shared.isEmpty()) {
+            return 0;
+        }
+        BitSet rangesToRead = new BitSet();
+        shared.values().forEach(rangesToRead::or);
+        List<Integer> indexes = rangesToRead.stream().boxed().toList();
+        List<long[]> subset = indexes.stream().map(ranges::get).toList();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            RecordValidator validator = RecordValidator.forHeader(CsvChunker.readHeader(channel).names(), mappings, rules);
+            List<List<IdOccurrence>> occurrences = forEachChunk(channel, subset, (cursor, chunkBase) -> {
+                int index = indexes.get((int) (chunkBase >>> LOCAL_ROW_BITS));
+                Set<String> seenInRange = new HashSet<>();
+                List<IdOccurrence> firsts = new ArrayList<>();
+                while (cursor.next()) {
+                    CharSequence value = validator.uniqueView(cursor);
+                    if (value != null && value.length() > 0 && shared.containsKey(FingerprintDuplicateDetector.fingerprint(value))) {
+                        String id = value.toString();
+                        if (seenInRange.add(id)) {
+                            firsts.add(new IdOccurrence(rowBases[index] + cursor.recordNumber(), id));
+                        }
+                    }
+                }
+                return firsts;
+            });
+            List<IdOccurrence> inRowOrder = new ArrayList<>();
+            occurrences.forEach(inRowOrder::addAll);
+            logger.info("Checked {} ids shared between {} of {} ranges of {}", shared.size(), indexes.size(), ranges.size(), file);
+            return confirmDuplicates(inRowOrder, validator, sink);
+        }
+    }
+
+    private static boolean publishRowFile(RowFileWriter rowWriter, boolean rejected) throws IOException {
+        if (rowWriter == null) {
+            return false;
+        }
+        if (rejected) {
+            rowWriter.abandon();
+        }
+        return rowWriter.finish();
+    }
+
+    private DuplicateDetector newDuplicateDetector() {
+        return "hash".equalsIgnoreCase(duplicateDetector) ? new HashDuplicateDetector() : new FingerprintDuplicateDetector();
+    }
+
+    /**
+     * Re-reads the ids of candidate rows, in file order.
+     */
+    private static List<IdOccurrence> collectCandidates(CsvCursor rows, long chunkBase,
+                                                        RecordValidator validator, DuplicateDetector uniqueValues) throws IOException {
+        List<IdOccurrence> candidates = new ArrayList<>();
+        while (rows.next()) {
+            CharSequence value = validator.uniqueView(rows);
+            if (value != null && value.length() > 0 && uniqueValues.isCandidate(value)) {
+                candidates.add(new IdOccurrence(chunkBase | rows.recordNumber(), value.toString()));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Reports every occurrence of a candidate id after its first and returns how many were reported. Only
+     * candidate ids are materialized, so fingerprint collisions cost memory in proportion to duplicates
+     * rather than to the file.
+     */
+    private static long confirmDuplicates(List<IdOccurrence> candidatesInRowOrder, RecordValidator validator, ErrorSink sink) {
+        Set<String> seen = new HashSet<>();
+        long duplicates = 0;
+        for (IdOccurrence occurrence : candidatesInRowOrder) {
+            if (!seen.add(occurrence.id())) {
+                sink.add(occurrence.position(), validator.rule(validator.uniqueRuleId()));
+                duplicates++;
+            }
+        }
+        logger.debug("Confirmed {} duplicates among {} candidate rows", duplicates, candidatesInRowOrder.size());
+        return duplicates;
+    }
+
+    /**
+     * Maps each byte range READ_ONLY and runs the task on it in the validation pool; results are in file order.
+     */
+    private <T> List<T> forEachChunk(FileChannel channel, List<long[]> ranges, ChunkTask<T> task) throws IOException {
+        List<Callable<T>> tasks = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            long[] range = ranges.get(i);
+            long chunkBase = (long) i << LOCAL_ROW_BITS;
+            tasks.add(() -> {
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, range[0], range[1] - range[0]);
+                try (CsvCursor rows = parserType.open(mapped)) {
+                    return task.run(rows, chunkBase);
+                }
+            });
+        }
+
+        try {
+            List<T> results = new ArrayList<>(ranges.size());
+            for (Future<T> future : validationPool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Validation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static long toRow(long position, long[] rowBases) {
+        return rowBases[(int) (position >>> LOCAL_ROW_BITS)] + (position & LOCAL_ROW_MASK);
+    }
+
+    private record IdOccurrence(long position, String id) {}
+
+    /**
+     * Rows validated in a chunk, and whether the chunk was validated to its end.
+     */
+    private record ChunkRows(long rows, boolean complete) {}
+
+    @FunctionalInterface
+    private interface ChunkTask<T> {
+        T run(CsvCursor rows, long chunkBase) throws IOException;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.dataprocessing.validation;
+
+import org.example.common.csv.FieldDecoders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A date format compiled once into fixed steps and checked char by char, without regex or allocation.
+ * Supports yyyy, MM (two digits), M (one or two), dd, d and literal separators; the ISO format uses the
+ * fixed-position {@link FieldDecoders#isoEpochDay(CharSequence)}.
+ */
+public final class DatePattern {
+
+    public static final String ISO = "yyyy-MM-dd";
+    public static final long INVALID = FieldDecoders.INVALID;
+
+    private static final int YEAR = 0, MONTH = 1, DAY = 2, LITERAL = 3;
+
+    private final int[] kinds;
+    private final int[] minDigits;
+    private final int[] maxDigits;
+    private final char[] literals;
+    private final boolean iso;
+
+    private DatePattern(int[] kinds, int[] minDigits, int[] maxDigits, char[] literals, boolean iso) {
+        this.iso = iso;
+        this.kinds = kinds;
+        this.minDigits = minDigits;
+        this.maxDigits = maxDigits;
+        this.literals = literals;
+    }
+
+    public static DatePattern compile(String format) {
+        List<int[]> steps = new ArrayList<>(); // {kind, min digits, max digits, literal}
+        boolean year = false, month = false, day = false;
+        int i = 0;
+        while (i < format.length()) {
+            char c = format.charAt(i);
+            int run = 1;
+            while (i + run < format.length() && format.charAt(i + run) == c) {
+                run++;
+            }
+            if (c == 'y' && run == 4) {
+                steps.add(new int[]{YEAR, 4, 4, 0});
+                year = true;
+            } else if (c == 'M' && run <= 2) {
+                steps.add(new int[]{MONTH, run, 2, 0});
+                month = true;
+            } else if (c == 'd' && run <= 2) {
+                steps.add(new int[]{DAY, run, 2, 0});
+                day = true;
+            } else if (Character.isLetter(c)) {
+                throw new IllegalArgumentException("Unsupported date format " + format + ": use yyyy, MM, M, dd and d.");
+            } else {
+                for (int k = 0; k < run; k++) {
+                    steps.add(new int[]{LITERAL, 1, 1, c});
+                }
+            }
+            i += run;
+        }
+        if (!year || !month || !day) {
+            throw new IllegalArgumentException("Date format " + format + " needs a year, month and day.");
+        }
+
+        int[] kinds = new int[steps.size()], minDigits = new int[steps.size()], maxDigits = new int[steps.size()];
+        char[] literals = new char[steps.size()];
+        for (int s = 0; s < steps.size(); s++) {
+            kinds[s] = steps.get(s)[0];
+            minDigits[s] = steps.get(s)[1];
+            maxDigits[s] = steps.get(s)[2];
+            literals[s] = (char) steps.get(s)[3];
+        }
+        return new DatePattern(kinds, minDigits, maxDigits, literals, ISO.equals(format));
+    }
+
+    /**
+     * Parses a calendar-valid date to days since 1970-01-01, or returns {@link #INVALID}.
+     */
+    public long toEpochDay(CharSequence value) {
+        if (iso) {
+            return FieldDecoders.isoEpochDay(value);
+        }
+        int year = 0, month = 0, day = 0;
+        int position = 0;
+        int length = value.length();
+        for (int s = 0; s < kinds.length; s++) {
+            if (kinds[s] == LITERAL) {
+                if (position >= length || value.charAt(position) != literals[s]) {
+                    return INVALID;
+                }
+                position++;
+                continue;
+            }
+            int number = 0;
+            int digits = 0;
+            while (digits < maxDigits[s] && position < length) {
+                char c = value.charAt(position);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                number = number * 10 + (c - '0');
+                digits++;
+                position++;
+            }
+            if (digits < minDigits[s]) {
+                return INVALID;
+            }
+            if (kinds[s] == YEAR) {
+                year = number;
+            } else if (kinds[s] == MONTH) {
+                month = number;
+            } else {
+                day = number;
+            }
+        }
+        if (position != length || month < 1 || month > 12 || day < 1 || day > FieldDecoders.lengthOfMonth(year, month)) {
+            return INVALID;
+        }
+        return FieldDecoders.epochDay(year, month, day);
+    }
+}
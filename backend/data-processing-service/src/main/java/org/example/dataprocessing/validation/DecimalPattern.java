@@ -0,0 +1,44 @@
+package org.example.dataprocessing.validation;
+
+import org.example.common.csv.FieldDecoders;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Parses plain decimal amounts (optional sign, digits, optional fraction) straight into a long scaled to a
+ * fixed number of fraction digits, e.g. "12.5" at scale 2 is 1250. No BigDecimal or String is created per value.
+ */
+public final class DecimalPattern {
+
+    public static final long INVALID = FieldDecoders.INVALID;
+    private static final int MAX_DIGITS = 18; // always fits in a long
+
+    private final int scale;
+
+    public DecimalPattern(int scale) {
+        if (scale < 0 || scale > MAX_DIGITS) {
+            throw new IllegalArgumentException("Decimal scale must be between 0 and " + MAX_DIGITS + ".");
+        }
+        this.scale = scale;
+    }
+
+    public int scale() {
+        return scale;
+    }
+
+    /**
+     * Returns the value in units of 10^-scale, or {@link #INVALID} if it is malformed, has more fraction
+     * digits than the scale, or has more than 18 significant digits.
+     */
+    public long toScaled(CharSequence value) {
+        return FieldDecoders.minorUnits(value, scale);
+    }
+
+    /**
+     * Converts a configured bound to this scale; it must not have more fraction digits than the scale.
+     */
+    public long toScaled(BigDecimal value) {
+        return value.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.dataprocessing.validation;
+
+/**
+ * Tracks TransactionIDs seen during validation. Occurrences are identified by a position key whose
+ * natural order matches file order, so chunks validated concurrently still report the same duplicates
+ * a sequential scan would: every occurrence except the first.
+ */
+public interface DuplicateDetector {
+
+    /**
+     * Records an occurrence of the id. Returns the position that is now known to be a duplicate (the later
+     * of this occurrence and the earliest one seen so far), or -1 if this is the first occurrence so far.
+     * The id may be a row view that is only valid during the call; detectors copy it if they keep it.
+     */
+    long add(CharSequence id, long position);
+
+    /**
+     * Whether some ids were only flagged as possible duplicates and must be confirmed against the source.
+     */
+    default boolean hasCandidates() {
+        return false;
+    }
+
+    /**
+     * Whether duplicates of this id still need confirming. Every occurrence of a candidate id except its
+     * first is a duplicate; detectors with candidates do not report those through {@link #add}.
+     */
+    default boolean isCandidate(CharSequence id) {
+        return false;
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.dataprocessing.validation;
+
+/**
+ * Destination for validation errors. Rows are global 1-based data row numbers; errors arrive from a single
+ * thread but not necessarily in row order, so the sink must not rely on ordering.
+ */
+public interface ErrorSink {
+
+    void add(long row, FieldRule rule);
+}
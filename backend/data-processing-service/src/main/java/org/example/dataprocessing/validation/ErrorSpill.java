@@ -0,0 +1,60 @@
+package org.example.dataprocessing.validation;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Append-only temp file of (position, rule id) pairs, 12 bytes per error, used by a parallel chunk until
+ * global row numbers are known. The file is only created once the first error is added.
+ */
+final class ErrorSpill implements RecordValidator.ErrorCollector, Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private Path path;
+    private DataOutputStream out;
+    private long count;
+
+    @Override
+    public void add(long position, int ruleId) {
+        try {
+            if (out == null) {
+                path = Files.createTempFile("validation-errors-", ".bin");
+                out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+            }
+            out.writeLong(position);
+            out.writeInt(ruleId);
+            count++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill validation errors", e);
+        }
+    }
+
+    long count() {
+        return count;
+    }
+
+    /**
+     * Feeds the spilled errors, in the order they were added, to the collector.
+     */
+    void replay(RecordValidator.ErrorCollector collector) throws IOException {
+        if (out == null) {
+            return;
+        }
+        out.flush();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))) {
+            for (long i = 0; i < count; i++) {
+                collector.add(in.readLong(), in.readInt());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.dataprocessing.validation;
+
+import org.example.common.csv.CsvRow;
+
+import java.util.Set;
+
+/**
+ * A validation rule compiled against a file's header: columns are resolved to indexes and formats, bounds
+ * and value sets are prepared once, so checking a row allocates nothing. Rules read fields through
+ * {@link CsvRow#view(int)} and only materialize a String where the check needs one.
+ */
+public abstract class FieldRule {
+
+    private final String type;
+    private final String column;
+    private final int index;
+    private final String message;
+
+    private FieldRule(String type, String column, int index, String message) {
+        this.type = type;
+        this.column = column;
+        this.index = index;
+        this.message = message;
+    }
+
+    public String type() { return type; }
+    public String column() { return column; }
+    public String message() { return message; }
+
+    /**
+     * Whether the row satisfies this rule.
+     */
+    public boolean test(CsvRow row) {
+        return row.length(index) == 0 || accepts(row, index);
+    }
+
+    /**
+     * Checks a non-empty field.
+     */
+    abstract boolean accepts(CsvRow row, int index);
+
+    /**
+     * Marker for the unique column; uniqueness itself is checked by a {@link DuplicateDetector}.
+     */
+    static FieldRule unique(String column, int index, String message) {
+        return new FieldRule("unique", column, index, message) {
+            @Override
+            public boolean test(CsvRow row) {
+                return true;
+            }
+
+            @Override
+            boolean accepts(CsvRow row, int index) {
+                return true;
+            }
+        };
+    }
+
+    static FieldRule required(String column, int index, String message) {
+        return new FieldRule("required", column, index, message) {
+            @Override
+            public boolean test(CsvRow row) {
+                return !row.isBlank(index);
+            }
+
+            @Override
+            boolean accepts(CsvRow row, int index) {
+                return true;
+            }
+        };
+    }
+
+    static FieldRule date(String column, int index, DatePattern pattern, String message) {
+        return new FieldRule("date", column, index, message) {
+            @Override
+            boolean accepts(CsvRow row, int index) {
+                return pattern.toEpochDay(row.view(index)) != DatePattern.INVALID;
+            }
+        };
+    }
+
+    static FieldRule decimal(String column, int index, DecimalPattern pattern, long min, long max, String message) {
+        return new FieldRule("decimal", column, index, message) {
+            @Override
+            boolean accepts(CsvRow row, int index) {
+                long scaled = pattern.toScaled(row.view(index));
+                return scaled != DecimalPattern.INVALID && scaled >= min && scaled <= max;
+            }
+        };
+    }
+
+    /**
+     * Small sets of ASCII values are matched against the field in place; others are looked up by String.
+     */
+    static FieldRule oneOf(String column, int index, Set<String> values, String message) {
+        String[] candidates = values.toArray(String[]::new);
+        boolean inPlace = candidates.length <= 8 && values.stream().allMatch(value -> value.chars().allMatch(c -> c < 0x80));
+        return new FieldRule("enum", column, index, message) {
+            @Override
+            boolean accepts(CsvRow row, int index) {
+                if (!inPlace) {
+                    return values.contains(row.get(index));
+                }
+                CharSequence value = row.view(index);
+                for (String candidate : candidates) {
+                    if (candidate.contentEquals(value)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    static FieldRule length(String column, int index, int min, int max, String message) {
+        return new FieldRule("length", column, index, message) {
+            @Override
+            boolean accepts(CsvRow row, int index) {
+                int length = row.length(index);
+                return length >= min && length <= max;
+            }
+        };
+    }
+
+    /**
+     * Cross-field comparison. Values are decoded to longs (epoch days, scaled amounts) when the columns are
+     * dates or decimals; rows where either side is empty or undecodable are left to the other rules.
+     */
+    static FieldRule compare(String column, int index, String other, int otherIndex, String operator,
+                             Decoder decoder, Decoder otherDecoder, String message) {
+        int expected = switch (operator) {
+            case "=", "==" -> 0b010;
+            case "!=", "<>" -> 0b101;
+            case "<" -> 0b100;
+            case "<=" -> 0b110;
+            case ">" -> 0b001;
+            case ">=" -> 0b011;
+            default -> throw new IllegalArgumentException("Unknown operator " + operator + " in compare rule for " + column + ".");
+        };
+        return new FieldRule("compare", column, index, message) {
+            @Override
+            public boolean test(CsvRow row) {
+                if (row.length(index) == 0 || row.length(otherIndex) == 0) {
+                    return true;
+                }
+                int comparison;
+                if (decoder != null) {
+                    long leftValue = decoder.decode(row.view(index));
+                    long rightValue = otherDecoder.decode(row.view(otherIndex));
+                    if (leftValue == Long.MIN_VALUE || rightValue == Long.MIN_VALUE) {
+                        return true;
+                    }
+                    comparison = Long.compare(leftValue, rightValue);
+                } else {
+                    comparison = row.get(index).compareTo(row.get(otherIndex));
+                }
+                int outcome = comparison < 0 ? 0b100 : comparison == 0 ? 0b010 : 0b001;
+                return (outcome & expected) != 0;
+            }
+
+            @Override
+            boolean accepts(CsvRow row, int index) {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Decodes a value to a comparable long, or {@link Long#MIN_VALUE} if it is invalid.
+     */
+    @FunctionalInterface
+    interface Decoder {
+        long decode(CharSequence value);
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.dataprocessing.validation;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link DuplicateDetector} that keeps only a 64-bit fingerprint per id in open-addressing {@code long[]}
+ * tables (about 8-16 bytes per id instead of a String and map entry). A repeated fingerprint is either a
+ * real duplicate or a hash collision, so instead of reporting it this detector marks the fingerprint as a
+ * candidate; the caller confirms candidates by re-reading their ids from the source (see
+ * {@link #isCandidate(CharSequence)}). Ids are hashed straight from the row view, so no String is built
+ * per row; only candidate ids are materialized, on the confirmation pass.
+ * <p>
+ * The table is striped into independently locked and independently resized segments so parallel chunks
+ * rarely contend.
+ */
+public class FingerprintDuplicateDetector implements DuplicateDetector {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int INITIAL_SEGMENT_CAPACITY = 1024;
+
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+    private final Set<Long> candidates = ConcurrentHashMap.newKeySet();
+
+    public FingerprintDuplicateDetector() {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    @Override
+    public long add(CharSequence id, long position) {
+        long fingerprint = fingerprint(id);
+        if (!segments[(int) (fingerprint >>> (64 - SEGMENT_BITS))].add(fingerprint)) {
+            candidates.add(fingerprint);
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean hasCandidates() {
+        return !candidates.isEmpty();
+    }
+
+    @Override
+    public boolean isCandidate(CharSequence id) {
+        return candidates.contains(fingerprint(id));
+    }
+
+    public int candidateCount() {
+        return candidates.size();
+    }
+
+    /**
+     * Approximate heap used by the fingerprint tables, in bytes.
+     */
+    public long footprintBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.capacity() * (long) Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * 64-bit FNV-1a over the chars, finished with the MurmurHash3 mixer. Zero marks an empty slot. Callers
+     * fingerprint the same kind of value throughout a file (row views of one parser), since a byte view and
+     * its decoded String differ for non-ASCII ids.
+     */
+    static long fingerprint(CharSequence id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash != 0 ? hash : 1;
+    }
+
+    private static final class Segment {
+        private long[] table = new long[INITIAL_SEGMENT_CAPACITY];
+        private int size;
+
+        /**
+         * Inserts the fingerprint; returns false if it was already present.
+         */
+        synchronized boolean add(long fingerprint) {
+            int mask = table.length - 1;
+            int slot = (int) fingerprint & mask;
+            while (table[slot] != 0) {
+                if (table[slot] == fingerprint) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = fingerprint;
+            if (++size * 4 >= table.length * 3) {
+                resize();
+            }
+            return true;
+        }
+
+        synchronized int capacity() {
+            return table.length;
+        }
+
+        private void resize() {
+            long[] old = table;
+            table = new long[old.length * 2];
+            int mask = table.length - 1;
+            for (long fingerprint : old) {
+                if (fingerprint != 0) {
+                    int slot = (int) fingerprint & mask;
+                    while (table[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table[slot] = fingerprint;
+                }
+            }
+        }
+    }
+}
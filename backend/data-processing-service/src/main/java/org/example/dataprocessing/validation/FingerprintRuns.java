@@ -0,0 +1,77 @@
+package org.example.dataprocessing.validation;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Sorted, distinct 64-bit fingerprints of the unique values of one byte range, stored as a run file next to
+ * the upload. Runs of all ranges are merged to find the values that occur in more than one range without
+ * holding any range's values in memory at gather time.
+ */
+final class FingerprintRuns {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private FingerprintRuns() {}
+
+    /**
+     * Sorts the first {@code size} fingerprints in place and writes each distinct one.
+     */
+    static void write(Path path, long[] fingerprints, int size) throws IOException {
+        Arrays.sort(fingerprints, 0, size);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE))) {
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || fingerprints[i] != fingerprints[i - 1]) {
+                    out.writeLong(fingerprints[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * K-way merge of the runs: every fingerprint found in at least two of them, with the indexes of the runs
+     * that contain it.
+     */
+    static Map<Long, BitSet> shared(List<Path> runs) throws IOException {
+        Map<Long, BitSet> shared = new HashMap<>();
+        List<DataInputStream> inputs = new ArrayList<>(runs.size());
+        try {
+            // Heads are (fingerprint, run index) in fingerprint order
+            PriorityQueue<long[]> heads = new PriorityQueue<>(Comparator.comparingLong(head -> head[0]));
+            for (int i = 0; i < runs.size(); i++) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(runs.get(i)), BUFFER_SIZE));
+                inputs.add(in);
+                advance(in, i, heads);
+            }
+
+            BitSet holders = new BitSet();
+            while (!heads.isEmpty()) {
+                long fingerprint = heads.peek()[0];
+                holders.clear();
+                while (!heads.isEmpty() && heads.peek()[0] == fingerprint) {
+                    int run = (int) heads.poll()[1];
+                    holders.set(run);
+                    advance(inputs.get(run), run, heads);
+                }
+                if (holders.cardinality() > 1) {
+                    shared.put(fingerprint, (BitSet) holders.clone());
+                }
+            }
+        } finally {
+            for (DataInputStream in : inputs) {
+                in.close();
+            }
+        }
+        return shared;
+    }
+
+    private static void advance(DataInputStream in, int run, PriorityQueue<long[]> heads) throws IOException {
+        try {
+            heads.add(new long[]{in.readLong(), run});
+        } catch (EOFException e) {
+            // run exhausted
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.dataprocessing.validation;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link DuplicateDetector} backed by a concurrent map from id to its earliest position.
+ */
+public class HashDuplicateDetector implements DuplicateDetector {
+
+    private final ConcurrentHashMap<String, Long> earliest = new ConcurrentHashMap<>();
+
+    @Override
+    public long add(CharSequence id, long position) {
+        long[] duplicate = {-1};
+        earliest.merge(id.toString(), position, (existing, candidate) -> {
+            duplicate[0] = Math.max(existing, candidate);
+            return Math.min(existing, candidate);
+        });
+        return duplicate[0];
+    }
+}
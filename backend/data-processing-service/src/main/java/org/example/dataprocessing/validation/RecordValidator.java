@@ -0,0 +1,236 @@
+package org.example.dataprocessing.validation;
+
+import org.example.common.csv.CsvRow;
+import org.example.dataprocessing.model.ValidationRule;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * A mapping's validation rules compiled once per file into an array of column-index rules. Checking a row
+ * walks the array; there is no mapping lookup, header lookup or regex per row. Errors are reported by rule
+ * id (the index into {@link #rule(int)}), so they can be buffered compactly.
+ */
+public class RecordValidator {
+
+    private static final String DUPLICATE_ID_MESSAGE = "Duplicate or missing TransactionID.";
+    private static final String INVALID_DATE_MESSAGE = "Invalid date format.";
+
+    private static final int UNIQUE_RULE = 0;
+
+    private final FieldRule[] rules; // rules[UNIQUE_RULE] is the unique column's marker, or null
+    private final int uniqueIndex;
+
+    private RecordValidator(FieldRule[] rules, int uniqueIndex) {
+        this.rules = rules;
+        this.uniqueIndex = uniqueIndex;
+    }
+
+    /**
+     * Compiles the given rules against the header, or the mapping's default rules when none are configured.
+     */
+    public static RecordValidator forHeader(List<String> header, Map<String, String> mappings, List<ValidationRule> rules) {
+        return forHeader(header, mappings, rules, null);
+    }
+
+    /**
+     * Like {@link #forHeader(List, Map, List)}, but only checks the rules of the given columns (all when null).
+     * The other rules are still compiled so comparisons decode their columns the same way.
+     */
+    public static RecordValidator forHeader(List<String> header, Map<String, String> mappings, List<ValidationRule> rules,
+                                            Set<String> columns) {
+        return compile(header, effectiveRules(mappings, rules), columns);
+    }
+
+    /**
+     * The mapping's rules, or its default rules when none are configured.
+     */
+    public static List<ValidationRule> effectiveRules(Map<String, String> mappings, List<ValidationRule> rules) {
+        return rules != null ? rules : defaultRules(mappings);
+    }
+
+    /**
+     * Rules applied when a mapping has none of its own: TransactionID must be present and unique,
+     * TransactionDate must be a yyyy-MM-dd date.
+     */
+    static List<ValidationRule> defaultRules(Map<String, String> mappings) {
+        List<ValidationRule> rules = new ArrayList<>();
+        if (mappings.containsKey("TransactionID")) {
+            rules.add(ValidationRule.of("unique", "TransactionID", null, DUPLICATE_ID_MESSAGE));
+        }
+        if (mappings.containsKey("TransactionDate")) {
+            rules.add(ValidationRule.of("required", "TransactionDate", null, INVALID_DATE_MESSAGE));
+            rules.add(ValidationRule.of("date", "TransactionDate", DatePattern.ISO, INVALID_DATE_MESSAGE));
+        }
+        return rules;
+    }
+
+    private static RecordValidator compile(List<String> header, List<ValidationRule> definitions, Set<String> columns) {
+        List<FieldRule> compiled = new ArrayList<>();
+        compiled.add(null); // UNIQUE_RULE
+        Map<String, DatePattern> datePatterns = new HashMap<>();
+        Map<String, DecimalPattern> decimalPatterns = new HashMap<>();
+        int uniqueIndex = -1;
+
+        for (ValidationRule rule : definitions) {
+            String column = rule.column();
+            int index = indexOf(header, column);
+            switch (rule.type()) {
+                case "unique" -> {
+                    if (uniqueIndex >= 0) {
+                        throw new IllegalArgumentException("Only one unique column is supported per mapping.");
+                    }
+                    uniqueIndex = index;
+                    compiled.set(UNIQUE_RULE, FieldRule.unique(column, index, messageOr(rule, "Duplicate or missing " + column + ".")));
+                }
+                case "required" -> compiled.add(FieldRule.required(column, index, messageOr(rule, "Missing " + column + ".")));
+                case "date" -> {
+                    String format = rule.format() != null ? rule.format() : DatePattern.ISO;
+                    DatePattern pattern = DatePattern.compile(format);
+                    datePatterns.put(column, pattern);
+                    compiled.add(FieldRule.date(column, index, pattern,
+                            messageOr(rule, "Invalid date in " + column + ", expected " + format + ".")));
+                }
+                case "decimal" -> {
+                    DecimalPattern pattern = new DecimalPattern(rule.scale() != null ? rule.scale() : 2);
+                    decimalPatterns.put(column, pattern);
+                    long min = rule.min() != null ? pattern.toScaled(rule.min()) : Long.MIN_VALUE + 1;
+                    long max = rule.max() != null ? pattern.toScaled(rule.max()) : Long.MAX_VALUE;
+                    compiled.add(FieldRule.decimal(column, index, pattern, min, max,
+                            messageOr(rule, "Invalid amount in " + column + describeRange(rule.min(), rule.max()) + ".")));
+                }
+                case "enum" -> {
+                    if (rule.values() == null || rule.values().isEmpty()) {
+                        throw new IllegalArgumentException("Enum rule for " + column + " needs values.");
+                    }
+                    compiled.add(FieldRule.oneOf(column, index, Set.copyOf(rule.values()),
+                            messageOr(rule, "Invalid value in " + column + ", expected one of " + rule.values() + ".")));
+                }
+                case "length" -> {
+                    int min = rule.min() != null ? rule.min().intValueExact() : 0;
+                    int max = rule.max() != null ? rule.max().intValueExact() : Integer.MAX_VALUE;
+                    compiled.add(FieldRule.length(column, index, min, max,
+                            messageOr(rule, "Invalid length of " + column + describeRange(rule.min(), rule.max()) + ".")));
+                }
+                case "compare" -> { } // compiled below, once the column types are known
+                default -> throw new IllegalArgumentException("Unknown validation rule type " + rule.type() + ".");
+            }
+        }
+
+        for (ValidationRule rule : definitions) {
+            if ("compare".equals(rule.type())) {
+                compiled.add(compileComparison(rule, header, datePatterns, decimalPatterns));
+            }
+        }
+
+        if (columns != null) {
+            FieldRule unique = compiled.get(UNIQUE_RULE);
+            if (unique != null && !columns.contains(unique.column())) {
+                compiled.set(UNIQUE_RULE, null);
+                uniqueIndex = -1;
+            }
+            compiled.subList(UNIQUE_RULE + 1, compiled.size()).removeIf(rule -> !columns.contains(rule.column()));
+        }
+        return new RecordValidator(compiled.toArray(FieldRule[]::new), uniqueIndex);
+    }
+
+    private static FieldRule compileComparison(ValidationRule rule, List<String> header,
+                                               Map<String, DatePattern> datePatterns,
+                                               Map<String, DecimalPattern> decimalPatterns) {
+        String column = rule.column();
+        String other = rule.other();
+        if (other == null || rule.operator() == null) {
+            throw new IllegalArgumentException("Compare rule for " + column + " needs an operator and another column.");
+        }
+
+        FieldRule.Decoder decoder = null;
+        FieldRule.Decoder otherDecoder = null;
+        DatePattern date = datePatterns.get(column);
+        DecimalPattern decimal = decimalPatterns.get(column);
+        if (date != null) {
+            DatePattern otherDate = datePatterns.getOrDefault(other, date);
+            decoder = date::toEpochDay;
+            otherDecoder = otherDate::toEpochDay;
+        } else if (decimal != null) {
+            // Both sides at the finer scale so the scaled values are comparable
+            DecimalPattern otherDecimal = decimalPatterns.getOrDefault(other, decimal);
+            DecimalPattern common = decimal.scale() >= otherDecimal.scale() ? decimal : otherDecimal;
+            decoder = common::toScaled;
+            otherDecoder = common::toScaled;
+        }
+        return FieldRule.compare(column, indexOf(header, column), other, indexOf(header, other), rule.operator(),
+                decoder, otherDecoder, messageOr(rule, column + " must be " + rule.operator() + " " + other + "."));
+    }
+
+    /**
+     * Validates one row, reporting problems to the collector. Duplicates of the unique column are reported
+     * at the position the detector identifies, which may belong to an earlier-validated chunk.
+     */
+    public void validate(CsvRow row, long position, DuplicateDetector uniqueValues, ErrorCollector errors) {
+        if (uniqueIndex >= 0) {
+            CharSequence value = row.view(uniqueIndex); // hashed in place; no String per row
+            if (value.length() == 0) {
+                errors.add(position, UNIQUE_RULE);
+            } else {
+                long duplicate = uniqueValues.add(value, position);
+                if (duplicate >= 0) {
+                    errors.add(duplicate, UNIQUE_RULE);
+                }
+            }
+        }
+
+        for (int id = UNIQUE_RULE + 1; id < rules.length; id++) {
+            if (!rules[id].test(row)) {
+                errors.add(position, id);
+            }
+        }
+    }
+
+    /**
+     * The row's value in the unique column as a view (valid until the cursor advances), or null if no
+     * column is unique.
+     */
+    public CharSequence uniqueView(CsvRow row) {
+        return uniqueIndex >= 0 ? row.view(uniqueIndex) : null;
+    }
+
+    /**
+     * Id of the rule reported for missing and duplicate unique values.
+     */
+    public int uniqueRuleId() {
+        return UNIQUE_RULE;
+    }
+
+    public FieldRule rule(int id) {
+        return rules[id];
+    }
+
+    private static String messageOr(ValidationRule rule, String defaultMessage) {
+        return rule.message() != null ? rule.message() : defaultMessage;
+    }
+
+    private static String describeRange(BigDecimal min, BigDecimal max) {
+        if (min != null && max != null) {
+            return " (" + min.toPlainString() + " to " + max.toPlainString() + ")";
+        }
+        if (min != null) {
+            return " (at least " + min.toPlainString() + ")";
+        }
+        return max != null ? " (at most " + max.toPlainString() + ")" : "";
+    }
+
+    private static int indexOf(List<String> header, String column) {
+        int index = header.indexOf(column);
+        if (index < 0) {
+            throw new IllegalArgumentException("Mapping for " + column + " not found, expected one of " + header);
+        }
+        return index;
+    }
+
+    /**
+     * Receives row errors keyed by position and rule id.
+     */
+    public interface ErrorCollector {
+        void add(long position, int ruleId);
+    }
+}
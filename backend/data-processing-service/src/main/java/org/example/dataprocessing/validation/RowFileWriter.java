@@ -0,0 +1,201 @@
+package org.example.dataprocessing.validation;
+
+import org.example.common.csv.CsvRow;
+import org.example.common.csv.FieldDecoders;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes the typed transaction rows of a file while it is validated, so the transaction service can ingest
+ * them without parsing the CSV again. Layout (big-endian), read by the transaction service's RowFileReader:
+ * <pre>
+ * row:    int epochDay, long unscaledAmount, byte amountScale, int idLength, byte[] id (UTF-8),
+ *         int customerName, int paymentMethod, int shippingAddressCity   (dictionary ids)
+ * footer: int dictionarySize, per entry int length + UTF-8 bytes,
+ *         long rowCount, long footerOffset, int MAGIC
+ * </pre>
+ * Each parallel chunk writes its own segment; segments are concatenated in file order when validation
+ * succeeds. If any mapped value cannot be decoded the row file is abandoned and the CSV is ingested instead.
+ */
+public final class RowFileWriter implements Closeable {
+
+    public static final int MAGIC = 0x54585231; // "TXR1"
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path target;
+    private final int transactionId, transactionDate, amount, customerName, paymentMethod, shippingAddressCity;
+    private final Segment[] segments;
+    private final Map<String, Integer> dictionary = new ConcurrentHashMap<>();
+    private final AtomicInteger nextDictionaryId = new AtomicInteger();
+    private volatile boolean abandoned;
+
+    private RowFileWriter(Path target, int[] columns, int segmentCount) {
+        this.target = target;
+        this.transactionId = columns[0];
+        this.transactionDate = columns[1];
+        this.amount = columns[2];
+        this.customerName = columns[3];
+        this.paymentMethod = columns[4];
+        this.shippingAddressCity = columns[5];
+        this.segments = new Segment[segmentCount];
+    }
+
+    /**
+     * Prepares a writer for the mapped transaction columns, or returns null when the mapping does not cover
+     * every transaction column (the transaction service would then store no rows anyway).
+     */
+    public static RowFileWriter create(Path target, List<String> header, Map<String, String> mappings, int segmentCount) {
+        List<String> dbColumns = List.of("transaction_id", "transaction_date", "amount",
+                "customer_name", "payment_method", "shipping_address_city");
+        int[] columns = new int[dbColumns.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = -1;
+            for (Map.Entry<String, String> entry : mappings.entrySet()) {
+                if (dbColumns.get(i).equals(entry.getValue())) {
+                    columns[i] = header.indexOf(entry.getKey());
+                }
+            }
+            if (columns[i] < 0) {
+                return null;
+            }
+        }
+        return new RowFileWriter(target, columns, segmentCount);
+    }
+
+    /**
+     * Opens the segment for one chunk (0 for sequential validation). Each segment is used by one thread.
+     */
+    public Segment segment(int index) throws IOException {
+        Path path = target.resolveSibling(target.getFileName() + "." + index + ".part");
+        Segment segment = new Segment(path);
+        segments[index] = segment;
+        return segment;
+    }
+
+    /**
+     * Concatenates the segments, appends the dictionary footer and publishes the file atomically.
+     * Returns false (and leaves no file) if the row file was abandoned.
+     */
+    public boolean finish() throws IOException {
+        for (Segment segment : segments) {
+            if (segment != null) {
+                segment.out.close();
+            }
+        }
+        if (abandoned) {
+            return false;
+        }
+
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        long rowCount = 0;
+        try (FileChannel out = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            for (Segment segment : segments) {
+                if (segment == null) {
+                    continue;
+                }
+                try (FileChannel in = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                    long size = in.size();
+                    for (long copied = 0; copied < size; ) {
+                        copied += in.transferTo(copied, size - copied, out);
+                    }
+                }
+                rowCount += segment.rows;
+            }
+
+            long footerOffset = out.position();
+            String[] entries = new String[dictionary.size()];
+            dictionary.forEach((value, id) -> entries[id] = value);
+            ByteArrayOutputStream footer = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream(footer);
+            data.writeInt(entries.length);
+            for (String entry : entries) {
+                byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+                data.writeInt(bytes.length);
+                data.write(bytes);
+            }
+            data.writeLong(rowCount);
+            data.writeLong(footerOffset);
+            data.writeInt(MAGIC);
+            ByteBuffer buffer = ByteBuffer.wrap(footer.toByteArray());
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    /**
+     * Stops writing; {@link #finish()} will not publish anything.
+     */
+    public void abandon() {
+        abandoned = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Segment segment : segments) {
+            if (segment != null) {
+                segment.out.close();
+                Files.deleteIfExists(segment.path);
+            }
+        }
+    }
+
+    private int dictionaryId(String value) {
+        return dictionary.computeIfAbsent(value, key -> nextDictionaryId.getAndIncrement());
+    }
+
+    /**
+     * Rows of one chunk, in file order.
+     */
+    public final class Segment {
+        private final Path path;
+        private final DataOutputStream out;
+        private long rows;
+
+        private Segment(Path path) throws IOException {
+            this.path = path;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+        }
+
+        public void write(CsvRow row) {
+            if (abandoned) {
+                return;
+            }
+            long epochDay = FieldDecoders.isoEpochDay(row.view(transactionDate)); // what LocalDate.parse accepts
+            CharSequence amountValue = row.view(amount);
+            long unscaled = FieldDecoders.unscaled(amountValue);
+            if (epochDay == FieldDecoders.INVALID || unscaled == FieldDecoders.INVALID) {
+                abandon();
+                return;
+            }
+            try {
+                out.writeInt((int) epochDay);
+                out.writeLong(unscaled);
+                out.writeByte(FieldDecoders.scale(amountValue));
+                byte[] id = row.get(transactionId).getBytes(StandardCharsets.UTF_8);
+                out.writeInt(id.length);
+                out.write(id);
+                out.writeInt(dictionaryId(row.get(customerName)));
+                out.writeInt(dictionaryId(row.get(paymentMethod)));
+                out.writeInt(dictionaryId(row.get(shippingAddressCity)));
+                rows++;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write row file segment " + path, e);
+            }
+        }
+    }
+}
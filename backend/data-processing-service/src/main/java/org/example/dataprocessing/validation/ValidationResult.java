@@ -0,0 +1,13 @@
+package org.example.dataprocessing.validation;
+
+/**
+ * Outcome of validating one file: number of data rows, number of errors written to the sink, and whether
+ * a typed row file was published for the transaction service. When the error budget ran out, {@code stopReason}
+ * says why and {@code rowCount} is the number of leading rows that were validated.
+ */
+public record ValidationResult(long rowCount, long errorCount, boolean rowFileWritten, String stopReason) {
+
+    public boolean stoppedEarly() {
+        return stopReason != null;
+    }
+}
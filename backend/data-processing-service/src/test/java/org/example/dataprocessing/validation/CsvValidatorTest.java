@@ -0,0 +1,173 @@
+package org.example.dataprocessing.validation;
+
+import org.example.common.csv.CsvParserType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The parallel validator must report exactly what a sequential scan reports, including for quoted records
+ * with embedded line breaks that straddle chunk boundaries and duplicates that span chunks.
+ */
+class CsvValidatorTest {
+
+    private static final Map<String, String> MAPPINGS = Map.of(
+            "TransactionID", "transaction_id",
+            "TransactionDate", "transaction_date");
+
+    private static ForkJoinPool pool;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdownNow();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"TOKENIZER, fingerprint", "TOKENIZER, hash", "COMMONS, fingerprint", "COMMONS, hash"})
+    void parallelMatchesSequentialAcrossChunkBoundaries(CsvParserType parser, String detector) throws IOException {
+        Path file = write(generate(new Random(42), 2_000, true));
+
+        List<String> sequential = validate(sequential(parser, detector), file);
+        for (long chunkSize : new long[] {64, 257, 4096}) {
+            assertEquals(sequential, validate(parallel(parser, detector, chunkSize), file), "chunk size " + chunkSize);
+        }
+        assertTrue(sequential.stream().anyMatch(error -> error.contains("Duplicate")), "sample should contain duplicates");
+        assertTrue(sequential.stream().anyMatch(error -> error.contains("Invalid date")), "sample should contain bad dates");
+    }
+
+    @ParameterizedTest
+    @CsvSource({"TOKENIZER", "COMMONS"})
+    void lastRecordWithoutFinalNewline(CsvParserType parser) throws IOException {
+        Path file = write(generate(new Random(7), 300, false));
+
+        assertEquals(validate(sequential(parser, "fingerprint"), file), validate(parallel(parser, "fingerprint", 100), file));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"TOKENIZER", "COMMONS"})
+    void splitsFilesWithCarriageReturnLineEndings(CsvParserType parser) throws IOException {
+        Path file = write(generate(new Random(11), 500, true).replace("\r\n", "\r").replace("\n", "\r"));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CsvChunker.Header header = CsvChunker.readHeader(channel);
+            assertEquals(List.of("TransactionID", "TransactionDate", "Amount", "Note"), header.names());
+            assertTrue(CsvChunker.split(channel, header.dataStart(), channel.size(), 256).size() > 10);
+        }
+
+        assertEquals(validate(sequential(parser, "fingerprint"), file), validate(parallel(parser, "fingerprint", 256), file));
+    }
+
+    @Test
+    void reportsEveryOccurrenceAfterTheFirst() throws IOException {
+        Path file = write("""
+                TransactionID,TransactionDate,Note\r
+                "A,1",2024-01-01,"first\r
+                line"\r
+                B,2024-01-02,x\r
+                "A,1",2024-01-03,"""
+                + "\"say \"\"hi\"\"\"\r\n"
+                + "\"\",2024-01-04,\r\n"
+                + "B,2024-13-01,y\r\n"
+                + "\"A,1\",2024-01-05,");
+
+        List<String> expected = List.of(
+                "3:TransactionID:Duplicate or missing TransactionID.",
+                "4:TransactionID:Duplicate or missing TransactionID.",
+                "5:TransactionDate:Invalid date format.",
+                "5:TransactionID:Duplicate or missing TransactionID.",
+                "6:TransactionID:Duplicate or missing TransactionID.",
+                "rows=6");
+        for (CsvParserType parser : CsvParserType.values()) {
+            assertEquals(expected, validate(sequential(parser, "fingerprint"), file), parser.name());
+            assertEquals(expected, validate(parallel(parser, "fingerprint", 16), file), parser.name());
+        }
+    }
+
+    private CsvValidator sequential(CsvParserType parser, String detector) {
+        return validator(parser, detector, Long.MAX_VALUE, 1 << 20);
+    }
+
+    private CsvValidator parallel(CsvParserType parser, String detector, long chunkSize) {
+        return validator(parser, detector, 0, chunkSize);
+    }
+
+    private static CsvValidator validator(CsvParserType parser, String detector, long parallelThreshold, long chunkSize) {
+        CsvValidator validator = new CsvValidator(pool);
+        ReflectionTestUtils.setField(validator, "parserType", parser);
+        ReflectionTestUtils.setField(validator, "duplicateDetector", detector);
+        ReflectionTestUtils.setField(validator, "parallelThresholdBytes", parallelThreshold);
+        ReflectionTestUtils.setField(validator, "chunkSizeBytes", chunkSize);
+        return validator;
+    }
+
+    /**
+     * Errors as "row:column:message", sorted, since sinks receive them in no particular order.
+     */
+    private static List<String> validate(CsvValidator validator, Path file) throws IOException {
+        List<String> errors = new ArrayList<>();
+        ValidationResult result = validator.validate(file, MAPPINGS, null, null,
+                (row, rule) -> errors.add(row + ":" + rule.column() + ":" + rule.message()), null);
+        assertEquals(errors.size(), result.errorCount());
+        errors.sort(Comparator.comparingLong((String error) -> Long.parseLong(error.substring(0, error.indexOf(':'))))
+                .thenComparing(Comparator.naturalOrder()));
+        errors.add("rows=" + result.rowCount());
+        return errors;
+    }
+
+    /**
+     * Rows with repeated, quoted, empty and non-ASCII ids, notes with embedded CRLFs and doubled quotes,
+     * and some invalid dates.
+     */
+    private static String generate(Random random, int rows, boolean finalNewline) {
+        StringBuilder csv = new StringBuilder("TransactionID,TransactionDate,Amount,Note\r\n");
+        for (int i = 1; i <= rows; i++) {
+            int id = random.nextInt(rows * 3 / 4);
+            String transactionId = switch (random.nextInt(10)) {
+                case 0 -> "\"TX," + id + "\"";
+                case 1 -> "Té" + id;
+                case 2 -> random.nextInt(4) == 0 ? "" : "TX" + id;
+                default -> "TX" + id;
+            };
+            String date = random.nextInt(15) == 0 ? "2024-02-3" + random.nextInt(10) : "2024-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10);
+            String note = switch (random.nextInt(4)) {
+                case 0 -> "\"line one\r\nline \"\"two\"\"\r\n\"";
+                case 1 -> "\"a,b\"";
+                case 2 -> "";
+                default -> "plain";
+            };
+            csv.append(transactionId).append(',').append(date).append(',').append(random.nextInt(10_000)).append(".00,").append(note);
+            if (i < rows || finalNewline) {
+                csv.append("\r\n");
+            }
+        }
+        return csv.toString();
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = dir.resolve(UUID.randomUUID() + ".csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
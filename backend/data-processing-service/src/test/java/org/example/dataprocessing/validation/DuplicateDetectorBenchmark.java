@@ -0,0 +1,107 @@
+package org.example.dataprocessing.validation;
+
+import org.example.common.csv.CsvCursor;
+import org.example.common.csv.CsvParserType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duplicate detection over the unique column of a parsed file: the fingerprint table against the
+ * String-keyed map it replaced. Reports time per file and, with the GC profiler, bytes allocated per file
+ * ({@code gc.alloc.rate.norm}); {@link #main} also prints the heap each detector retains.
+ * <p>
+ * Run from the IDE, or after {@code mvn test-compile}:
+ * {@code java -cp "target/test-classes:target/classes:<test classpath>" org.example.dataprocessing.validation.DuplicateDetectorBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DuplicateDetectorBenchmark {
+
+    private static final Map<String, String> MAPPINGS = Map.of("TransactionID", "transaction_id");
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"fingerprint", "hash"})
+    public String detector;
+
+    private ByteBuffer csv;
+    private RecordValidator validator;
+
+    @Setup
+    public void setUp() {
+        csv = ByteBuffer.wrap(csv(rows).getBytes(StandardCharsets.UTF_8));
+        validator = RecordValidator.forHeader(List.of("TransactionID", "Amount"), MAPPINGS, null);
+    }
+
+    @Benchmark
+    public DuplicateDetector validateUniqueColumn() throws IOException {
+        DuplicateDetector uniqueValues = newDetector(detector);
+        try (CsvCursor cursor = CsvParserType.TOKENIZER.open(csv.duplicate())) {
+            cursor.readHeader();
+            while (cursor.next()) {
+                validator.validate(cursor, cursor.recordNumber(), uniqueValues, (position, ruleId) -> { });
+            }
+        }
+        return uniqueValues;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (String name : List.of("fingerprint", "hash")) {
+            System.out.printf("%s: %,d bytes retained for %,d ids%n", name, retainedBytes(name, 1_000_000), 1_000_000);
+        }
+        new Runner(new OptionsBuilder()
+                .include(DuplicateDetectorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * Heap still in use after adding the ids, as measured around a forced GC.
+     */
+    private static long retainedBytes(String name, int ids) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        DuplicateDetector uniqueValues = newDetector(name);
+        for (int i = 0; i < ids; i++) {
+            uniqueValues.add(id(i), i);
+        }
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        if (uniqueValues.hasCandidates()) {
+            System.out.println(name + ": unexpected candidates");
+        }
+        return after - before;
+    }
+
+    private static DuplicateDetector newDetector(String name) {
+        return "hash".equals(name) ? new HashDuplicateDetector() : new FingerprintDuplicateDetector();
+    }
+
+    private static String csv(int rows) {
+        StringBuilder csv = new StringBuilder("TransactionID,Amount\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(id(i)).append(',').append(i % 10_000).append(".00\n");
+        }
+        return csv.toString();
+    }
+
+    private static String id(int i) {
+        return "TX-2024-" + (100_000_000 + i);
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.dataprocessing.validation;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.example.common.csv.CsvCursor;
+import org.example.common.csv.CsvParserType;
+import org.example.dataprocessing.model.ValidationRule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Rows per second validated by a compiled {@link RecordValidator} against the per-row {@code validateRecord}
+ * it replaced, which is reproduced here as {@link #legacyValidateRecord}: commons-csv with header lookups,
+ * the mapping JSON parsed for every record, {@code Pattern.matches} for the date and a String set for ids.
+ * The compiled validator runs the same default rules, and a full rule set (unique, required, date, decimal,
+ * enum, length), on either parser. Both report errors to a counter; about 2% of rows fail. Reports rows per
+ * second and, with the GC profiler, bytes allocated per row ({@code gc.alloc.rate.norm}).
+ * <p>
+ * Run from the IDE, or after {@code mvn test-compile}:
+ * {@code java -cp "target/test-classes:target/classes:<test classpath>" org.example.dataprocessing.validation.RecordValidatorBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(RecordValidatorBenchmark.ROWS)
+public class RecordValidatorBenchmark {
+
+    static final int ROWS = 200_000;
+
+    private static final List<String> HEADER = List.of("TransactionID", "TransactionDate", "Amount", "CustomerName", "PaymentMethod", "City");
+    private static final Map<String, String> MAPPINGS = Map.of(
+            "TransactionID", "transaction_id",
+            "TransactionDate", "transaction_date",
+            "Amount", "amount",
+            "CustomerName", "customer_name",
+            "PaymentMethod", "payment_method",
+            "City", "shipping_address_city");
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] csv;
+    private String mappingsJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        csv = csv(new Random(42)).getBytes(StandardCharsets.UTF_8);
+        mappingsJson = objectMapper.writeValueAsString(MAPPINGS);
+    }
+
+    /**
+     * The compiled validator's parser and rules.
+     */
+    @State(Scope.Benchmark)
+    public static class Compiled {
+
+        @Param({"TOKENIZER", "COMMONS"})
+        public CsvParserType parser;
+
+        @Param({"default", "full"})
+        public String rules;
+
+        List<ValidationRule> ruleSet() {
+            if ("default".equals(rules)) {
+                return null;
+            }
+            return List.of(
+                    ValidationRule.of("unique", "TransactionID", null, null),
+                    ValidationRule.of("required", "TransactionDate", null, null),
+                    ValidationRule.of("date", "TransactionDate", "yyyy-MM-dd", null),
+                    new ValidationRule("decimal", "Amount", null, null, BigDecimal.ZERO, new BigDecimal("100000"), 2, null, null, null),
+                    new ValidationRule("enum", "PaymentMethod", null, List.of("card", "bank transfer", "cash"), null, null, null, null, null, null),
+                    new ValidationRule("length", "CustomerName", null, null, BigDecimal.ONE, new BigDecimal("100"), null, null, null, null));
+        }
+    }
+
+    @Benchmark
+    public long compiledRecordValidator(Compiled compiled) throws IOException {
+        long[] errors = new long[1];
+        DuplicateDetector uniqueValues = new FingerprintDuplicateDetector();
+        try (CsvCursor cursor = compiled.parser.open(new ByteArrayInputStream(csv))) {
+            RecordValidator validator = RecordValidator.forHeader(cursor.readHeader(), MAPPINGS, compiled.ruleSet());
+            while (cursor.next()) {
+                validator.validate(cursor, cursor.recordNumber(), uniqueValues, (row, rule) -> errors[0]++);
+            }
+        }
+        return errors[0];
+    }
+
+    @Benchmark
+    public long legacyValidateRecord() throws IOException {
+        long errors = 0;
+        Set<String> transactionIds = new HashSet<>();
+        try (CSVParser parser = new CSVParser(new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8),
+                CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build())) {
+            for (CSVRecord record : parser) {
+                Map<String, String> mappings = objectMapper.readValue(mappingsJson, new TypeReference<Map<String, String>>() {});
+                if (!validateRecord(record, mappings, transactionIds).isEmpty()) {
+                    errors++;
+                }
+            }
+        }
+        return errors;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RecordValidatorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * ColumnMappingService.validateRecord as it was before the compiled rules.
+     */
+    private static String validateRecord(CSVRecord record, Map<String, String> mappings, Set<String> transactionIds) {
+        StringBuilder error = new StringBuilder();
+
+        if (mappings.containsKey("TransactionID")) {
+            String transactionId = record.get("TransactionID");
+            if (transactionId.isEmpty() || !transactionIds.add(transactionId)) {
+                error.append("Row ").append(record.getRecordNumber()).append(": Duplicate or missing TransactionID. ");
+            }
+        }
+
+        if (mappings.containsKey("TransactionDate")) {
+            String date = record.get("TransactionDate");
+            if (!Pattern.matches("\\d{4}-\\d{2}-\\d{2}", date)) {
+                error.append("Row ").append(record.getRecordNumber()).append(": Invalid date format. ");
+            }
+        }
+
+        return error.toString().trim();
+    }
+
+    private static String csv(Random random) {
+        String[] customers = {"Anna Berg", "\"Smith, John\"", "Zoë Ångström", "O'Neil", "Kari Nordmann"};
+        String[] cities = {"Oslo", "Bergen", "München", "\"Washington, D.C.\"", "São Paulo"};
+        StringBuilder csv = new StringBuilder(String.join(",", HEADER)).append("\r\n");
+        for (int row = 0; row < ROWS; row++) {
+            int id = random.nextInt(100) == 0 ? random.nextInt(row + 1) : row;  // ~1% duplicates
+            String date = random.nextInt(100) == 0 ? "2024/01/15"
+                    : String.format("2024-%02d-%02d", 1 + random.nextInt(12), 1 + random.nextInt(28));
+            csv.append("TX-2024-").append(100_000_000 + id)
+                    .append(',').append(date)
+                    .append(',').append(random.nextInt(100_000)).append('.').append(String.format("%02d", random.nextInt(100)))
+                    .append(',').append(customers[random.nextInt(customers.length)])
+                    .append(',').append(random.nextBoolean() ? "card" : "bank transfer")
+                    .append(',').append(cities[random.nextInt(cities.length)])
+                    .append("\r\n");
+        }
+        return csv.toString();
+    }
+}
@@ -1,20 +1,40 @@
 package org.example.fileupload.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.concurrent.Executor;
-
 @Configuration
 public class AsyncConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    /**
+     * Sends status events to subscribers (see StatusConfig). Virtual threads when spring.threads.virtual.enabled
+     * is set and the runtime is Java 21+, limited to as many as uploads admitted at once; otherwise a small
+     * platform thread pool.
+     */
     @Bean(name = "fileUploadExecutor")
-    public ThreadPoolTaskExecutor fileUploadExecutor() {
+    public AsyncTaskExecutor fileUploadExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                                @Value("${file.upload.admission.max-concurrent-uploads:20}") int maxConcurrentUploads) {
+        if (virtualThreads && Runtime.version().feature() >= 21) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("FileUploadThread-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxConcurrentUploads);
+            return executor;
+        }
+        if (virtualThreads) {
+            logger.warn("Virtual threads need Java 21 or later (running {}), using platform threads", Runtime.version());
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);  // Number of threads actively processing uploads
-        executor.setMaxPoolSize(10);  // Max threads if more concurrent uploads occur
-        executor.setQueueCapacity(50); // Number of files that can wait before execution
+        executor.setCorePoolSize(5);  // Number of threads sending events
+        executor.setMaxPoolSize(10);  // Max threads when subscribers are slow
+        executor.setQueueCapacity(50); // Files with events waiting; beyond this the publishing thread sends
         executor.setThreadNamePrefix("FileUploadThread-");
         executor.initialize();
         return executor;
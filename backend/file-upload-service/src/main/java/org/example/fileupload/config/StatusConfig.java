@@ -0,0 +1,33 @@
+package org.example.fileupload.config;
+
+import org.example.common.status.StatusCache;
+import org.example.common.status.StatusEventPublisher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+@Configuration
+public class StatusConfig {
+
+    private static final Set<String> TERMINAL_STATES = Set.of("UPLOADED", "FAILED");
+
+    @Bean(name = "fileStatusCache")
+    public StatusCache<String> fileStatusCache(@Value("${file.status-cache.max-size:10000}") int maxSize,
+                                               @Value("${file.status-cache.active-ttl:30s}") Duration activeTtl,
+                                               @Value("${file.status-cache.terminal-ttl:30m}") Duration terminalTtl,
+                                               @Value("${file.status-cache.negative-ttl:5s}") Duration negativeTtl) {
+        // Terminal states never change again, so they can stay cached much longer than in-flight ones
+        return new StatusCache<>(maxSize, status -> TERMINAL_STATES.contains(status) ? terminalTtl : activeTtl, negativeTtl);
+    }
+
+    @Bean(name = "fileStatusEvents")
+    public StatusEventPublisher fileStatusEvents(@Value("${file.status-events.timeout:10m}") Duration timeout,
+                                                 @Qualifier("fileUploadExecutor") Executor executor) {
+        return new StatusEventPublisher(TERMINAL_STATES, timeout, executor);
+    }
+}
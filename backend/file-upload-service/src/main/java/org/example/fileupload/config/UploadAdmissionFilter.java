@@ -0,0 +1,75 @@
+package org.example.fileupload.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.fileupload.service.UploadAdmissionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Applies upload admission control before the request body is read (and before multipart parsing),
+ * answering 429 with Retry-After when the service is saturated.
+ */
+@Component
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+
+    private static final String CLIENT_ID_HEADER = "X-Client-Id";
+    private static final String ALLOWED_ORIGIN = "http://localhost:5173";
+
+    private final UploadAdmissionService uploadAdmissionService;
+
+    @Value("${file.upload.admission.unknown-length-bytes:104857600}")
+    private long unknownLengthBytes;
+
+    public UploadAdmissionFilter(UploadAdmissionService uploadAdmissionService) {
+        this.uploadAdmissionService = uploadAdmissionService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !request.getRequestURI().startsWith("/api/upload")
+                || !("POST".equals(method) || "PUT".equals(method));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long contentLength = request.getContentLengthLong();
+        long requestBytes = contentLength >= 0 ? contentLength : unknownLengthBytes;
+
+        Optional<UploadAdmissionService.Permit> permit = uploadAdmissionService.tryAdmit(clientId(request), requestBytes);
+        if (permit.isEmpty()) {
+            reject(response);
+            return;
+        }
+        try (UploadAdmissionService.Permit ignored = permit.get()) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        int retryAfter = uploadAdmissionService.getRetryAfterSeconds();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        // Rejected before reaching the controller, so @CrossOrigin has not applied its headers yet
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, ALLOWED_ORIGIN);
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, HttpHeaders.RETRY_AFTER);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"Upload service is busy. Retry after " + retryAfter + " seconds.\"}");
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.fileupload.controller;
+
+import org.example.fileupload.service.BulkUploadService;
+import org.example.fileupload.service.UploadLimitExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+@CrossOrigin(origins = "http://localhost:5173")
+@RestController
+@RequestMapping("/api/upload/bulk")
+public class BulkUploadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkUploadController.class);
+    private final BulkUploadService bulkUploadService;
+
+    public BulkUploadController(BulkUploadService bulkUploadService) {
+        this.bulkUploadService = bulkUploadService;
+    }
+
+    /**
+     * Uploads a ZIP archive of CSV files; every entry becomes an individually tracked file. An archive that
+     * decompresses past the bulk limits is rejected with 413.
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> uploadArchive(@RequestParam("file") MultipartFile archive) {
+        logger.info("Received bulk upload request. Archive: {}, Size: {} MB",
+                archive.getOriginalFilename(), archive.getSize() / (1024 * 1024));
+
+        Map<String, Object> response;
+        try {
+            response = bulkUploadService.uploadArchive(archive);
+        } catch (UploadLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("message", "Bulk upload rejected: " + e.getMessage()));
+        }
+
+        logger.info("Bulk upload response: batch {}, {}", response.get("batchId"), response.get("message"));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Retrieves aggregate progress for a bulk upload.
+     */
+    @GetMapping("/{batchId}")
+    public ResponseEntity<Map<String, Object>> getBatchStatus(@PathVariable UUID batchId) {
+        try {
+            return ResponseEntity.ok(bulkUploadService.getBatchStatus(batchId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.fileupload.controller;
+
+import org.example.fileupload.service.ChunkedUploadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+@CrossOrigin(origins = "http://localhost:5173")
+@RestController
+@RequestMapping("/api/upload/chunked")
+public class ChunkedUploadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadController.class);
+    private final ChunkedUploadService chunkedUploadService;
+
+    public ChunkedUploadController(ChunkedUploadService chunkedUploadService) {
+        this.chunkedUploadService = chunkedUploadService;
+    }
+
+    /**
+     * Initiates a chunked upload and returns the fileId and chunk geometry.
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> initiateUpload(@RequestParam("filename") String filename,
+                                                              @RequestParam("totalSize") long totalSize,
+                                                              @RequestParam(value = "chunkSize", required = false) Integer chunkSize) {
+        logger.info("Received chunked upload request. File Name: {}, Size: {} MB", filename, totalSize / (1024 * 1024));
+        return handle(null, () -> chunkedUploadService.initiate(filename, totalSize, chunkSize));
+    }
+
+    /**
+     * Stores one numbered chunk. Chunks may arrive in any order and concurrently.
+     */
+    @PutMapping("/{fileId}/chunks/{chunkIndex}")
+    public ResponseEntity<Map<String, Object>> uploadChunk(@PathVariable UUID fileId,
+                                                           @PathVariable int chunkIndex,
+                                                           InputStream body) {
+        return handle(fileId, () -> chunkedUploadService.writeChunk(fileId, chunkIndex, body));
+    }
+
+    /**
+     * Returns received and missing chunk ranges so an interrupted upload can resume.
+     */
+    @GetMapping("/{fileId}")
+    public ResponseEntity<Map<String, Object>> getUploadState(@PathVariable UUID fileId) {
+        return handle(fileId, () -> chunkedUploadService.getUploadState(fileId));
+    }
+
+    /**
+     * Completes the upload once every chunk has been received.
+     */
+    @PostMapping("/{fileId}/complete")
+    public ResponseEntity<Map<String, Object>> completeUpload(@PathVariable UUID fileId) {
+        return handle(fileId, () -> chunkedUploadService.complete(fileId));
+    }
+
+    private ResponseEntity<Map<String, Object>> handle(UUID fileId, Callable<Map<String, Object>> action) {
+        try {
+            return ResponseEntity.ok(action.call());
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, fileId, e);
+        } catch (NoSuchElementException e) {
+            return error(HttpStatus.NOT_FOUND, fileId, e);
+        } catch (IllegalStateException e) {
+            return error(HttpStatus.CONFLICT, fileId, e);
+        } catch (Exception e) {
+            logger.error("Chunked upload request failed for file {}: {}", fileId, e.getMessage(), e);
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, fileId, e);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> error(HttpStatus status, UUID fileId, Exception e) {
+        logger.warn("Chunked upload request rejected for file {}: {}", fileId, e.getMessage());
+        return ResponseEntity.status(status).body(Map.of(
+                "fileId", fileId != null ? fileId.toString() : "",
+                "message", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()
+        ));
+    }
+}
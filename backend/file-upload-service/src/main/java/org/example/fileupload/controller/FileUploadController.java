@@ -1,11 +1,14 @@
 package org.example.fileupload.controller;
 
 import org.example.fileupload.service.FileUploadService;
+import org.example.fileupload.service.UploadAdmissionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 import java.util.UUID;
@@ -17,9 +20,11 @@ public class FileUploadController {
 
     private static final Logger logger = LoggerFactory.getLogger(FileUploadController.class);
     private final FileUploadService fileUploadService;
+    private final UploadAdmissionService uploadAdmissionService;
 
-    public FileUploadController(FileUploadService fileUploadService) {
+    public FileUploadController(FileUploadService fileUploadService, UploadAdmissionService uploadAdmissionService) {
         this.fileUploadService = fileUploadService;
+        this.uploadAdmissionService = uploadAdmissionService;
     }
 
     /**
@@ -48,4 +53,29 @@ public class FileUploadController {
         logger.info("File status response: File ID: {}, Status: {}", fileId, status);
         return ResponseEntity.ok(status);
     }
+
+    /**
+     * Streams upload status transitions for a given file ID as server-sent events (replaces polling).
+     */
+    @GetMapping(value = "/status/{fileId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFileUploadStatus(@PathVariable UUID fileId) {
+        logger.info("Received status subscription for File ID: {}", fileId);
+        return fileUploadService.subscribeToStatus(fileId);
+    }
+
+    /**
+     * Retrieves status cache metrics (size, hits, misses, evictions).
+     */
+    @GetMapping("/status-cache")
+    public ResponseEntity<Map<String, Object>> getStatusCacheMetrics() {
+        return ResponseEntity.ok(fileUploadService.getStatusCacheMetrics());
+    }
+
+    /**
+     * Retrieves the current upload admission state (in-flight uploads and bytes, admitted/rejected totals).
+     */
+    @GetMapping("/admission")
+    public ResponseEntity<Map<String, Object>> getAdmissionMetrics() {
+        return ResponseEntity.ok(uploadAdmissionService.getMetrics());
+    }
 }
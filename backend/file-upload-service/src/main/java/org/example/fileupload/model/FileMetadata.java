@@ -5,7 +5,10 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "file_metadata")
+@Table(name = "file_metadata", indexes = {
+        @Index(name = "uk_file_metadata_content_hash", columnList = "content_hash", unique = true),
+        @Index(name = "idx_file_metadata_batch_id", columnList = "batch_id")
+})
 public class FileMetadata {
 
     @Id
@@ -23,7 +26,7 @@ public class FileMetadata {
     private Instant uploadTimestamp; // When file was uploaded
 
     @Column(name = "upload_status", nullable = false)
-    private String uploadStatus; // Status: PENDING, PROCESSING, UPLOADED, FAILED
+    private String uploadStatus; // Status: PENDING, UPLOADING, COMPLETING, PROCESSING, UPLOADED, FAILED
 
     @Column(name = "processing_start_time")
     private Instant processingStartTime; // When processing started (nullable)
@@ -34,6 +37,21 @@ public class FileMetadata {
     @Column(name = "error_message")
     private String errorMessage; // Stores error details if processing fails (nullable)
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // Hex SHA-256 of the stored content, set once UPLOADED and unique (nullable)
+
+    @Column(name = "batch_id")
+    private UUID batchId; // Bulk upload this file arrived in (nullable)
+
+    @Column(name = "total_size")
+    private Long totalSize; // Declared size of a chunked upload in bytes (nullable)
+
+    @Column(name = "chunk_size")
+    private Integer chunkSize; // Chunk size of a chunked upload in bytes (nullable)
+
+    @Column(name = "received_chunks", columnDefinition = "TEXT")
+    private String receivedChunks; // Received chunk index ranges, e.g. "0-4,7" (nullable)
+
     // Default Constructor (for JPA)
     public FileMetadata() {}
 
@@ -69,4 +87,19 @@ public class FileMetadata {
 
     public String getErrorMessage() { return errorMessage; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public UUID getBatchId() { return batchId; }
+    public void setBatchId(UUID batchId) { this.batchId = batchId; }
+
+    public Long getTotalSize() { return totalSize; }
+    public void setTotalSize(Long totalSize) { this.totalSize = totalSize; }
+
+    public Integer getChunkSize() { return chunkSize; }
+    public void setChunkSize(Integer chunkSize) { this.chunkSize = chunkSize; }
+
+    public String getReceivedChunks() { return receivedChunks; }
+    public void setReceivedChunks(String receivedChunks) { this.receivedChunks = receivedChunks; }
 }
@@ -2,8 +2,14 @@ package org.example.fileupload.repository;
 
 import org.example.fileupload.model.FileMetadata;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,4 +28,28 @@ public interface FileMetadataRepository extends JpaRepository<FileMetadata, UUID
 
     // Find all files by status (e.g., "PROCESSING", "FAILED")
     List<FileMetadata> findByUploadStatus(String uploadStatus);
+
+    // Find the earliest stored upload with identical content (by content hash)
+    Optional<FileMetadata> findFirstByContentHashAndUploadStatusOrderByUploadTimestampAsc(String contentHash, String uploadStatus);
+
+    // Find stored uploads matching any of the given content hashes (bulk deduplication)
+    List<FileMetadata> findByContentHashInAndUploadStatusOrderByUploadTimestampAsc(Collection<String> contentHashes, String uploadStatus);
+
+    // Find all files that arrived in one bulk upload
+    List<FileMetadata> findByBatchIdOrderByOriginalFilenameAsc(UUID batchId);
+
+    // Find uploads left in a status since before the given time (abandoned chunked uploads)
+    List<FileMetadata> findByUploadStatusAndUploadTimestampBefore(String uploadStatus, Instant uploadTimestamp);
+
+    // Move a file to a new status only if it is still in the expected one; 1 means this caller made the transition
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE FileMetadata f SET f.uploadStatus = :toStatus WHERE f.fileId = :fileId AND f.uploadStatus = :fromStatus")
+    int transitionStatus(@Param("fileId") UUID fileId, @Param("fromStatus") String fromStatus, @Param("toStatus") String toStatus);
+
+    // Record received chunk ranges of a chunked upload without rewriting the whole row
+    @Modifying
+    @Transactional
+    @Query("UPDATE FileMetadata f SET f.receivedChunks = :receivedChunks WHERE f.fileId = :fileId")
+    int updateReceivedChunks(@Param("fileId") UUID fileId, @Param("receivedChunks") String receivedChunks);
 }
@@ -0,0 +1,291 @@
+package org.example.fileupload.service;
+
+import org.example.common.csv.CsvParserType;
+import org.example.fileupload.model.FileMetadata;
+import org.example.fileupload.repository.FileMetadataRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Bulk upload of a ZIP archive of CSV files. The archive is streamed entry by entry to one ".part" file per
+ * entry (no extraction to a temp directory). All metadata rows are inserted in one batch before any file is
+ * published under its fileId, and marked UPLOADED in a second batch. Every entry gets its own fileId; the
+ * batchId groups them for aggregate progress. Decompressed bytes are capped per entry and per archive, since
+ * admission control only reserves the compressed size.
+ */
+@Service
+public class BulkUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkUploadService.class);
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final List<String> CSV_EXTENSIONS = List.of(".csv", ".csv.gz", ".csv.zst");
+
+    private final FileMetadataRepository fileMetadataRepository;
+    private final FileUploadService fileUploadService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${file.csv.parser:tokenizer}")
+    private CsvParserType csvParserType;
+
+    @Value("${file.csv.max-header-bytes:1048576}")
+    private int maxHeaderBytes;
+
+    @Value("${file.upload.bulk.max-entry-bytes:1073741824}")
+    private long maxEntryBytes;
+
+    @Value("${file.upload.bulk.max-archive-bytes:2147483648}")
+    private long maxArchiveBytes;
+
+    public BulkUploadService(FileMetadataRepository fileMetadataRepository, FileUploadService fileUploadService,
+                             TransactionTemplate transactionTemplate) {
+        this.fileMetadataRepository = fileMetadataRepository;
+        this.fileUploadService = fileUploadService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Streams all CSV entries of the archive to storage and registers them under a new batchId. An archive
+     * with an entry, or entries in total, past the decompressed limits is rejected as a whole.
+     */
+    public Map<String, Object> uploadArchive(MultipartFile archive) throws UploadLimitExceededException {
+        UUID batchId = UUID.randomUUID();
+        Map<String, Object> response = new HashMap<>();
+        response.put("batchId", batchId);
+
+        List<StagedEntry> staged = new ArrayList<>();
+        List<Map<String, Object>> skipped = new ArrayList<>();
+        long archiveBytes = 0;
+        try {
+            try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(archive.getInputStream(), STREAM_BUFFER_SIZE))) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    if (entry.isDirectory()) {
+                        continue;
+                    }
+                    String entryName = entry.getName();
+                    if (!isCsvEntry(entryName)) {
+                        skipped.add(Map.of("entry", entryName, "reason", "Not a CSV file."));
+                        continue;
+                    }
+
+                    // Not closed per entry: closing it would close the archive stream itself
+                    ReadableByteChannel source = Channels.newChannel(zip);
+                    ByteBuffer buffer;
+                    try {
+                        buffer = CsvHeaderExtractor.readFirstChunk(source, STREAM_BUFFER_SIZE, maxHeaderBytes, csvParserType);
+                    } catch (UploadLimitExceededException e) {
+                        skipped.add(Map.of("entry", entryName, "reason", e.getMessage()));
+                        continue;
+                    }
+
+                    List<String> headers = CsvHeaderExtractor.fromFirstChunk(buffer, csvParserType, maxHeaderBytes);
+                    if (headers.isEmpty()) {
+                        skipped.add(Map.of("entry", entryName, "reason", "No valid headers found."));
+                        continue;
+                    }
+
+                    // Named by batch and position, so entries with the same name never share a part file
+                    Path partPath = Path.of(uploadDir, batchId + "-" + staged.size() + ".part");
+                    StagedEntry stagedEntry = new StagedEntry(entryName, partPath, headers, Compression.detect(buffer));
+                    staged.add(stagedEntry); // registered first so a failed write is still cleaned up
+                    long entryLimit = Math.min(maxEntryBytes, maxArchiveBytes - archiveBytes);
+                    try {
+                        stagedEntry.contentHash = FileUploadService.writeStreaming(source, buffer, partPath, entryLimit);
+                    } catch (UploadLimitExceededException e) {
+                        throw new UploadLimitExceededException(entryLimit == maxEntryBytes
+                                ? "Entry " + entryName + " decompresses to more than " + maxEntryBytes + " bytes."
+                                : "Archive decompresses to more than " + maxArchiveBytes + " bytes.");
+                    }
+                    archiveBytes += Files.size(partPath);
+                }
+            }
+
+            response.put("files", register(batchId, staged));
+            response.put("skipped", skipped);
+            response.put("message", "Bulk upload stored " + staged.size() + " file(s), skipped " + skipped.size() + ".");
+            logger.info("Bulk upload {} from {}: {} files stored, {} skipped",
+                    batchId, archive.getOriginalFilename(), staged.size(), skipped.size());
+        } catch (UploadLimitExceededException e) {
+            staged.forEach(entry -> FileUploadService.deleteQuietly(entry.partPath));
+            logger.warn("Bulk upload {} rejected: {}", archive.getOriginalFilename(), e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            staged.forEach(entry -> FileUploadService.deleteQuietly(entry.partPath));
+            logger.error("Bulk upload failed for archive {}: {}", archive.getOriginalFilename(), e.getMessage(), e);
+            response.put("message", "Bulk upload failed: " + e.getMessage());
+        }
+        return response;
+    }
+
+    /**
+     * Resolves duplicates with one hash lookup, inserts metadata for the new files in one batch, then moves
+     * each file to its fileId storage path and marks them UPLOADED in a second batch. If a move or the update
+     * fails, the files already moved and the inserted rows are removed again, so no file is left without
+     * metadata and no row points to a missing file.
+     */
+    private List<Map<String, Object>> register(UUID batchId, List<StagedEntry> staged) throws IOException {
+        Set<String> hashes = new HashSet<>();
+        staged.forEach(entry -> hashes.add(entry.contentHash));
+
+        Map<String, FileMetadata> byHash = new HashMap<>();
+        for (FileMetadata existing : fileMetadataRepository.findByContentHashInAndUploadStatusOrderByUploadTimestampAsc(hashes, "UPLOADED")) {
+            if (Files.exists(Path.of(existing.getStoragePath()))) {
+                byHash.putIfAbsent(existing.getContentHash(), existing);
+            }
+        }
+
+        List<StagedEntry> newEntries = new ArrayList<>();
+        List<FileMetadata> newFiles = new ArrayList<>();
+        for (StagedEntry entry : staged) {
+            FileMetadata original = byHash.get(entry.contentHash);
+            if (original != null) {
+                FileUploadService.deleteQuietly(entry.partPath);
+                entry.metadata = original;
+                entry.duplicate = true;
+                continue;
+            }
+
+            FileMetadata metadata = new FileMetadata(entry.entryName, entry.partPath.toString(), "PENDING");
+            metadata.setBatchId(batchId);
+            newEntries.add(entry);
+            newFiles.add(metadata);
+            entry.metadata = metadata;
+            byHash.put(entry.contentHash, metadata); // identical entries within the same archive
+        }
+
+        // Single batched insert (UUIDs are generated client-side, so Hibernate can batch the statements)
+        fileMetadataRepository.saveAll(newFiles);
+
+        List<Path> moved = new ArrayList<>();
+        try {
+            for (StagedEntry entry : newEntries) {
+                FileMetadata metadata = entry.metadata;
+                Path storagePath = fileUploadService.storagePath(metadata.getFileId(), entry.compression);
+                Files.move(entry.partPath, storagePath, StandardCopyOption.ATOMIC_MOVE);
+                moved.add(storagePath);
+                metadata.setStoragePath(storagePath.toString());
+                metadata.setContentHash(entry.contentHash);
+                metadata.setUploadStatus("UPLOADED");
+            }
+            publish(staged, newFiles, byHash);
+        } catch (IOException | RuntimeException e) {
+            moved.forEach(FileUploadService::deleteQuietly);
+            fileMetadataRepository.deleteAllByIdInBatch(newFiles.stream().map(FileMetadata::getFileId).toList());
+            throw e;
+        }
+
+        List<Map<String, Object>> files = new ArrayList<>();
+        for (StagedEntry entry : staged) {
+            Map<String, Object> view = new HashMap<>();
+            view.put("fileId", entry.metadata.getFileId());
+            view.put("entry", entry.entryName);
+            view.put("headers", entry.headers);
+            view.put("duplicate", entry.duplicate);
+            files.add(view);
+        }
+        return files;
+    }
+
+    /**
+     * Marks the new files UPLOADED in one batched update. The rows are loaded in one query and changed while
+     * managed, so the update is flushed as batched UPDATEs rather than a merge (a SELECT each) per file. If an
+     * identical file was stored concurrently the unique content hash rejects the batch; the files are then
+     * marked one at a time and each conflicting entry is pointed at the file that won.
+     */
+    private void publish(List<StagedEntry> staged, List<FileMetadata> newFiles, Map<String, FileMetadata> byHash) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<UUID, FileMetadata> rows = new HashMap<>();
+                fileMetadataRepository.findAllById(newFiles.stream().map(FileMetadata::getFileId).toList())
+                        .forEach(row -> rows.put(row.getFileId(), row));
+                for (FileMetadata metadata : newFiles) {
+                    FileMetadata row = rows.get(metadata.getFileId());
+                    row.setStoragePath(metadata.getStoragePath());
+                    row.setContentHash(metadata.getContentHash());
+                    row.setUploadStatus(metadata.getUploadStatus());
+                }
+            });
+            newFiles.forEach(fileUploadService::recordStatus);
+        } catch (DataIntegrityViolationException e) {
+            for (FileMetadata metadata : newFiles) {
+                byHash.put(metadata.getContentHash(), fileUploadService.markUploaded(metadata, metadata.getContentHash()));
+            }
+            for (StagedEntry entry : staged) {
+                FileMetadata stored = byHash.get(entry.contentHash);
+                entry.duplicate |= !stored.getFileId().equals(entry.metadata.getFileId());
+                entry.metadata = stored;
+            }
+        }
+    }
+
+    /**
+     * Aggregate progress of a bulk upload, plus the status of each file in it.
+     */
+    public Map<String, Object> getBatchStatus(UUID batchId) {
+        List<FileMetadata> files = fileMetadataRepository.findByBatchIdOrderByOriginalFilenameAsc(batchId);
+        if (files.isEmpty()) {
+            throw new NoSuchElementException("Unknown batch: " + batchId);
+        }
+
+        Map<String, Integer> statusCounts = new TreeMap<>();
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (FileMetadata file : files) {
+            String status = fileUploadService.getFileStatus(file.getFileId());
+            statusCounts.merge(status, 1, Integer::sum);
+            entries.add(Map.of(
+                    "fileId", file.getFileId(),
+                    "originalFilename", file.getOriginalFilename(),
+                    "status", status
+            ));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("batchId", batchId);
+        response.put("total", files.size());
+        response.put("statusCounts", statusCounts);
+        response.put("files", entries);
+        return response;
+    }
+
+    private boolean isCsvEntry(String entryName) {
+        String lower = entryName.toLowerCase(Locale.ROOT);
+        return CSV_EXTENSIONS.stream().anyMatch(lower::endsWith);
+    }
+
+    private static final class StagedEntry {
+        private final String entryName;
+        private final Path partPath;
+        private final List<String> headers;
+        private final Compression compression;
+        private String contentHash;
+        private FileMetadata metadata;
+        private boolean duplicate;
+
+        private StagedEntry(String entryName, Path partPath, List<String> headers, Compression compression) {
+            this.entryName = entryName;
+            this.partPath = partPath;
+            this.headers = headers;
+            this.compression = compression;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.fileupload.service;
+
+import org.example.fileupload.model.FileMetadata;
+
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.UUID;
+
+/**
+ * In-memory view of a chunked upload: geometry of the preallocated file and which chunks have arrived.
+ * Received chunks are persisted on {@link FileMetadata} as index ranges (e.g. "0-4,7,9-12") so the
+ * session can be rebuilt after a restart.
+ */
+class ChunkedUpload {
+
+    private final UUID fileId;
+    private final Path partPath;
+    private final long totalSize;
+    private final int chunkSize;
+    private final int chunkCount;
+    private final BitSet received;
+    private volatile long lastActivity = System.currentTimeMillis();
+
+    ChunkedUpload(FileMetadata metadata, Path partPath) {
+        this.fileId = metadata.getFileId();
+        this.partPath = partPath;
+        this.totalSize = metadata.getTotalSize();
+        this.chunkSize = metadata.getChunkSize();
+        this.chunkCount = (int) ((totalSize + chunkSize - 1) / chunkSize);
+        this.received = decodeRanges(metadata.getReceivedChunks());
+    }
+
+    UUID getFileId() { return fileId; }
+    Path getPartPath() { return partPath; }
+    long getTotalSize() { return totalSize; }
+    int getChunkSize() { return chunkSize; }
+    int getChunkCount() { return chunkCount; }
+
+    long getLastActivity() { return lastActivity; }
+
+    void touch() {
+        lastActivity = System.currentTimeMillis();
+    }
+
+    long offsetOf(int chunkIndex) {
+        return (long) chunkIndex * chunkSize;
+    }
+
+    /**
+     * Expected byte length of a chunk; only the last one may be shorter than the chunk size.
+     */
+    long lengthOf(int chunkIndex) {
+        return Math.min(chunkSize, totalSize - offsetOf(chunkIndex));
+    }
+
+    /**
+     * Marks a chunk as received and returns the encoded ranges to persist. Callers synchronize on this
+     * instance so that the persisted value never goes backwards.
+     */
+    String markReceived(int chunkIndex) {
+        received.set(chunkIndex);
+        return encodeRanges(received, chunkCount, true);
+    }
+
+    boolean isComplete() {
+        return received.cardinality() == chunkCount;
+    }
+
+    String receivedRanges() {
+        return encodeRanges(received, chunkCount, true);
+    }
+
+    String missingRanges() {
+        return encodeRanges(received, chunkCount, false);
+    }
+
+    private static String encodeRanges(BitSet bits, int length, boolean set) {
+        StringBuilder ranges = new StringBuilder();
+        int start = set ? bits.nextSetBit(0) : bits.nextClearBit(0);
+        while (start >= 0 && start < length) {
+            int end = Math.min(set ? bits.nextClearBit(start) : bits.nextSetBit(start), length);
+            if (end < 0) {
+                end = length;
+            }
+            if (ranges.length() > 0) {
+                ranges.append(',');
+            }
+            ranges.append(start);
+            if (end - 1 > start) {
+                ranges.append('-').append(end - 1);
+            }
+            start = set ? bits.nextSetBit(end) : bits.nextClearBit(end);
+        }
+        return ranges.toString();
+    }
+
+    private static BitSet decodeRanges(String ranges) {
+        BitSet bits = new BitSet();
+        if (ranges == null || ranges.isBlank()) {
+            return bits;
+        }
+        for (String range : ranges.split(",")) {
+            int dash = range.indexOf('-');
+            if (dash < 0) {
+                bits.set(Integer.parseInt(range.trim()));
+            } else {
+                bits.set(Integer.parseInt(range.substring(0, dash).trim()), Integer.parseInt(range.substring(dash + 1).trim()) + 1);
+            }
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,309 @@
+package org.example.fileupload.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.common.csv.CsvParserType;
+import org.example.fileupload.model.FileMetadata;
+import org.example.fileupload.repository.FileMetadataRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumable chunked uploads: initiate, PUT numbered chunks in any order (or concurrently), then complete.
+ * Chunks are written at their offsets into a preallocated ".part" file with positional channel writes, so
+ * parallel connections never contend on a shared stream position. Sessions idle for longer than the session
+ * TTL are expired: marked FAILED and their ".part" file deleted.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final FileMetadataRepository fileMetadataRepository;
+    private final FileUploadService fileUploadService;
+    private final Map<UUID, ChunkedUpload> activeUploads = new ConcurrentHashMap<>(); // FileID -> Upload session
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${file.csv.parser:tokenizer}")
+    private CsvParserType csvParserType;
+
+    @Value("${file.csv.max-header-bytes:1048576}")
+    private int maxHeaderBytes;
+
+    @Value("${file.upload.chunked.default-chunk-size:8388608}")
+    private int defaultChunkSize;
+
+    @Value("${file.upload.chunked.max-chunk-size:67108864}")
+    private int maxChunkSize;
+
+    @Value("${file.upload.chunked.session-ttl:24h}")
+    private Duration sessionTtl;
+
+    @Value("${file.upload.chunked.sweep-interval:1m}")
+    private Duration sweepInterval;
+
+    private ScheduledExecutorService sweeper;
+
+    public ChunkedUploadService(FileMetadataRepository fileMetadataRepository, FileUploadService fileUploadService) {
+        this.fileMetadataRepository = fileMetadataRepository;
+        this.fileUploadService = fileUploadService;
+    }
+
+    @PostConstruct
+    void startSweeper() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "chunked-upload-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = sweepInterval.toMillis();
+        sweeper.scheduleWithFixedDelay(this::expireAbandoned, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopSweeper() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Creates the metadata row and preallocates the ".part" file the chunks are written into.
+     */
+    public Map<String, Object> initiate(String originalFilename, long totalSize, Integer requestedChunkSize) {
+        int chunkSize = requestedChunkSize != null ? requestedChunkSize : defaultChunkSize;
+        if (totalSize <= 0) {
+            throw new IllegalArgumentException("totalSize must be positive.");
+        }
+        if (chunkSize <= 0 || chunkSize > maxChunkSize) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and " + maxChunkSize + " bytes.");
+        }
+
+        String sanitizedFilename = FileUploadService.sanitizeFilename(originalFilename);
+        FileMetadata metadata = new FileMetadata(originalFilename, uploadDir, "UPLOADING"); // stored under its fileId on completion
+        metadata.setTotalSize(totalSize);
+        metadata.setChunkSize(chunkSize);
+        metadata.setReceivedChunks("");
+        FileMetadata savedMetadata = fileMetadataRepository.save(metadata);
+
+        ChunkedUpload upload = new ChunkedUpload(savedMetadata, fileUploadService.partPath(savedMetadata.getFileId()));
+        try (RandomAccessFile file = new RandomAccessFile(upload.getPartPath().toFile(), "rw")) {
+            file.setLength(totalSize);
+        } catch (IOException e) {
+            fileUploadService.updateStatus(savedMetadata, "FAILED", e.getMessage());
+            throw new IllegalStateException("Could not preallocate storage for " + originalFilename + ": " + e.getMessage(), e);
+        }
+        activeUploads.put(upload.getFileId(), upload);
+
+        logger.info("Initiated chunked upload {} for {} ({} bytes, {} chunks of {} bytes)",
+                upload.getFileId(), originalFilename, totalSize, upload.getChunkCount(), chunkSize);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("fileId", upload.getFileId());
+        response.put("originalFilename", originalFilename);
+        response.put("sanitizedFilename", sanitizedFilename);
+        response.put("chunkSize", chunkSize);
+        response.put("chunkCount", upload.getChunkCount());
+        return response;
+    }
+
+    /**
+     * Streams one chunk to its offset in the preallocated file. Re-sending a chunk simply overwrites it.
+     */
+    public Map<String, Object> writeChunk(UUID fileId, int chunkIndex, InputStream body) throws IOException {
+        ChunkedUpload upload = resolveUpload(fileId);
+        if (chunkIndex < 0 || chunkIndex >= upload.getChunkCount()) {
+            throw new IllegalArgumentException("Chunk index must be between 0 and " + (upload.getChunkCount() - 1) + ".");
+        }
+
+        long offset = upload.offsetOf(chunkIndex);
+        long expected = upload.lengthOf(chunkIndex);
+        long written = 0;
+        try (ReadableByteChannel source = Channels.newChannel(body);
+             FileChannel target = FileChannel.open(upload.getPartPath(), StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                if (written + buffer.remaining() > expected) {
+                    throw new IllegalArgumentException("Chunk " + chunkIndex + " exceeds its expected length of " + expected + " bytes.");
+                }
+                while (buffer.hasRemaining()) {
+                    written += target.write(buffer, offset + written);
+                }
+                buffer.clear();
+            }
+        }
+        if (written != expected) {
+            throw new IllegalArgumentException("Chunk " + chunkIndex + " is incomplete: received " + written + " of " + expected + " bytes.");
+        }
+
+        String receivedRanges;
+        synchronized (upload) {
+            receivedRanges = upload.markReceived(chunkIndex);
+            fileMetadataRepository.updateReceivedChunks(fileId, receivedRanges);
+        }
+        logger.debug("Stored chunk {} of upload {} ({} bytes)", chunkIndex, fileId, written);
+
+        return Map.of(
+                "fileId", fileId,
+                "chunkIndex", chunkIndex,
+                "receivedChunks", receivedRanges
+        );
+    }
+
+    /**
+     * Reports which chunks have been received and which are still missing, so an interrupted client can resume.
+     */
+    public Map<String, Object> getUploadState(UUID fileId) {
+        ChunkedUpload upload = resolveUpload(fileId);
+        synchronized (upload) {
+            return Map.of(
+                    "fileId", fileId,
+                    "status", "UPLOADING",
+                    "chunkSize", upload.getChunkSize(),
+                    "chunkCount", upload.getChunkCount(),
+                    "receivedChunks", upload.receivedRanges(),
+                    "missingChunks", upload.missingRanges()
+            );
+        }
+    }
+
+    /**
+     * Verifies all chunks arrived, validates the header row and moves the file into its storage path.
+     * Completion is claimed with a conditional status update (UPLOADING -> COMPLETING), so of two concurrent
+     * calls only one hashes and publishes the file; the other gets an IllegalStateException (409).
+     */
+    public Map<String, Object> complete(UUID fileId) throws IOException {
+        ChunkedUpload upload = resolveUpload(fileId);
+        synchronized (upload) {
+            if (!upload.isComplete()) {
+                throw new IllegalStateException("Upload " + fileId + " is missing chunks: " + upload.missingRanges());
+            }
+        }
+        if (fileMetadataRepository.transitionStatus(fileId, "UPLOADING", "COMPLETING") == 0) {
+            throw new IllegalStateException("Upload " + fileId + " is already being completed.");
+        }
+        activeUploads.remove(fileId, upload);
+
+        FileMetadata metadata = fileMetadataRepository.findByFileId(fileId)
+                .orElseThrow(() -> new NoSuchElementException("Unknown upload: " + fileId));
+        try {
+            return publish(upload, metadata);
+        } catch (IOException | RuntimeException e) {
+            // Hand the upload back so the client can retry completion
+            fileMetadataRepository.transitionStatus(fileId, "COMPLETING", "UPLOADING");
+            throw e;
+        }
+    }
+
+    private Map<String, Object> publish(ChunkedUpload upload, FileMetadata metadata) throws IOException {
+        UUID fileId = upload.getFileId();
+        Map<String, Object> response = new HashMap<>();
+        response.put("fileId", fileId);
+        response.put("originalFilename", metadata.getOriginalFilename());
+
+        List<String> headers;
+        try (FileChannel channel = FileChannel.open(upload.getPartPath(), StandardOpenOption.READ)) {
+            int initialSize = (int) Math.min(COPY_BUFFER_SIZE, upload.getTotalSize());
+            ByteBuffer firstChunk = CsvHeaderExtractor.readFirstChunk(channel, initialSize, maxHeaderBytes, csvParserType);
+            headers = CsvHeaderExtractor.fromFirstChunk(firstChunk, csvParserType, maxHeaderBytes);
+        } catch (UploadLimitExceededException e) {
+            return rejectHeaders(upload, metadata, e.getMessage(), response);
+        }
+        if (headers.isEmpty()) {
+            return rejectHeaders(upload, metadata, "No valid headers found.", response);
+        }
+
+        // Chunks arrive out of order, so the content hash is computed in one sequential pass at the end
+        String contentHash = FileUploadService.hashFile(upload.getPartPath());
+        FileMetadata stored = fileUploadService.publishUpload(metadata, upload.getPartPath(), contentHash);
+        logger.info("Completed chunked upload {} ({} chunks)", fileId, upload.getChunkCount());
+
+        response.put("headers", headers);
+        if (!stored.getFileId().equals(fileId)) {
+            response.put("fileId", stored.getFileId());
+            response.put("duplicate", true);
+            response.put("message", "Identical file already uploaded. Reusing existing file.");
+        } else {
+            response.put("message", "File uploaded successfully.");
+        }
+        return response;
+    }
+
+    private Map<String, Object> rejectHeaders(ChunkedUpload upload, FileMetadata metadata, String reason,
+                                              Map<String, Object> response) {
+        FileUploadService.deleteQuietly(upload.getPartPath());
+        fileUploadService.updateStatus(metadata, "FAILED", reason);
+        response.put("message", "File upload failed: " + reason);
+        return response;
+    }
+
+    /**
+     * Expires sessions idle for longer than the session TTL, and uploads still UPLOADING from before a
+     * restart that were never resumed. Uses the same conditional update as completion, so an upload that is
+     * being completed is never expired.
+     */
+    void expireAbandoned() {
+        try {
+            long cutoff = System.currentTimeMillis() - sessionTtl.toMillis();
+            for (ChunkedUpload upload : activeUploads.values()) {
+                if (upload.getLastActivity() < cutoff && activeUploads.remove(upload.getFileId(), upload)) {
+                    expire(upload.getFileId());
+                }
+            }
+            for (FileMetadata metadata : fileMetadataRepository.findByUploadStatusAndUploadTimestampBefore(
+                    "UPLOADING", Instant.ofEpochMilli(cutoff))) {
+                if (!activeUploads.containsKey(metadata.getFileId())) {
+                    expire(metadata.getFileId());
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not expire abandoned chunked uploads: {}", e.getMessage(), e);
+        }
+    }
+
+    private void expire(UUID fileId) {
+        if (fileMetadataRepository.transitionStatus(fileId, "UPLOADING", "FAILED") == 0) {
+            return;
+        }
+        FileUploadService.deleteQuietly(fileUploadService.partPath(fileId));
+        fileMetadataRepository.findByFileId(fileId).ifPresent(metadata ->
+                fileUploadService.updateStatus(metadata, "FAILED", "Upload expired after " + sessionTtl + " without activity."));
+        logger.info("Expired abandoned chunked upload {}", fileId);
+    }
+
+    /**
+     * Returns the live session, rebuilding it from the persisted ranges after a restart.
+     */
+    private ChunkedUpload resolveUpload(UUID fileId) {
+        ChunkedUpload upload = activeUploads.computeIfAbsent(fileId, id -> {
+            FileMetadata metadata = fileMetadataRepository.findByFileId(id)
+                    .orElseThrow(() -> new NoSuchElementException("Unknown upload: " + id));
+            if (!"UPLOADING".equals(metadata.getUploadStatus()) || metadata.getTotalSize() == null || metadata.getChunkSize() == null) {
+                throw new IllegalStateException("File " + id + " is not an active chunked upload (status " + metadata.getUploadStatus() + ").");
+            }
+            return new ChunkedUpload(metadata, fileUploadService.partPath(id));
+        });
+        upload.touch();
+        return upload;
+    }
+}
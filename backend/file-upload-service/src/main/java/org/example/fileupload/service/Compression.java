@@ -0,0 +1,70 @@
+package org.example.fileupload.service;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compression formats accepted for CSV uploads, detected from the leading magic bytes.
+ * Compressed uploads are stored as-is; consumers inflate them on the fly.
+ */
+enum Compression {
+    NONE(".csv"), GZIP(".csv.gz"), ZSTD(".csv.zst");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String extension;
+
+    Compression(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * File name suffix of a stored upload in this format, as looked up by fileId downstream.
+     */
+    String extension() {
+        return extension;
+    }
+
+    /**
+     * Detects the format from the start of the buffer without moving its position.
+     */
+    static Compression detect(ByteBuffer head) {
+        int p = head.position();
+        if (head.remaining() >= 2 && (head.get(p) & 0xFF) == 0x1F && (head.get(p + 1) & 0xFF) == 0x8B) {
+            return GZIP;
+        }
+        if (head.remaining() >= 4 && (head.get(p) & 0xFF) == 0x28 && (head.get(p + 1) & 0xFF) == 0xB5
+                && (head.get(p + 2) & 0xFF) == 0x2F && (head.get(p + 3) & 0xFF) == 0xFD) {
+            return ZSTD;
+        }
+        return NONE;
+    }
+
+    /**
+     * Detects the format of a file from its first bytes.
+     */
+    static Compression detect(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(4);
+            while (head.hasRemaining() && channel.read(head) != -1) {
+                // keep filling
+            }
+            return detect(head.flip());
+        }
+    }
+
+    InputStream wrap(InputStream in) throws IOException {
+        return switch (this) {
+            case GZIP -> new GZIPInputStream(in, BUFFER_SIZE);
+            case ZSTD -> new ZstdInputStream(in);
+            case NONE -> in;
+        };
+    }
+}
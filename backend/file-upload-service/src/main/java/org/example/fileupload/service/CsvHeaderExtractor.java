@@ -0,0 +1,110 @@
+package org.example.fileupload.service;
+
+import org.example.common.csv.CsvCursor;
+import org.example.common.csv.CsvParserType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Sniffs the CSV header row from the first buffer of an upload, without touching the rest of the stream.
+ * Compressed uploads are recognised by their magic bytes and only the buffered prefix is inflated.
+ */
+final class CsvHeaderExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvHeaderExtractor.class);
+
+    private CsvHeaderExtractor() {}
+
+    /**
+     * Reads the start of the upload into a buffer of initialSize bytes, growing it while the header record
+     * has not ended yet, up to maxHeaderBytes. Returns the buffer flipped, for {@link #fromFirstChunk} and
+     * then for streaming the upload on. Fails with {@link UploadLimitExceededException} when the header row
+     * is longer than maxHeaderBytes.
+     */
+    static ByteBuffer readFirstChunk(ReadableByteChannel source, int initialSize, int maxHeaderBytes,
+                                     CsvParserType parserType) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(initialSize);
+        while (true) {
+            FileUploadService.readFully(source, buffer);
+            boolean endOfInput = buffer.hasRemaining();
+            buffer.flip();
+            if (endOfInput || headerEnds(buffer, parserType, maxHeaderBytes)) {
+                return buffer;
+            }
+            if (buffer.capacity() >= maxHeaderBytes) {
+                throw new UploadLimitExceededException("The header row is longer than " + maxHeaderBytes + " bytes.");
+            }
+            ByteBuffer larger = ByteBuffer.allocate((int) Math.min(2L * buffer.capacity(), maxHeaderBytes));
+            buffer = larger.put(buffer);
+        }
+    }
+
+    /**
+     * Extracts column headers from the first record in the buffer (quote-aware, so a quoted
+     * header containing a line break is not cut short). Repeated names are listed once; a blank name makes
+     * the header unusable and yields an empty list. The buffer's position and limit are left untouched.
+     */
+    static List<String> fromFirstChunk(ByteBuffer firstChunk, CsvParserType parserType, int maxHeaderBytes) {
+        try (CsvCursor cursor = parserType.open(csvPrefix(firstChunk, maxHeaderBytes))) {
+            LinkedHashSet<String> headers = new LinkedHashSet<>(cursor.readHeader()); // Extract headers from the first row
+            if (headers.stream().anyMatch(String::isBlank)) {
+                throw new IllegalArgumentException("A header name is missing in " + headers);
+            }
+            return new ArrayList<>(headers);
+        } catch (Exception e) {
+            logger.error("Failed to extract CSV headers: {}", e.getMessage(), e);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Whether the buffer holds the header record and the start of the next one. Unreadable input counts as
+     * ended, so that {@link #fromFirstChunk} reports it.
+     */
+    private static boolean headerEnds(ByteBuffer buffer, CsvParserType parserType, int maxHeaderBytes) {
+        try (CsvCursor cursor = parserType.open(csvPrefix(buffer, maxHeaderBytes))) {
+            cursor.readHeader();
+            return cursor.next();
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    /**
+     * The CSV bytes at the start of the buffer, inflated when the upload is compressed.
+     */
+    private static ByteBuffer csvPrefix(ByteBuffer buffer, int maxHeaderBytes) {
+        Compression compression = Compression.detect(buffer);
+        return compression == Compression.NONE ? buffer.duplicate() : inflatePrefix(buffer, compression, maxHeaderBytes);
+    }
+
+    /**
+     * Inflates as much of the compressed prefix as is available, up to maxBytes. The buffer holds only the start of the
+     * stream, so running out of input is expected and simply ends the prefix.
+     */
+    private static ByteBuffer inflatePrefix(ByteBuffer compressed, Compression compression, int maxBytes) {
+        byte[] input = new byte[compressed.remaining()];
+        compressed.duplicate().get(input);
+
+        byte[] inflated = new byte[maxBytes];
+        int length = 0;
+        try (InputStream in = compression.wrap(new ByteArrayInputStream(input))) {
+            int read;
+            while (length < inflated.length && (read = in.read(inflated, length, inflated.length - length)) != -1) {
+                length += read;
+            }
+        } catch (IOException e) {
+            logger.debug("Stopped inflating {} header prefix after {} bytes: {}", compression, length, e.getMessage());
+        }
+        return ByteBuffer.wrap(inflated, 0, length);
+    }
+}
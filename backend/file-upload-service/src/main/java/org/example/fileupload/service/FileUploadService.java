@@ -1,64 +1,84 @@
 package org.example.fileupload.service;
 
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
+import org.example.common.csv.CsvParserType;
+import org.example.common.status.StatusCache;
+import org.example.common.status.StatusEventPublisher;
 import org.example.fileupload.model.FileMetadata;
 import org.example.fileupload.repository.FileMetadataRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.Instant;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class FileUploadService {
 
     private static final Logger logger = LoggerFactory.getLogger(FileUploadService.class);
-    private static final long ASYNC_THRESHOLD = 10 * 1024 * 1024; // 10MB threshold for async storage
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024; // Fixed per-upload buffer, independent of file size
+    private static final String CONTENT_HASH_ALGORITHM = "SHA-256";
 
     private final FileMetadataRepository fileMetadataRepository;
-    private final ThreadPoolTaskExecutor fileUploadExecutor;
-    private final Map<UUID, String> fileStatusCache = new ConcurrentHashMap<>(); // FileID -> Status Cache
+    private final StatusCache<String> fileStatusCache; // FileID -> Status Cache
+    private final StatusEventPublisher fileStatusEvents;
 
     @Value("${file.upload-dir}")
     private String uploadDir;
 
-    public FileUploadService(FileMetadataRepository fileMetadataRepository, ThreadPoolTaskExecutor fileUploadExecutor) {
+    @Value("${file.csv.parser:tokenizer}")
+    private CsvParserType csvParserType;
+
+    @Value("${file.csv.max-header-bytes:1048576}")
+    private int maxHeaderBytes;
+
+    public FileUploadService(FileMetadataRepository fileMetadataRepository, StatusCache<String> fileStatusCache,
+                             StatusEventPublisher fileStatusEvents) {
         this.fileMetadataRepository = fileMetadataRepository;
-        this.fileUploadExecutor = fileUploadExecutor;
+        this.fileStatusCache = fileStatusCache;
+        this.fileStatusEvents = fileStatusEvents;
     }
 
     /**
      * Handles file upload and tracking.
+     * The multipart body is read exactly once: the header row is sniffed from the first buffer and the
+     * same buffer is then reused to stream the whole file to disk, so heap use per upload is bounded by the
+     * header limit.
      */
     public Map<String, Object> uploadFile(MultipartFile file) {
         Map<String, Object> response = new HashMap<>();
         String originalFilename = file.getOriginalFilename();
         String sanitizedFilename = sanitizeFilename(originalFilename);
-        Path storagePath = Path.of(uploadDir, sanitizedFilename);
 
         logger.info("Uploading file: {} (Sanitized: {})", originalFilename, sanitizedFilename);
 
-        try {
-            // Extract column headers
-            List<String> headers = extractCsvHeaders(file);
+        try (ReadableByteChannel source = Channels.newChannel(file.getInputStream())) {
+            // The first buffer grows past STREAM_BUFFER_SIZE only as far as a long header row needs
+            ByteBuffer buffer = CsvHeaderExtractor.readFirstChunk(source, STREAM_BUFFER_SIZE, maxHeaderBytes, csvParserType);
+
+            // Extract column headers from the first buffer
+            List<String> headers = CsvHeaderExtractor.fromFirstChunk(buffer, csvParserType, maxHeaderBytes);
             if (headers.isEmpty()) {
                 response.put("message", "File upload failed: No valid headers found.");
                 return response;
             }
 
-            // Create Metadata Record in Database (JPA will generate fileId)
-            FileMetadata savedMetadata = fileMetadataRepository.save(new FileMetadata(originalFilename, storagePath.toString(), "PENDING"));
+            // Create Metadata Record in Database (JPA will generate fileId); the file is stored under it once published
+            FileMetadata savedMetadata = fileMetadataRepository.save(new FileMetadata(originalFilename, uploadDir, "PENDING"));
             UUID fileId = savedMetadata.getFileId();
             fileStatusCache.put(fileId, "PENDING");
 
@@ -67,13 +87,16 @@ public class FileUploadService {
             response.put("sanitizedFilename", sanitizedFilename);
             response.put("headers", headers);
 
-            // Store file based on size
-            if (file.getSize() > ASYNC_THRESHOLD) {
-                storeFileAsync(file, savedMetadata);
-                response.put("message", "File upload started asynchronously.");
+            Optional<FileMetadata> stored = storeFileStreaming(source, buffer, savedMetadata);
+            if (stored.isEmpty()) {
+                response.put("message", "File upload failed. Check logs for details.");
+            } else if (!stored.get().getFileId().equals(fileId)) {
+                // Identical content was uploaded before: hand back the existing fileId and its results
+                response.put("fileId", stored.get().getFileId());
+                response.put("duplicate", true);
+                response.put("message", "Identical file already uploaded. Reusing existing file.");
             } else {
-                boolean success = storeFileSync(file, savedMetadata);
-                response.put("message", success ? "File uploaded successfully." : "File upload failed. Check logs for details.");
+                response.put("message", "File uploaded successfully.");
             }
 
         } catch (Exception e) {
@@ -85,92 +108,218 @@ public class FileUploadService {
     }
 
     /**
-     * Extracts column headers from the first row of the CSV file.
+     * Streams the upload to disk through a file channel, reusing the already-filled buffer.
+     * Data is written to "<fileId>.part" and hashed on the way through, then published via
+     * {@link #publishUpload}. Returns the stored metadata, which is an earlier upload for duplicate content.
      */
-    private List<String> extractCsvHeaders(MultipartFile file) {
-        List<String> headers = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()));
-             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
+    private Optional<FileMetadata> storeFileStreaming(ReadableByteChannel source, ByteBuffer buffer, FileMetadata metadata) {
+        Path partPath = partPath(metadata.getFileId());
+        try {
+            String contentHash = writeStreaming(source, buffer, partPath, Long.MAX_VALUE);
 
-            headers.addAll(csvParser.getHeaderMap().keySet()); // Extract headers from the first row
+            FileMetadata stored = publishUpload(metadata, partPath, contentHash);
+            logger.info("File stored successfully: {}", stored.getStoragePath());
+            return Optional.of(stored);
         } catch (Exception e) {
-            logger.error("Failed to extract CSV headers: {}", e.getMessage(), e);
+            deleteQuietly(partPath);
+            metadata.setContentHash(null); // only stored files carry their hash
+            updateStatus(metadata, "FAILED", e.getMessage());
+            logger.error("File storage failed for file {}: {}", metadata.getStoragePath(), e.getMessage(), e);
+            return Optional.empty();
         }
-        return headers;
     }
 
     /**
-     * Synchronous file storage.
+     * Publishes a fully written ".part" file under its fileId (see {@link #storagePath}) and marks it UPLOADED.
+     * If an upload with the same content hash is already stored, the new copy and its metadata row are
+     * discarded instead and the earlier upload is returned, so validation and ingestion are not repeated.
+     * Stored files are never overwritten by later uploads, so a matching hash still describes the bytes on disk.
      */
-    private boolean storeFileSync(MultipartFile file, FileMetadata metadata) {
-        try {
-            Path filePath = Path.of(metadata.getStoragePath());
-            Files.copy(file.getInputStream(), filePath, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    FileMetadata publishUpload(FileMetadata metadata, Path partPath, String contentHash) throws IOException {
+        Optional<FileMetadata> original = findStored(contentHash);
+        if (original.isPresent()) {
+            discard(metadata, partPath);
+            logger.info("File {} duplicates already uploaded file {} (hash {}), discarding new copy",
+                    metadata.getOriginalFilename(), original.get().getFileId(), contentHash);
+            return original.get();
+        }
 
+        Path storagePath = storagePath(metadata.getFileId(), Compression.detect(partPath));
+        Files.move(partPath, storagePath, StandardCopyOption.ATOMIC_MOVE);
+        metadata.setStoragePath(storagePath.toString());
+        return markUploaded(metadata, contentHash);
+    }
+
+    /**
+     * Marks a file already moved to its storage path UPLOADED with its content hash. The hash is unique, so
+     * when an identical upload was stored concurrently the insert conflicts; this copy is then discarded and
+     * the upload that won is returned.
+     */
+    FileMetadata markUploaded(FileMetadata metadata, String contentHash) {
+        metadata.setContentHash(contentHash);
+        try {
             updateStatus(metadata, "UPLOADED", null);
-            logger.info("File stored successfully: {}", metadata.getStoragePath());
-            return true;
-        } catch (Exception e) {
-            updateStatus(metadata, "FAILED", e.getMessage());
-            logger.error("File storage failed for file {}: {}", metadata.getStoragePath(), e.getMessage(), e);
-            return false;
+            return metadata;
+        } catch (DataIntegrityViolationException e) {
+            FileMetadata winner = findStored(contentHash).orElseThrow(() -> e);
+            discard(metadata, Path.of(metadata.getStoragePath()));
+            logger.info("File {} was stored concurrently as {} (hash {}), discarding new copy",
+                    metadata.getOriginalFilename(), winner.getFileId(), contentHash);
+            return winner;
         }
     }
 
     /**
-     * Asynchronous file storage (Reads file into memory before processing).
+     * The stored upload with this content hash, if its file is still on disk.
      */
-    private void storeFileAsync(MultipartFile file, FileMetadata metadata) {
-        try {
-            updateStatus(metadata, "PROCESSING", null);
-            metadata.setProcessingStartTime(Instant.now());
-            fileMetadataRepository.save(metadata);
-
-            byte[] fileBytes = file.getBytes();
-
-            CompletableFuture.runAsync(() -> {
-                try {
-                    Path filePath = Path.of(metadata.getStoragePath());
-                    Files.write(filePath, fileBytes);
-
-                    metadata.setProcessingEndTime(Instant.now());
-                    updateStatus(metadata, "UPLOADED", null);
-                    logger.info("File stored asynchronously: {}", metadata.getStoragePath());
-                } catch (Exception e) {
-                    updateStatus(metadata, "FAILED", e.getMessage());
-                    logger.error("Async file storage failed for file {}: {}", metadata.getStoragePath(), e.getMessage(), e);
+    Optional<FileMetadata> findStored(String contentHash) {
+        return fileMetadataRepository
+                .findFirstByContentHashAndUploadStatusOrderByUploadTimestampAsc(contentHash, "UPLOADED")
+                .filter(existing -> Files.exists(Path.of(existing.getStoragePath())));
+    }
+
+    /**
+     * Deletes a duplicate copy and its metadata row.
+     */
+    private void discard(FileMetadata metadata, Path path) {
+        deleteQuietly(path);
+        fileMetadataRepository.deleteById(metadata.getFileId());
+        fileStatusCache.invalidate(metadata.getFileId());
+    }
+
+    /**
+     * Where content is written while it arrives.
+     */
+    Path partPath(UUID fileId) {
+        return Path.of(uploadDir, fileId + ".part");
+    }
+
+    /**
+     * Where a published upload is stored: keyed by fileId, so uploads with the same name never overwrite
+     * each other, and named as the downstream services resolve it ("<fileId>.csv", ".csv.gz", ".csv.zst").
+     */
+    Path storagePath(UUID fileId, Compression compression) {
+        return Path.of(uploadDir, fileId + compression.extension());
+    }
+
+    /**
+     * Writes the already-filled buffer and then the rest of the source to the target file with a single
+     * fixed-size buffer, hashing the bytes on the way through. Returns the hex content hash. Fails with
+     * {@link UploadLimitExceededException} once more than maxBytes would be written.
+     */
+    static String writeStreaming(ReadableByteChannel source, ByteBuffer buffer, Path target, long maxBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MessageDigest digest = MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+            long written = 0;
+            do {
+                written += buffer.remaining();
+                if (written > maxBytes) {
+                    throw new UploadLimitExceededException("Content exceeds " + maxBytes + " bytes");
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
                 }
-            }, fileUploadExecutor);
+                buffer.clear();
+                readFully(source, buffer);
+                buffer.flip();
+            } while (buffer.hasRemaining());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(CONTENT_HASH_ALGORITHM + " not available", e);
+        }
+    }
 
-        } catch (Exception e) {
-            updateStatus(metadata, "FAILED", e.getMessage());
-            logger.error("Failed to read file into memory for async processing: {}", e.getMessage(), e);
+    /**
+     * Computes the content hash of a file already on disk (used when the bytes did not stream through us in order).
+     */
+    static String hashFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MessageDigest digest = MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+            ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(CONTENT_HASH_ALGORITHM + " not available", e);
+        }
+    }
+
+    /**
+     * Reads from the channel until the buffer is full or the stream ends.
+     */
+    static void readFully(ReadableByteChannel source, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining() && source.read(buffer) != -1) {
+            // keep filling
+        }
+    }
+
+    static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete partial file {}: {}", path, e.getMessage());
         }
     }
 
     /**
      * Updates file status in DB & cache.
      */
-    private void updateStatus(FileMetadata metadata, String status, String errorMessage) {
+    void updateStatus(FileMetadata metadata, String status, String errorMessage) {
         metadata.setUploadStatus(status);
         metadata.setErrorMessage(errorMessage);
         fileMetadataRepository.save(metadata);
-        fileStatusCache.put(metadata.getFileId(), status);
+        recordStatus(metadata);
         logger.info("Updated status for file {}: {}", metadata.getOriginalFilename(), status);
     }
 
+    /**
+     * Updates cache & subscribers for a status that has already been persisted.
+     */
+    void recordStatus(FileMetadata metadata) {
+        fileStatusCache.put(metadata.getFileId(), metadata.getUploadStatus());
+        fileStatusEvents.publish(metadata.getFileId(), statusEvent(metadata.getFileId(), metadata.getUploadStatus(), metadata.getErrorMessage()));
+    }
+
     /**
      * Retrieves file status from cache first, then from DB if needed.
      */
     public String getFileStatus(UUID fileId) {
-        return fileStatusCache.computeIfAbsent(fileId, id ->
+        return fileStatusCache.get(fileId, id ->
                 fileMetadataRepository.findByFileId(id)
                         .map(FileMetadata::getUploadStatus)
-                        .orElse("UNKNOWN")
-        );
+        ).orElse("UNKNOWN");
+    }
+
+    /**
+     * Subscribes to upload status transitions as server-sent events, starting with the current status.
+     */
+    public SseEmitter subscribeToStatus(UUID fileId) {
+        return fileStatusEvents.subscribe(fileId, () -> statusEvent(fileId, getFileStatus(fileId), null));
+    }
+
+    private Map<String, Object> statusEvent(UUID fileId, String status, String errorMessage) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("fileId", fileId);
+        event.put("status", status);
+        if (errorMessage != null) {
+            event.put("errorMessage", errorMessage);
+        }
+        return event;
+    }
+
+    /**
+     * Status cache hit/miss/eviction counters.
+     */
+    public Map<String, Object> getStatusCacheMetrics() {
+        return fileStatusCache.getMetrics();
     }
 
-    private String sanitizeFilename(String filename) {
+    static String sanitizeFilename(String filename) {
         return filename.replaceAll("\\s+", "_").replaceAll("[^a-zA-Z0-9._-]", "");
     }
 }
@@ -0,0 +1,132 @@
+package org.example.fileupload.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for uploads: caps in-flight bytes and concurrent uploads globally and per client.
+ * Requests over the limits are turned away immediately instead of queuing, so bursts degrade into fast
+ * retries rather than memory and disk exhaustion.
+ */
+@Service
+public class UploadAdmissionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadAdmissionService.class);
+
+    @Value("${file.upload.admission.max-in-flight-bytes:1073741824}")
+    private long maxInFlightBytes;
+
+    @Value("${file.upload.admission.max-concurrent-uploads:20}")
+    private int maxConcurrentUploads;
+
+    @Value("${file.upload.admission.max-in-flight-bytes-per-client:268435456}")
+    private long maxInFlightBytesPerClient;
+
+    @Value("${file.upload.admission.max-concurrent-uploads-per-client:4}")
+    private int maxConcurrentUploadsPerClient;
+
+    @Value("${file.upload.admission.retry-after-seconds:5}")
+    private int retryAfterSeconds;
+
+    private long inFlightBytes;
+    private int inFlightUploads;
+    private final Map<String, long[]> clientUsage = new HashMap<>(); // Client -> {uploads, bytes}
+
+    private final AtomicLong admittedTotal = new AtomicLong();
+    private final AtomicLong rejectedTotal = new AtomicLong();
+
+    /**
+     * Tries to admit an upload of the given size. Returns a permit that must be closed when the upload ends,
+     * or empty when the service (or this client's share of it) is saturated.
+     */
+    public Optional<Permit> tryAdmit(String clientId, long requestBytes) {
+        // A single request larger than a whole budget may still run, but only on its own
+        long bytes = Math.min(Math.max(requestBytes, 0), Math.min(maxInFlightBytes, maxInFlightBytesPerClient));
+
+        synchronized (this) {
+            long[] usage = clientUsage.computeIfAbsent(clientId, id -> new long[2]);
+            boolean admitted = inFlightUploads < maxConcurrentUploads
+                    && inFlightBytes + bytes <= maxInFlightBytes
+                    && usage[0] < maxConcurrentUploadsPerClient
+                    && usage[1] + bytes <= maxInFlightBytesPerClient;
+            if (!admitted) {
+                if (usage[0] == 0) {
+                    clientUsage.remove(clientId);
+                }
+                rejectedTotal.incrementAndGet();
+                logger.warn("Rejected upload from {} ({} bytes): {} uploads / {} bytes in flight",
+                        clientId, requestBytes, inFlightUploads, inFlightBytes);
+                return Optional.empty();
+            }
+
+            inFlightUploads++;
+            inFlightBytes += bytes;
+            usage[0]++;
+            usage[1] += bytes;
+        }
+        admittedTotal.incrementAndGet();
+        return Optional.of(new Permit(clientId, bytes));
+    }
+
+    private synchronized void release(String clientId, long bytes) {
+        inFlightUploads--;
+        inFlightBytes -= bytes;
+        long[] usage = clientUsage.get(clientId);
+        if (usage != null) {
+            usage[0]--;
+            usage[1] -= bytes;
+            if (usage[0] <= 0) {
+                clientUsage.remove(clientId);
+            }
+        }
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Current admission state, exposed for monitoring.
+     */
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("inFlightUploads", inFlightUploads);
+        metrics.put("maxConcurrentUploads", maxConcurrentUploads);
+        metrics.put("inFlightBytes", inFlightBytes);
+        metrics.put("maxInFlightBytes", maxInFlightBytes);
+        metrics.put("activeClients", clientUsage.size());
+        metrics.put("admittedTotal", admittedTotal.get());
+        metrics.put("rejectedTotal", rejectedTotal.get());
+        return metrics;
+    }
+
+    /**
+     * Reservation held for the duration of one upload request.
+     */
+    public final class Permit implements AutoCloseable {
+        private final String clientId;
+        private final long bytes;
+        private boolean released;
+
+        private Permit(String clientId, long bytes) {
+            this.clientId = clientId;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!released) {
+                released = true;
+                release(clientId, bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.fileupload.service;
+
+import java.io.IOException;
+
+/**
+ * Thrown when streamed content grows past the bytes allowed for it, e.g. a ZIP entry that decompresses to
+ * far more than its archive's size.
+ */
+public class UploadLimitExceededException extends IOException {
+
+    public UploadLimitExceededException(String message) {
+        super(message);
+    }
+}
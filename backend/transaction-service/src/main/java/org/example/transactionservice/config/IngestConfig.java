@@ -0,0 +1,41 @@
+package org.example.transactionservice.config;
+
+import org.example.common.io.IoLimits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class IngestConfig {
+
+    private static final int SHUTDOWN_SECONDS = 30;
+
+    /**
+     * Turns batches of read rows into transactions for the ingest pipeline.
+     */
+    @Bean(name = "ingestConverterExecutor")
+    public ThreadPoolTaskExecutor ingestConverterExecutor(@Value("${transaction.ingest.pipeline.converters:2}") int converters) {
+        return executor(converters, "ingest-convert-");
+    }
+
+    /**
+     * Commits converted batches, one task per batch. One thread per connection batch inserts may hold; more
+     * would only wait in IoLimits.
+     */
+    @Bean(name = "ingestWriterExecutor")
+    public ThreadPoolTaskExecutor ingestWriterExecutor(IoLimits ioLimits) {
+        return executor(ioLimits.getMaxConnections(), "ingest-write-");
+    }
+
+    // Batches already handed over are finished on shutdown, so their checkpoints are saved
+    private static ThreadPoolTaskExecutor executor(int threads, String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(SHUTDOWN_SECONDS);
+        return executor;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.transactionservice.config;
+
+import org.example.common.io.IoLimits;
+import org.example.common.io.LaneMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IoConfig {
+
+    // Files ingested at once, and batches writing to the database at once (at most the connection pool size)
+    @Bean
+    public IoLimits ioLimits(@Value("${transaction.io.max-open-files:16}") int maxOpenFiles,
+                             @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxConnections) {
+        return new IoLimits(maxOpenFiles, maxConnections);
+    }
+
+    // Queue wait and throughput per lane (the size split itself is made by data-processing-service)
+    @Bean
+    public LaneMetrics laneMetrics() {
+        return new LaneMetrics();
+    }
+}
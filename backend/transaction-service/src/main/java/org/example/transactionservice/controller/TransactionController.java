@@ -1,7 +1,10 @@
 package org.example.transactionservice.controller;
 
+import org.example.common.io.IoLimits;
+import org.example.common.io.LaneMetrics;
 import org.example.transactionservice.model.Transaction;
 import org.example.transactionservice.repository.TransactionRepository;
+import org.example.transactionservice.service.IngestPipeline;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,9 +18,16 @@ import java.util.UUID;
 public class TransactionController {
 
     private final TransactionRepository transactionRepository;
+    private final LaneMetrics laneMetrics;
+    private final IoLimits ioLimits;
+    private final IngestPipeline ingestPipeline;
 
-    public TransactionController(TransactionRepository transactionRepository) {
+    public TransactionController(TransactionRepository transactionRepository, LaneMetrics laneMetrics, IoLimits ioLimits,
+                                 IngestPipeline ingestPipeline) {
         this.transactionRepository = transactionRepository;
+        this.laneMetrics = laneMetrics;
+        this.ioLimits = ioLimits;
+        this.ingestPipeline = ingestPipeline;
     }
 
     @GetMapping
@@ -38,5 +48,30 @@ public class TransactionController {
                 .orElseGet(() -> ResponseEntity.status(400).body(Map.of("error", "Transaction not found.")));
     }
 
+    /**
+     * Per-lane queue wait time and throughput (regular and large-file lanes).
+     */
+    @GetMapping("/lanes")
+    public ResponseEntity<Map<String, Object>> getLaneMetrics() {
+        return ResponseEntity.ok(laneMetrics.getMetrics());
+    }
+
+    /**
+     * Open files and database connections in use by ingestion, and consumers waiting for either.
+     */
+    @GetMapping("/io")
+    public ResponseEntity<Map<String, Object>> getIoMetrics() {
+        return ResponseEntity.ok(ioLimits.getMetrics());
+    }
+
+    /**
+     * Rows, busy and waiting time per ingest stage (read, convert, write) and the batches queued between them.
+     * The stage with the lowest rowsPerBusySecond is the bottleneck; a reader that mostly waits has a slow writer.
+     */
+    @GetMapping("/pipeline")
+    public ResponseEntity<Map<String, Object>> getPipelineMetrics() {
+        return ResponseEntity.ok(ingestPipeline.getMetrics());
+    }
+
 
 }
@@ -1,27 +1,63 @@
 package org.example.transactionservice.listener;
 
+import org.example.common.io.IoLimits;
+import org.example.common.io.LaneMetrics;
 import org.example.transactionservice.service.TransactionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class TransactionListener {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionListener.class);
+    // Headers stamped by data-processing-service when it publishes
+    private static final String ENQUEUED_AT_HEADER = "x-enqueued-at";
+    private static final String SIZE_HEADER = "x-file-size";
+
     private final TransactionService transactionService;
+    private final LaneMetrics laneMetrics;
+    private final IoLimits ioLimits;
 
-    public TransactionListener(TransactionService transactionService) {
+    public TransactionListener(TransactionService transactionService, LaneMetrics laneMetrics, IoLimits ioLimits) {
         this.transactionService = transactionService;
+        this.laneMetrics = laneMetrics;
+        this.ioLimits = ioLimits;
+    }
+
+    @RabbitListener(queues = "transaction-processing-queue", concurrency = "${transaction.lanes.regular.concurrency:3-5}")
+    public void processFile(String fileIdStr,
+                            @Header(name = ENQUEUED_AT_HEADER, required = false) Long enqueuedAt,
+                            @Header(name = SIZE_HEADER, required = false) Long size,
+                            @Header(name = "x-death", required = false) List<Map<String, ?>> deaths) {
+        process("regular", fileIdStr, enqueuedAt, size, deaths != null);
+    }
+
+    /**
+     * Large-file lane, with its own consumers so large files never hold up the regular lane.
+     */
+    @RabbitListener(queues = "transaction-processing-queue.large", concurrency = "${transaction.lanes.large.concurrency:1}")
+    public void processLargeFile(String fileIdStr,
+                                 @Header(name = ENQUEUED_AT_HEADER, required = false) Long enqueuedAt,
+                                 @Header(name = SIZE_HEADER, required = false) Long size) {
+        process("large", fileIdStr, enqueuedAt, size, false);
     }
 
-    @RabbitListener(queues = "transaction-processing-queue", concurrency = "3-5")
-    public void processFile(String fileIdStr) {
-        UUID fileId = UUID.fromString(fileIdStr);
-        logger.info("📥 Received fileId {} for processing", fileId);
-        transactionService.processFile(fileId);
+    private void process(String lane, String fileIdStr, Long enqueuedAt, Long size, boolean aged) {
+        long startedAt = System.currentTimeMillis();
+        try {
+            UUID fileId = UUID.fromString(fileIdStr);
+            logger.info("📥 Received fileId {} for processing ({} lane{})", fileId, lane, aged ? ", aged" : "");
+            ioLimits.withFile(() -> transactionService.processFile(fileId));
+        } finally {
+            laneMetrics.record(lane, enqueuedAt != null ? enqueuedAt : 0, startedAt, System.currentTimeMillis(),
+                    size != null ? size : 0, aged);
+        }
     }
 }
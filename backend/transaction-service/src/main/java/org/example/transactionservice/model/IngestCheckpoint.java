@@ -0,0 +1,84 @@
+package org.example.transactionservice.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * How far a file's transactions have been inserted, committed in the same database transaction as each
+ * batch. A redelivered file resumes after the last committed row instead of inserting from row 1 again.
+ */
+@Entity
+@Table(name = "ingest_checkpoint")
+public class IngestCheckpoint {
+
+    public static final String CSV = "CSV";
+    public static final String ROW_FILE = "ROW_FILE";
+
+    @Id
+    private UUID fileId;
+
+    @Column(nullable = false, length = 10)
+    private String source;  // CSV or ROW_FILE: what byteOffset points into
+
+    @Column(nullable = false)
+    private long byteOffset;  // input bytes consumed through rowNumber, -1 if unknown
+
+    @Column(nullable = false)
+    private long rowNumber;  // data rows consumed (inserted or skipped)
+
+    @Column(nullable = false)
+    private long batches;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @Column(nullable = false, columnDefinition = "bigint default 0 not null")
+    private long conflicts;  // rows skipped because their transaction id was already stored
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    public IngestCheckpoint() {}
+
+    public IngestCheckpoint(UUID fileId, String source) {
+        this.fileId = fileId;
+        this.source = source;
+        this.updatedAt = Instant.now();
+    }
+
+    /**
+     * Moves the checkpoint past a batch about to be committed.
+     */
+    public void advance(long byteOffset, long rowNumber, boolean completed) {
+        this.byteOffset = byteOffset;
+        this.rowNumber = rowNumber;
+        this.completed = completed;
+        this.batches++;
+        this.updatedAt = Instant.now();
+    }
+
+    /**
+     * Counts rows of the batch being committed that were skipped as duplicates.
+     */
+    public void addConflicts(long conflicts) {
+        this.conflicts += conflicts;
+    }
+
+    /**
+     * Keeps the row number but drops the byte offset, which only applies to the previous source.
+     */
+    public void switchSource(String source) {
+        this.source = source;
+        this.byteOffset = -1;
+    }
+
+    public UUID getFileId() { return fileId; }
+    public String getSource() { return source; }
+    public long getByteOffset() { return byteOffset; }
+    public long getRowNumber() { return rowNumber; }
+    public long getBatches() { return batches; }
+    public boolean isCompleted() { return completed; }
+    public long getConflicts() { return conflicts; }
+    public Instant getUpdatedAt() { return updatedAt; }
+}
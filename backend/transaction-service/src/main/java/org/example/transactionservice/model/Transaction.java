@@ -25,6 +25,9 @@ public class Transaction {
     @Column(nullable = false)
     private BigDecimal amount;  //  Updated field (Renamed from `grossSalesAmount`)
 
+    @Column
+    private Long amountMinorUnits;  //  Amount in minor units (amount × 10^scale), when enabled
+
     @Column(nullable = false)
     private String customerName;  //  New column
 
@@ -67,6 +70,14 @@ public class Transaction {
         return amount;
     }
 
+    public Long getAmountMinorUnits() {
+        return amountMinorUnits;
+    }
+
+    public void setAmountMinorUnits(Long amountMinorUnits) {
+        this.amountMinorUnits = amountMinorUnits;
+    }
+
     public String getCustomerName() {
         return customerName;
     }
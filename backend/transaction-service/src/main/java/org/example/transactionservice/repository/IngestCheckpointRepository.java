@@ -0,0 +1,11 @@
+package org.example.transactionservice.repository;
+
+import org.example.transactionservice.model.IngestCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface IngestCheckpointRepository extends JpaRepository<IngestCheckpoint, UUID> {
+}
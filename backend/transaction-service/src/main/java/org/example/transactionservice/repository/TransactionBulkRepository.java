@@ -0,0 +1,18 @@
+package org.example.transactionservice.repository;
+
+import org.example.transactionservice.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Bulk insert of transactions over the PostgreSQL COPY protocol.
+ */
+public interface TransactionBulkRepository {
+
+    /**
+     * Streams the batch into a staging table and merges it into transactions within the caller's database
+     * transaction. Rows whose transaction id already exists, or repeats an earlier row of the batch, are
+     * skipped instead of failing the batch; their transaction ids are returned.
+     */
+    List<String> copyInsert(List<Transaction> transactions);
+}
@@ -0,0 +1,134 @@
+package org.example.transactionservice.repository;
+
+import org.example.transactionservice.model.Transaction;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class TransactionBulkRepositoryImpl implements TransactionBulkRepository {
+
+    private static final String COLUMNS = """
+    id, file_id, transaction_id, transaction_date, amount, amount_minor_units, customer_name, payment_method, \
+    shipping_address_city""";
+    // Per connection; emptied by every commit, so it never holds more than the current batch. batch_position is
+    // the row's index in the batch, so the first of repeated transaction ids is the one kept
+    private static final String CREATE_STAGING = """
+    CREATE TEMPORARY TABLE IF NOT EXISTS transactions_staging 
+    (LIKE transactions INCLUDING DEFAULTS, batch_position integer NOT NULL) 
+    ON COMMIT DELETE ROWS""";
+    private static final String COPY = "COPY transactions_staging (" + COLUMNS + ", batch_position) FROM STDIN WITH (FORMAT csv)";
+    private static final String MERGE = """
+    INSERT INTO transactions (%s) 
+    SELECT %s FROM transactions_staging ORDER BY batch_position 
+    ON CONFLICT (transaction_id) DO NOTHING""".formatted(COLUMNS, COLUMNS);
+    // Staged rows whose id did not make it into transactions lost to an existing (or earlier staged) row
+    private static final String CONFLICTS = """
+    SELECT s.transaction_id FROM transactions_staging s 
+    WHERE NOT EXISTS (SELECT 1 FROM transactions t WHERE t.id = s.id)""";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionBulkRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<String> copyInsert(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+                copy(connection.unwrap(PGConnection.class), transactions);
+                int inserted = statement.executeUpdate(MERGE);
+                List<String> conflicts = new ArrayList<>(transactions.size() - inserted);
+                if (inserted < transactions.size()) {
+                    try (ResultSet rows = statement.executeQuery(CONFLICTS)) {
+                        while (rows.next()) {
+                            conflicts.add(rows.getString(1));
+                        }
+                    }
+                }
+                return conflicts;
+            }
+        });
+    }
+
+    private static void copy(PGConnection connection, List<Transaction> transactions) throws SQLException {
+        CopyIn copy = connection.getCopyAPI().copyIn(COPY);
+        try {
+            StringBuilder rows = new StringBuilder(COPY_BUFFER_SIZE);
+            for (int i = 0; i < transactions.size(); i++) {
+                appendRow(rows, transactions.get(i), i);
+                if (rows.length() >= COPY_BUFFER_SIZE) {
+                    write(copy, rows);
+                }
+            }
+            write(copy, rows);
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private static void write(CopyIn copy, StringBuilder rows) throws SQLException {
+        byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        rows.setLength(0);
+    }
+
+    /**
+     * One CSV line; ids are generated here rather than by Hibernate. An empty unquoted field is NULL.
+     */
+    private static void appendRow(StringBuilder out, Transaction transaction, int position) {
+        out.append(UUID.randomUUID()).append(',')
+                .append(transaction.getFileId()).append(',');
+        appendText(out, transaction.getTransactionId());
+        out.append(',').append(transaction.getTransactionDate())
+                .append(',').append(transaction.getAmount().toPlainString())
+                .append(',');
+        if (transaction.getAmountMinorUnits() != null) {
+            out.append(transaction.getAmountMinorUnits().longValue());
+        }
+        out.append(',');
+        appendText(out, transaction.getCustomerName());
+        out.append(',');
+        appendText(out, transaction.getPaymentMethod());
+        out.append(',');
+        appendText(out, transaction.getShippingAddressCity());
+        out.append(',').append(position).append('\n');
+    }
+
+    /**
+     * A quoted field, so an empty string stays distinct from NULL. Null is written as NULL, which the NOT NULL
+     * columns then reject with a constraint violation.
+     */
+    private static void appendText(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
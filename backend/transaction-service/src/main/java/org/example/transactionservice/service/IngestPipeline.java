@@ -0,0 +1,242 @@
+package org.example.transactionservice.service;
+
+import org.example.transactionservice.model.Transaction;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Overlaps the stages of inserting a file. The listener thread reads batches of rows, converter workers turn
+ * them into transactions, and writer workers commit the batches in file order, so the next batch is parsed
+ * while the previous one is in flight to the database. Each batch is its own writer task, chained after the
+ * file's previous one, so files interleave on the shared writer pool instead of each holding a writer until
+ * it ends. At most queue-depth batches of a file are between reader and database (2: one being written, one
+ * ready), which bounds memory and pushes back on the reader.
+ */
+@Component
+public class IngestPipeline {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final boolean enabled;
+    private final int queueDepth;
+    private final Executor converters;
+    private final Executor writers;
+
+    private final long startedAt = System.currentTimeMillis();
+    private final Stage read = new Stage();
+    private final Stage convert = new Stage();
+    private final Stage write = new Stage();
+    private final AtomicInteger activeFiles = new AtomicInteger();
+    private final AtomicInteger converting = new AtomicInteger();  // batches submitted, not yet converted
+    private final AtomicInteger queued = new AtomicInteger();      // batches waiting for their turn to be written
+
+    public IngestPipeline(@Value("${transaction.ingest.pipeline.enabled:true}") boolean enabled,
+                          @Value("${transaction.ingest.pipeline.queue-depth:2}") int queueDepth,
+                          @Qualifier("ingestConverterExecutor") Executor converters,
+                          @Qualifier("ingestWriterExecutor") Executor writers) {
+        this.enabled = enabled;
+        this.queueDepth = queueDepth;
+        this.converters = converters;
+        this.writers = writers;
+    }
+
+    /**
+     * Starts the pipeline of one file. The converter returns null for rows that are skipped; the batch writer
+     * receives the batches in submission order, each with the position it advances the file's checkpoint to.
+     */
+    public <R> Run<R> start(Function<R, Transaction> converter, BatchWriter writer) {
+        return new Run<>(converter, writer);
+    }
+
+    public Map<String, Object> getMetrics() {
+        double uptimeSeconds = Math.max((System.currentTimeMillis() - startedAt) / 1000.0, 1);
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("activeFiles", activeFiles.get());
+        metrics.put("batchesConverting", converting.get());
+        metrics.put("batchesQueuedForWrite", queued.get());
+        metrics.put("read", read.metrics(uptimeSeconds));
+        metrics.put("convert", convert.metrics(uptimeSeconds));
+        metrics.put("write", write.metrics(uptimeSeconds));
+        return metrics;
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+
+    /**
+     * Commits one converted batch and moves the checkpoint to the given position.
+     */
+    public interface BatchWriter {
+        void write(List<Transaction> batch, long byteOffset, long rowNumber, boolean completed);
+    }
+
+    /**
+     * The pipeline of one file. {@link #submit}, {@link #finish} and {@link #close} are called from the reading
+     * thread only.
+     */
+    public final class Run<R> implements AutoCloseable {
+        private final Function<R, Transaction> converter;
+        private final BatchWriter writer;
+        private final Semaphore slots = new Semaphore(queueDepth);  // batches submitted and not yet written
+        private final AtomicInteger waiting = new AtomicInteger();   // of those, not yet up for writing
+        private CompletableFuture<Void> written = CompletableFuture.completedFuture(null);
+        private boolean closed;
+        private long readSince = System.nanoTime();
+
+        private Run(Function<R, Transaction> converter, BatchWriter writer) {
+            this.converter = converter;
+            this.writer = writer;
+            activeFiles.incrementAndGet();
+        }
+
+        /**
+         * Hands over a batch of read rows; blocks while queue-depth batches are still unwritten. The batch that
+         * marks the file completed must be the last one.
+         */
+        public void submit(List<R> rows, long byteOffset, long rowNumber, boolean completed) {
+            read.record(rows.size(), System.nanoTime() - readSince, 0);
+            if (!enabled) {
+                List<Transaction> transactions = convert(rows);
+                long writeStart = System.nanoTime();
+                writer.write(transactions, byteOffset, rowNumber, completed);
+                write.record(transactions.size(), System.nanoTime() - writeStart, 0);
+                readSince = System.nanoTime();
+                return;
+            }
+
+            long waitStart = System.nanoTime();
+            acquireSlot();
+            converting.incrementAndGet();
+            CompletableFuture<List<Transaction>> transactions = CompletableFuture.supplyAsync(() -> convert(rows), converters)
+                    .whenComplete((result, e) -> converting.decrementAndGet());
+            queued.incrementAndGet();
+            waiting.incrementAndGet();
+            // Written once the previous batch is and this one is converted; a failure skips every later batch
+            written = written.thenCompose(previous -> transactions)
+                    .thenApply(batch -> {
+                        queued.decrementAndGet();
+                        waiting.decrementAndGet();
+                        return new Ready(batch, System.nanoTime());
+                    })
+                    .thenAcceptAsync(ready -> write(ready, byteOffset, rowNumber, completed), writers)
+                    .whenComplete((result, e) -> slots.release());
+            readSince = System.nanoTime();
+            read.record(0, 0, readSince - waitStart);
+        }
+
+        /**
+         * Waits until every submitted batch is written, rethrowing the first failure.
+         */
+        public void finish() {
+            try {
+                written.join();
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+        }
+
+        /**
+         * Lets the writers commit what was already submitted, then waits for them.
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                written.join();
+            } catch (CompletionException | CancellationException e) {
+                // reported by finish()
+            } finally {
+                queued.addAndGet(-waiting.getAndSet(0));  // skipped after a failure
+                activeFiles.decrementAndGet();
+            }
+        }
+
+        /**
+         * Waits for a batch of the file to be written when queue-depth are unwritten, failing fast once one
+         * of them has failed.
+         */
+        private void acquireSlot() {
+            try {
+                do {
+                    if (written.isCompletedExceptionally()) {
+                        finish();  // rethrows the failure
+                    }
+                } while (!slots.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing a batch", e);
+            }
+        }
+
+        private List<Transaction> convert(List<R> rows) {
+            long start = System.nanoTime();
+            List<Transaction> transactions = new ArrayList<>(rows.size());
+            for (R row : rows) {
+                Transaction transaction = converter.apply(row);
+                if (transaction != null) {
+                    transactions.add(transaction);
+                }
+            }
+            convert.record(transactions.size(), System.nanoTime() - start, 0);
+            return transactions;
+        }
+
+        private void write(Ready ready, long byteOffset, long rowNumber, boolean completed) {
+            long writeStart = System.nanoTime();
+            writer.write(ready.transactions(), byteOffset, rowNumber, completed);
+            write.record(ready.transactions().size(), System.nanoTime() - writeStart, writeStart - ready.since());
+        }
+    }
+
+    /**
+     * A converted batch whose previous batch is written, and since when.
+     */
+    private record Ready(List<Transaction> transactions, long since) {}
+
+    /**
+     * Rows through a stage, time spent working, and time spent waiting (the reader for a batch of its file to
+     * be written, the writer for a free writer thread).
+     */
+    private static final class Stage {
+        final AtomicLong batches = new AtomicLong();
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong busyNanos = new AtomicLong();
+        final AtomicLong waitNanos = new AtomicLong();
+
+        void record(int rowCount, long busy, long wait) {
+            if (busy > 0) {
+                batches.incrementAndGet();
+                rows.addAndGet(rowCount);
+                busyNanos.addAndGet(busy);
+            }
+            waitNanos.addAndGet(wait);
+        }
+
+        Map<String, Object> metrics(double uptimeSeconds) {
+            long busyMillis = busyNanos.get() / 1_000_000;
+            Map<String, Object> stage = new LinkedHashMap<>();
+            stage.put("batches", batches.get());
+            stage.put("rows", rows.get());
+            stage.put("busyMillis", busyMillis);
+            stage.put("waitMillis", waitNanos.get() / 1_000_000);
+            stage.put("rowsPerSecond", rows.get() / uptimeSeconds);
+            stage.put("rowsPerBusySecond", busyMillis > 0 ? rows.get() * 1000.0 / busyMillis : 0);
+            return stage;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.transactionservice.service;
+
+import org.example.common.csv.CsvRow;
+import org.example.common.csv.FieldDecoders;
+import org.example.transactionservice.model.Transaction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * A file's column mapping compiled into an index-based binder: the CSV positions of the bound columns, and
+ * for each the setter of its target column. Binding a row is one array pass with no name lookups or string
+ * comparisons. Target columns are registered in {@link #TARGETS}; adding one does not touch the row loop.
+ */
+public final class RowBinder {
+
+    /**
+     * Setter per transactions column that a mapping can target. Mapped columns without one are not stored.
+     */
+    private static final Map<String, BiConsumer<Fields, String>> TARGETS = Map.of(
+            "transaction_id", (fields, value) -> fields.transactionId = value,
+            "transaction_date", (fields, value) -> fields.transactionDate = parseDate(value),
+            "amount", Fields::setAmount,
+            "customer_name", (fields, value) -> fields.customerName = value,
+            "payment_method", (fields, value) -> fields.paymentMethod = value,
+            "shipping_address_city", (fields, value) -> fields.shippingAddressCity = value);
+
+    private final int[] columnIndexes;
+    private final BiConsumer<Fields, String>[] setters;
+    private final int minorUnitScale;
+    private final boolean storeMinorUnits;
+
+    private RowBinder(int[] columnIndexes, BiConsumer<Fields, String>[] setters, int minorUnitScale, boolean storeMinorUnits) {
+        this.columnIndexes = columnIndexes;
+        this.setters = setters;
+        this.minorUnitScale = minorUnitScale;
+        this.storeMinorUnits = storeMinorUnits;
+    }
+
+    /**
+     * Resolves every mapped CSV header against the file's header and keeps the ones with a target setter.
+     * Amounts are also carried as minor units at the given scale when {@code storeMinorUnits} is set.
+     */
+    @SuppressWarnings("unchecked")
+    public static RowBinder compile(List<String> header, Map<String, String> mappings, int minorUnitScale,
+                                    boolean storeMinorUnits) {
+        List<Integer> indexes = new ArrayList<>(mappings.size());
+        List<BiConsumer<Fields, String>> setters = new ArrayList<>(mappings.size());
+        for (Map.Entry<String, String> entry : mappings.entrySet()) {
+            int index = header.indexOf(entry.getKey());
+            if (index < 0) {
+                throw new IllegalArgumentException("Mapping for " + entry.getKey() + " not found, expected one of " + header);
+            }
+            BiConsumer<Fields, String> setter = TARGETS.get(entry.getValue());
+            if (setter != null) {
+                indexes.add(index);
+                setters.add(setter);
+            }
+        }
+        return new RowBinder(indexes.stream().mapToInt(Integer::intValue).toArray(),
+                setters.toArray(BiConsumer[]::new), minorUnitScale, storeMinorUnits);
+    }
+
+    /**
+     * Copies the bound values out of the cursor's current row, in binding order.
+     */
+    public String[] read(CsvRow row) {
+        String[] values = new String[columnIndexes.length];
+        for (int i = 0; i < columnIndexes.length; i++) {
+            if (columnIndexes[i] >= row.size()) {
+                throw new IllegalArgumentException("Record " + row.recordNumber() + " has only " + row.size() + " values");
+            }
+            values[i] = row.get(columnIndexes[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Types the values returned by {@link #read}; null when a required transaction column is not mapped.
+     */
+    public Transaction bind(UUID fileId, String[] values) {
+        Fields fields = new Fields(minorUnitScale);
+        for (int i = 0; i < setters.length; i++) {
+            setters[i].accept(fields, values[i]);
+        }
+        if (fields.transactionId == null || fields.transactionDate == null || fields.amount == null
+                || fields.customerName == null || fields.paymentMethod == null || fields.shippingAddressCity == null) {
+            return null;
+        }
+        Transaction transaction = new Transaction(fileId, fields.transactionId, fields.transactionDate, fields.amount,
+                fields.customerName, fields.paymentMethod, fields.shippingAddressCity);
+        if (storeMinorUnits && fields.amountMinorUnits != FieldDecoders.INVALID) {
+            transaction.setAmountMinorUnits(fields.amountMinorUnits);  // not for amounts finer than the minor unit
+        }
+        return transaction;
+    }
+
+    /**
+     * LocalDate.parse semantics; plain yyyy-MM-dd values are decoded without building parse objects.
+     */
+    private static LocalDate parseDate(String value) {
+        long epochDay = FieldDecoders.isoEpochDay(value);
+        return epochDay != FieldDecoders.INVALID ? LocalDate.ofEpochDay(epochDay) : LocalDate.parse(value);
+    }
+
+    /**
+     * The typed values of one row.
+     */
+    private static final class Fields {
+        final int minorUnitScale;
+        String transactionId;
+        LocalDate transactionDate;
+        BigDecimal amount;
+        long amountMinorUnits = FieldDecoders.INVALID;
+        String customerName;
+        String paymentMethod;
+        String shippingAddressCity;
+
+        Fields(int minorUnitScale) {
+            this.minorUnitScale = minorUnitScale;
+        }
+
+        void setAmount(String value) {
+            long unscaled = FieldDecoders.unscaled(value);
+            if (unscaled != FieldDecoders.INVALID) {
+                int scale = FieldDecoders.scale(value);
+                amount = BigDecimal.valueOf(unscaled, scale);
+                amountMinorUnits = FieldDecoders.rescale(unscaled, scale, minorUnitScale);
+                return;
+            }
+            amount = new BigDecimal(value);  // exponents, very long values
+            try {
+                amountMinorUnits = amount.setScale(minorUnitScale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+            } catch (ArithmeticException e) {
+                amountMinorUnits = FieldDecoders.INVALID;
+            }
+        }
+    }
+}
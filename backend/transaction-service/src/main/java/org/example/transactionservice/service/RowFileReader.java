@@ -0,0 +1,133 @@
+package org.example.transactionservice.service;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Reads the typed row file the data-processing service writes while validating (its RowFileWriter defines
+ * the layout). Values are already decoded: dates are epoch days, amounts unscaled longs with a scale, and
+ * repeated strings come from the footer dictionary, so no CSV parsing or text conversion happens here.
+ */
+public final class RowFileReader implements Closeable {
+
+    public static final int MAGIC = 0x54585231; // "TXR1"
+    private static final int TRAILER_SIZE = Long.BYTES * 2 + Integer.BYTES;
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final DataInputStream in;
+    private final String[] dictionary;
+    private final long rowCount;
+    private long rowsRead;
+    private long position;  // bytes of row data read
+
+    private RowFileReader(DataInputStream in, String[] dictionary, long rowCount) {
+        this.in = in;
+        this.dictionary = dictionary;
+        this.rowCount = rowCount;
+    }
+
+    public static RowFileReader open(Path path) throws IOException {
+        String[] dictionary;
+        long rowCount;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < TRAILER_SIZE) {
+                throw new IOException("Row file " + path + " is truncated.");
+            }
+            ByteBuffer trailer = readFully(channel, size - TRAILER_SIZE, TRAILER_SIZE);
+            rowCount = trailer.getLong();
+            long footerOffset = trailer.getLong();
+            if (trailer.getInt() != MAGIC) {
+                throw new IOException("Row file " + path + " has an unknown format.");
+            }
+
+            ByteBuffer footer = readFully(channel, footerOffset, Math.toIntExact(size - TRAILER_SIZE - footerOffset));
+            dictionary = new String[footer.getInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                byte[] bytes = new byte[footer.getInt()];
+                footer.get(bytes);
+                dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+        return new RowFileReader(in, dictionary, rowCount);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Row file ended early.");
+            }
+        }
+        return buffer.flip();
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Bytes of row data read so far; {@link #skipTo} resumes a new reader there.
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * Skips to a position returned by {@link #position()} after {@code rows} rows, without decoding them.
+     */
+    public void skipTo(long position, long rows) throws IOException {
+        in.skipNBytes(position - this.position);
+        this.position = position;
+        this.rowsRead = rows;
+    }
+
+    /**
+     * Reads the next row into the holder; returns false after the last row.
+     */
+    public boolean next(Row row) throws IOException {
+        if (rowsRead == rowCount) {
+            return false;
+        }
+        row.transactionDate = LocalDate.ofEpochDay(in.readInt());
+        row.amountUnscaled = in.readLong();
+        row.amountScale = in.readByte();
+        row.amount = BigDecimal.valueOf(row.amountUnscaled, row.amountScale);
+        byte[] id = new byte[in.readInt()];
+        in.readFully(id);
+        row.transactionId = new String(id, StandardCharsets.UTF_8);
+        row.customerName = dictionary[in.readInt()];
+        row.paymentMethod = dictionary[in.readInt()];
+        row.shippingAddressCity = dictionary[in.readInt()];
+        rowsRead++;
+        position += Integer.BYTES * 5 + Long.BYTES + 1 + id.length;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Decoded values of one row, reused across calls to {@link #next(Row)}.
+     */
+    public static final class Row {
+        public String transactionId;
+        public LocalDate transactionDate;
+        public BigDecimal amount;
+        public long amountUnscaled;  // amount = amountUnscaled × 10^-amountScale
+        public int amountScale;
+        public String customerName;
+        public String paymentMethod;
+        public String shippingAddressCity;
+    }
+}
@@ -1,22 +1,26 @@
 package org.example.transactionservice.service;
 
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import org.example.common.csv.CsvCursor;
+import org.example.common.csv.CsvFiles;
+import org.example.common.csv.CsvParserType;
+import org.example.common.csv.FieldDecoders;
+import org.example.common.io.IoLimits;
 import org.example.transactionservice.model.ColumnMapping;
+import org.example.transactionservice.model.IngestCheckpoint;
 import org.example.transactionservice.model.Transaction;
 import org.example.transactionservice.repository.ColumnMappingRepository;
+import org.example.transactionservice.repository.IngestCheckpointRepository;
 import org.example.transactionservice.repository.TransactionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.LocalDate;
 import java.util.*;
 
 @Service
@@ -25,24 +29,46 @@ public class TransactionService {
     private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
     private final TransactionRepository transactionRepository;
     private final ColumnMappingRepository columnMappingRepository;
+    private final IngestCheckpointRepository ingestCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IoLimits ioLimits;
+    private final IngestPipeline ingestPipeline;
     @Value("${file.upload-dir}")
     private String uploadDir = "uploads/";
+    @Value("${transaction.csv.parser:tokenizer}")
+    private CsvParserType parserType = CsvParserType.TOKENIZER;
+    @Value("${transaction.ingest.copy.enabled:true}")
+    private boolean copyEnabled;
+    @Value("${transaction.ingest.conflict-sample-size:10}")
+    private int conflictSampleSize = 10;
+    @Value("${transaction.amount.minor-units.enabled:false}")
+    private boolean storeMinorUnits;
+    @Value("${transaction.amount.minor-units.scale:2}")
+    private int minorUnitScale = 2;
     private static final int BATCH_SIZE = 1000;
 
-    public TransactionService(TransactionRepository transactionRepository, ColumnMappingRepository columnMappingRepository) {
+    public TransactionService(TransactionRepository transactionRepository, ColumnMappingRepository columnMappingRepository,
+                              IngestCheckpointRepository ingestCheckpointRepository, TransactionTemplate transactionTemplate,
+                              IoLimits ioLimits, IngestPipeline ingestPipeline) {
         this.transactionRepository = transactionRepository;
         this.columnMappingRepository = columnMappingRepository;
+        this.ingestCheckpointRepository = ingestCheckpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ioLimits = ioLimits;
+        this.ingestPipeline = ingestPipeline;
     }
 
     /**
-     * Processes a file by retrieving mappings and inserting transactions in batches.
+     * Processes a file by retrieving mappings and inserting transactions in batches through the ingest
+     * pipeline. Each batch commits together with the file's checkpoint, so a redelivered file resumes after
+     * its last committed batch.
      */
     public void processFile(UUID fileId) {
         try {
             logger.info("📥 Processing transactions for file {}", fileId);
 
             //  Retrieve column mappings dynamically from the database
-            Optional<ColumnMapping> mappingOpt = columnMappingRepository.findByFileId(fileId);
+            Optional<ColumnMapping> mappingOpt = ioLimits.withConnection(() -> columnMappingRepository.findByFileId(fileId));
             if (mappingOpt.isEmpty()) {
                 logger.error(" No column mapping found for file {}", fileId);
                 return;
@@ -50,63 +76,71 @@ public class TransactionService {
             ColumnMapping mapping = mappingOpt.get();
             Map<String, String> columnMappings = mapping.getMappings();  //  Dynamically retrieved mappings
 
-            Path filePath = Path.of(uploadDir, fileId + ".csv");
-            List<Transaction> transactionBatch = new ArrayList<>();
-
-            try (BufferedReader reader = new BufferedReader(new FileReader(filePath.toFile()));
-                 CSVParser parser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
-
-                for (CSVRecord record : parser) {
-                    String transactionId = null;
-                    LocalDate transactionDate = null;
-                    BigDecimal amount = null;
-                    String customerName = null;
-                    String paymentMethod = null;
-                    String shippingAddressCity = null;
-
-                    //  Iterate through columnMappings dynamically
-                    for (Map.Entry<String, String> entry : columnMappings.entrySet()) {
-                        String csvHeader = entry.getKey();   //  CSV column name
-                        String dbColumn = entry.getValue();  //  Database column name
-
-                        String value = record.get(csvHeader);  //  Extract value from CSV
-
-                        //  Dynamically map values to Transaction fields
-                        if ("transaction_id".equals(dbColumn)) {
-                            transactionId = value;
-                        } else if ("transaction_date".equals(dbColumn)) {
-                            transactionDate = LocalDate.parse(value);
-                        } else if ("amount".equals(dbColumn)) {
-                            amount = new BigDecimal(value);
-                        } else if ("customer_name".equals(dbColumn)) {
-                            customerName = value;
-                        } else if ("payment_method".equals(dbColumn)) {
-                            paymentMethod = value;
-                        } else if ("shipping_address_city".equals(dbColumn)) {
-                            shippingAddressCity = value;
-                        }
-                    }
+            Optional<IngestCheckpoint> previous = ioLimits.withConnection(() -> ingestCheckpointRepository.findById(fileId));
+            if (previous.isPresent() && previous.get().isCompleted()) {
+                // A crash after the final checkpoint commit can leave the row file behind
+                Files.deleteIfExists(CsvFiles.rowFile(uploadDir, fileId));
+                logger.info(" Transactions of file {} were already inserted, skipping", fileId);
+                return;
+            }
 
-                    //  Ensure required fields are not null
-                    if (transactionId != null && transactionDate != null && amount != null &&
-                            customerName != null && paymentMethod != null && shippingAddressCity != null) {
-                        Transaction transaction = new Transaction(
-                                fileId, transactionId, transactionDate, amount, customerName, paymentMethod, shippingAddressCity
-                        );
-                        transactionBatch.add(transaction);
-                    }
+            // Validation normally leaves already-typed rows behind; the CSV is only parsed again without them
+            Path rowFile = CsvFiles.rowFile(uploadDir, fileId);
+            if (Files.exists(rowFile)) {
+                ingestRowFile(fileId, rowFile, checkpoint(fileId, previous, IngestCheckpoint.ROW_FILE));
+                return;
+            }
 
-                    if (transactionBatch.size() >= BATCH_SIZE) {
-                        transactionRepository.saveAll(transactionBatch);
-                        logger.info(" Inserted batch of {} transactions for file {}", BATCH_SIZE, fileId);
-                        transactionBatch.clear();
-                    }
+            Path filePath = CsvFiles.resolve(uploadDir, fileId);
+            IngestCheckpoint checkpoint = checkpoint(fileId, previous, IngestCheckpoint.CSV);
+            long resumeAfter = checkpoint.getRowNumber();
+
+            // Resume after the last committed row: seek to its byte offset when known, else skip that many records
+            List<String> header = null;
+            long offsetBase = 0;
+            long rowBase = 0;
+            if (resumeAfter > 0 && checkpoint.getByteOffset() >= 0) {
+                try (CsvCursor headerRow = parserType.open(CsvFiles.openStream(filePath))) {
+                    header = headerRow.readHeader();
                 }
+                offsetBase = checkpoint.getByteOffset();
+                rowBase = resumeAfter;
             }
+            InputStream in = CsvFiles.openStream(filePath);
+            in.skipNBytes(offsetBase);
+
+            try (CsvCursor rows = parserType.open(in)) {
+                if (header == null) {
+                    header = rows.readHeader();
+                    while (rows.recordNumber() < resumeAfter && rows.next()) {
+                        // already inserted
+                    }
+                }
+                if (resumeAfter > 0) {
+                    logger.info(" Resuming file {} after row {}", fileId, resumeAfter);
+                }
 
-            if (!transactionBatch.isEmpty()) {
-                transactionRepository.saveAll(transactionBatch);
-                logger.info(" Inserted final batch of {} transactions for file {}", transactionBatch.size(), fileId);
+                //  Compile the mapping once: resolved column positions and a setter per target column
+                RowBinder binder = RowBinder.compile(header, columnMappings, minorUnitScale, storeMinorUnits);
+
+                // Only the bound values are copied out of the cursor here; converters type them off this thread
+                try (IngestPipeline.Run<String[]> pipeline = ingestPipeline.start(
+                        values -> binder.bind(fileId, values), batchWriter(fileId, checkpoint))) {
+                    List<String[]> batch = new ArrayList<>(BATCH_SIZE);
+                    while (rows.next()) {
+                        batch.add(binder.read(rows));
+
+                        if (batch.size() >= BATCH_SIZE) {
+                            long offset = rows.byteOffset() >= 0 ? offsetBase + rows.byteOffset() : -1;
+                            pipeline.submit(batch, offset, rowBase + rows.recordNumber(), false);
+                            batch = new ArrayList<>(BATCH_SIZE);
+                        }
+                    }
+
+                    long offset = rows.byteOffset() >= 0 ? offsetBase + rows.byteOffset() : -1;
+                    pipeline.submit(batch, offset, Math.max(rowBase + rows.recordNumber(), resumeAfter), true);
+                    pipeline.finish();
+                }
             }
 
             logger.info(" Successfully processed all transactions for file {}", fileId);
@@ -116,5 +150,104 @@ public class TransactionService {
         }
     }
 
+    /**
+     * Inserts the rows of a validated file from its typed row file, then removes the row file. The rows are
+     * already typed, so the pipeline only overlaps reading with writing.
+     */
+    private void ingestRowFile(UUID fileId, Path rowFile, IngestCheckpoint checkpoint) throws IOException {
+        long rowCount;
+        long resumeAfter = checkpoint.getRowNumber();
+        try (RowFileReader reader = RowFileReader.open(rowFile);
+             IngestPipeline.Run<Transaction> pipeline = ingestPipeline.start(transaction -> transaction,
+                     batchWriter(fileId, checkpoint))) {
+            rowCount = reader.getRowCount();
+            RowFileReader.Row row = new RowFileReader.Row();
+            long rowNumber = 0;
+            if (resumeAfter > 0) {
+                logger.info(" Resuming file {} after row {}", fileId, resumeAfter);
+                if (checkpoint.getByteOffset() >= 0) {
+                    reader.skipTo(checkpoint.getByteOffset(), resumeAfter);
+                    rowNumber = resumeAfter;
+                }
+            }
+            List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+            while (reader.next(row)) {
+                if (++rowNumber <= resumeAfter) {
+                    continue;  // already inserted, from a CSV checkpoint
+                }
+                Transaction transaction = new Transaction(fileId, row.transactionId, row.transactionDate, row.amount,
+                        row.customerName, row.paymentMethod, row.shippingAddressCity);
+                setMinorUnits(transaction, FieldDecoders.rescale(row.amountUnscaled, row.amountScale, minorUnitScale));
+                batch.add(transaction);
+
+                if (batch.size() >= BATCH_SIZE) {
+                    pipeline.submit(batch, reader.position(), rowNumber, false);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            pipeline.submit(batch, reader.position(), Math.max(rowNumber, resumeAfter), true);
+            pipeline.finish();
+        }
+
+        Files.deleteIfExists(rowFile);
+        logger.info(" Successfully processed all {} transactions for file {} from its row file", rowCount, fileId);
+    }
+
+    /**
+     * Moves the checkpoint past each batch and commits the two together.
+     */
+    private IngestPipeline.BatchWriter batchWriter(UUID fileId, IngestCheckpoint checkpoint) {
+        return (transactions, byteOffset, rowNumber, completed) -> {
+            checkpoint.advance(byteOffset, rowNumber, completed);
+            commitBatch(transactions, checkpoint);
+            if (!transactions.isEmpty()) {
+                logger.info(" Inserted {}batch of {} transactions for file {}", completed ? "final " : "", transactions.size(), fileId);
+            }
+        };
+    }
 
+    /**
+     * The file's checkpoint for reading from the given source. Byte offsets only carry over within the same
+     * source; from the other one the resume point is the row number (both list the same rows in file order).
+     */
+    private static IngestCheckpoint checkpoint(UUID fileId, Optional<IngestCheckpoint> previous, String source) {
+        if (previous.isEmpty()) {
+            return new IngestCheckpoint(fileId, source);
+        }
+        IngestCheckpoint checkpoint = previous.get();
+        if (!source.equals(checkpoint.getSource())) {
+            checkpoint.switchSource(source);
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Inserts the batch and moves the checkpoint past it in one database transaction. With COPY, rows whose
+     * transaction id is already stored are skipped and reported; through JPA they fail the batch.
+     */
+    private void commitBatch(List<Transaction> transactionBatch, IngestCheckpoint checkpoint) {
+        ioLimits.withConnection(() -> transactionTemplate.executeWithoutResult(status -> {
+            if (copyEnabled) {
+                List<String> conflicts = transactionRepository.copyInsert(transactionBatch);
+                if (!conflicts.isEmpty()) {
+                    checkpoint.addConflicts(conflicts.size());
+                    logger.warn(" Skipped {} transactions of file {} with existing transaction ids, e.g. {}",
+                            conflicts.size(), checkpoint.getFileId(),
+                            conflicts.subList(0, Math.min(conflicts.size(), conflictSampleSize)));
+                }
+            } else {
+                transactionRepository.saveAll(transactionBatch);
+            }
+            ingestCheckpointRepository.save(checkpoint);
+        }));
+    }
+
+    /**
+     * Carries the amount as minor units too when enabled; amounts finer than the minor unit are left without.
+     */
+    private void setMinorUnits(Transaction transaction, long amountMinorUnits) {
+        if (storeMinorUnits && amountMinorUnits != FieldDecoders.INVALID) {
+            transaction.setAmountMinorUnits(amountMinorUnits);
+        }
+    }
 }
@@ -0,0 +1,182 @@
+package org.example.transactionservice.listener;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.common.io.IoLimits;
+import org.example.transactionservice.model.ColumnMapping;
+import org.example.transactionservice.repository.ColumnMappingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many small files through the real listener path: {@link TransactionListener} reads each file, looks up its
+ * mapping and checkpoint and COPYs its rows into PostgreSQL, with consumers bounded only by IoLimits.
+ * Today's five consumers are compared with many more; every file must be ingested completely, and the
+ * connections in use must stay within the pool while the extra consumers wait for permits.
+ * <p>
+ * Timing-based and slow, so only run with {@code mvn test -Pload-tests}. Uses a Testcontainers PostgreSQL, or
+ * an existing database given as {@code -Dtest.postgres.url} (see TransactionBulkRepositoryTest). RabbitMQ is
+ * not needed: the listener containers are not started and messages are handed to the listener directly.
+ */
+@SpringBootTest(properties = {
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.hikari.maximum-pool-size=" + TransactionListenerLoadTest.POOL_SIZE,
+        "transaction.io.max-open-files=16",
+        "logging.level.org.example=WARN"})
+@Tag("load")
+@EnabledIf("databaseAvailable")
+class TransactionListenerLoadTest {
+
+    static final int POOL_SIZE = 10;
+    private static final int FILES = 300;
+    private static final int ROWS = 200;
+
+    private static final String EXTERNAL_URL = System.getProperty("test.postgres.url");
+    private static final Path UPLOAD_DIR = createUploadDir();
+
+    static boolean databaseAvailable() {
+        return EXTERNAL_URL != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("file.upload-dir", UPLOAD_DIR::toString);
+        if (EXTERNAL_URL != null) {
+            registry.add("spring.datasource.url", () -> EXTERNAL_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("test.postgres.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("test.postgres.password", ""));
+            return;
+        }
+        PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();  // removed with the JVM by the Testcontainers reaper
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TransactionListener transactionListener;
+
+    @Autowired
+    private ColumnMappingRepository columnMappingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Autowired
+    private IoLimits ioLimits;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE transactions, ingest_checkpoint, column_mapping");
+    }
+
+    @Test
+    void moreConsumersIngestEveryFileWithinThePool() throws Exception {
+        run(5, files(20));  // warm-up
+        Result today = run(5, files(FILES));
+        Result raised = run(64, files(FILES));
+
+        System.out.printf("%d files of %d rows%n 5 consumers: %s%n64 consumers: %s%n", FILES, ROWS, today, raised);
+        assertEquals(20L * ROWS + 2L * FILES * ROWS, jdbcTemplate.queryForObject("SELECT count(*) FROM transactions", Long.class));
+        assertEquals(20 + 2 * FILES, jdbcTemplate.queryForObject("SELECT count(*) FROM ingest_checkpoint WHERE completed", Integer.class));
+        assertTrue(raised.peakConnections() <= POOL_SIZE, raised.toString());
+    }
+
+    private List<UUID> files(int count) throws IOException {
+        Map<String, String> mappings = Map.of(
+                "TransactionID", "transaction_id",
+                "TransactionDate", "transaction_date",
+                "Amount", "amount",
+                "CustomerName", "customer_name",
+                "PaymentMethod", "payment_method",
+                "City", "shipping_address_city");
+        List<UUID> fileIds = new ArrayList<>(count);
+        List<ColumnMapping> columnMappings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UUID fileId = UUID.randomUUID();
+            StringBuilder csv = new StringBuilder("TransactionID,TransactionDate,Amount,CustomerName,PaymentMethod,City\n");
+            for (int row = 0; row < ROWS; row++) {
+                csv.append(fileId).append('-').append(row).append(",2024-01-").append(10 + row % 20)
+                        .append(',').append(row).append(".99,Customer ").append(row).append(",card,Oslo\n");
+            }
+            Files.writeString(UPLOAD_DIR.resolve(fileId + ".csv"), csv);
+            fileIds.add(fileId);
+            columnMappings.add(new ColumnMapping(fileId, mappings));
+        }
+        columnMappingRepository.saveAll(columnMappings);
+        return fileIds;
+    }
+
+    private Result run(int consumers, List<UUID> fileIds) throws InterruptedException {
+        ExecutorService listeners = Executors.newFixedThreadPool(consumers);
+        AtomicInteger peakConnections = new AtomicInteger();
+        AtomicInteger peakWaiting = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                peakConnections.accumulateAndGet(dataSource.getHikariPoolMXBean().getActiveConnections(), Math::max);
+                peakWaiting.accumulateAndGet((int) ioLimits.getMetrics().get("waitingForConnection"), Math::max);
+                LockSupport.parkNanos(100_000);
+            }
+        });
+        sampler.start();
+
+        long start = System.nanoTime();
+        for (UUID fileId : fileIds) {
+            long size = UPLOAD_DIR.resolve(fileId + ".csv").toFile().length();
+            listeners.execute(() -> transactionListener.processFile(fileId.toString(), System.currentTimeMillis(), size, null));
+        }
+        listeners.shutdown();
+        assertTrue(listeners.awaitTermination(10, TimeUnit.MINUTES), "load run did not finish");
+        double seconds = (System.nanoTime() - start) / 1e9;
+        running.set(false);
+        sampler.join();
+        return new Result(fileIds.size() / seconds, peakConnections.get(), peakWaiting.get());
+    }
+
+    private static Path createUploadDir() {
+        try {
+            return Files.createTempDirectory("transaction-load-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Result(double filesPerSecond, int peakConnections, int peakWaitingForPermit) {
+        @Override
+        public String toString() {
+            return String.format("%,.0f files/s, peak %d of %d connections, up to %d threads waiting for a connection permit",
+                    filesPerSecond, peakConnections, POOL_SIZE, peakWaitingForPermit);
+        }
+    }
+}
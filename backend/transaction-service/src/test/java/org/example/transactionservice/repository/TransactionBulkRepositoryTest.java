@@ -0,0 +1,184 @@
+package org.example.transactionservice.repository;
+
+import org.example.transactionservice.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The COPY path against a real PostgreSQL: conflicts within a batch and with stored rows, CSV quoting, the
+ * per-connection staging table under the JPA transaction manager, and throughput against {@code saveAll}.
+ * One pooled connection, so every transaction sees the same staging table.
+ * <p>
+ * Runs in a Testcontainers PostgreSQL, or against an existing database given as
+ * {@code -Dtest.postgres.url=jdbc:postgresql://host:port/db} (with {@code test.postgres.username} and
+ * {@code test.postgres.password}); skipped when neither is available.
+ */
+@DataJpaTest(properties = {"spring.datasource.hikari.maximum-pool-size=1", "spring.jpa.show-sql=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIf("databaseAvailable")
+class TransactionBulkRepositoryTest {
+
+    private static final String EXTERNAL_URL = System.getProperty("test.postgres.url");
+
+    static boolean databaseAvailable() {
+        return EXTERNAL_URL != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        if (EXTERNAL_URL != null) {
+            registry.add("spring.datasource.url", () -> EXTERNAL_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("test.postgres.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("test.postgres.password", ""));
+            return;
+        }
+        PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();  // removed with the JVM by the Testcontainers reaper
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private final UUID fileId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate.execute("TRUNCATE transactions");
+    }
+
+    @Test
+    void skipsDuplicatesWithinTheBatchAndAgainstStoredRows() {
+        assertEquals(List.of(), copy(List.of(transaction("TX-1", "a"), transaction("TX-2", "b"))));
+
+        List<String> conflicts = copy(List.of(
+                transaction("TX-2", "again"), transaction("TX-3", "c"), transaction("TX-3", "c twice"), transaction("TX-4", "d")));
+
+        assertEquals(List.of("TX-2", "TX-3"), conflicts.stream().sorted().toList());
+        assertEquals(4, transactionRepository.count());
+        assertEquals("b", transactionRepository.findByTransactionId("TX-2").orElseThrow().getCustomerName());
+        assertEquals("c", transactionRepository.findByTransactionId("TX-3").orElseThrow().getCustomerName());  // first in the batch
+    }
+
+    @Test
+    void quotesTextColumns() {
+        List<String> values = List.of("comma, inside", "say \"hi\"", "line one\r\nline two", "", "Zoë \\N", "\"");
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < values.size(); i++) {
+            batch.add(new Transaction(fileId, values.get(i) + "#" + i, LocalDate.of(2024, 2, 29), new BigDecimal("-12.50"),
+                    values.get(i), values.get(i), values.get(i)));
+        }
+        copy(batch);
+
+        for (int i = 0; i < values.size(); i++) {
+            Transaction stored = transactionRepository.findByTransactionId(values.get(i) + "#" + i).orElseThrow();
+            assertEquals(values.get(i), stored.getCustomerName());
+            assertEquals(values.get(i), stored.getPaymentMethod());
+            assertEquals(values.get(i), stored.getShippingAddressCity());
+            assertEquals(LocalDate.of(2024, 2, 29), stored.getTransactionDate());
+            assertEquals(0, new BigDecimal("-12.50").compareTo(stored.getAmount()));
+            assertNull(stored.getAmountMinorUnits());
+        }
+    }
+
+    @Test
+    void nullTextIsRejectedByTheColumnConstraint() {
+        Transaction missingName = new Transaction(fileId, "TX-1", LocalDate.of(2024, 1, 1), BigDecimal.ONE, null, "card", "Oslo");
+
+        assertThrows(DataIntegrityViolationException.class, () -> copy(List.of(missingName)));
+        assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    void stagingTableIsEmptiedByCommitAndRollback() {
+        copy(List.of(transaction("TX-1", "a"), transaction("TX-2", "b")));
+        assertEquals(0, inTransaction(() -> jdbcTemplate.queryForObject("SELECT count(*) FROM transactions_staging", Long.class)));
+
+        // Rolling back the transaction that created the staging table drops it; the next batch recreates it
+        jdbcTemplate.execute("DISCARD TEMP");
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            transactionRepository.copyInsert(List.of(transaction("TX-3", "rolled back")));
+            throw new IllegalStateException("rollback");
+        }));
+        assertEquals(List.of("TX-1"), copy(List.of(transaction("TX-1", "again"), transaction("TX-3", "c"))));
+        assertEquals(3, transactionRepository.count());
+    }
+
+    @Test
+    void copyIsMuchFasterThanSaveAll() {
+        copy(batch("warm-copy-", 2_000));
+        transactionTemplate.executeWithoutResult(status -> transactionRepository.saveAll(batch("warm-jpa-", 2_000)));
+
+        int rows = 50_000;
+        long copyNanos = time(() -> copy(batch("copy-", rows)));
+        long saveAllNanos = time(() -> transactionTemplate.executeWithoutResult(status -> transactionRepository.saveAll(batch("jpa-", rows))));
+
+        double speedup = (double) saveAllNanos / copyNanos;
+        System.out.printf("%,d rows: COPY %,d ms, saveAll %,d ms (%.1fx)%n", rows, copyNanos / 1_000_000, saveAllNanos / 1_000_000, speedup);
+        assertEquals(2L * rows + 4_000, transactionRepository.count());
+        assertTrue(speedup > 3, "COPY only " + speedup + "x faster than saveAll");
+    }
+
+    private List<String> copy(List<Transaction> batch) {
+        return inTransaction(() -> transactionRepository.copyInsert(batch));
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    private List<Transaction> batch(String prefix, int size) {
+        List<Transaction> batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Transaction transaction = transaction(prefix + i, "Customer " + i);
+            transaction.setAmountMinorUnits(i * 100L + 99);
+            batch.add(transaction);
+        }
+        return batch;
+    }
+
+    private Transaction transaction(String transactionId, String customerName) {
+        return new Transaction(fileId, transactionId, LocalDate.of(2024, 1, 1).plusDays(transactionId.length()),
+                new BigDecimal("10.99"), customerName, "card", "Oslo");
+    }
+
+    private static long time(Runnable work) {
+        long start = System.nanoTime();
+        work.run();
+        return System.nanoTime() - start;
+    }
+}
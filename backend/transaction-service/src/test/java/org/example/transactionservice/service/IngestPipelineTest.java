@@ -0,0 +1,119 @@
+package org.example.transactionservice.service;
+
+import org.example.transactionservice.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batches of one file are written in order, files share the writer pool batch by batch rather than file by file,
+ * and a failed batch stops its file.
+ */
+class IngestPipelineTest {
+
+    private static final Function<Integer, Transaction> CONVERTER = row -> new Transaction(UUID.randomUUID(),
+            "TX-" + row, LocalDate.of(2024, 1, 1), BigDecimal.ONE, "Customer", "card", "Oslo");
+
+    private ExecutorService converters;
+    private ExecutorService writers;
+    private IngestPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        converters = Executors.newFixedThreadPool(2);
+        writers = Executors.newFixedThreadPool(2);
+        pipeline = new IngestPipeline(true, 2, converters, writers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        converters.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    @Test
+    void filesInterleaveOnFewerWritersThanFiles() throws Exception {
+        int files = 6;
+        int batches = 5;
+        List<String> writes = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService readers = Executors.newFixedThreadPool(files);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int file = 0; file < files; file++) {
+            int fileNumber = file;
+            done.add(readers.submit(() -> {
+                start.await();
+                try (IngestPipeline.Run<Integer> run = pipeline.start(CONVERTER, (batch, offset, row, completed) -> {
+                    writes.add(fileNumber + ":" + row + (completed ? ":completed" : ""));
+                    sleep(20);
+                })) {
+                    for (int batch = 1; batch <= batches; batch++) {
+                        run.submit(List.of(batch, batch), batch * 100L, batch, batch == batches);
+                    }
+                    run.finish();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> file : done) {
+            file.get(30, TimeUnit.SECONDS);
+        }
+        readers.shutdown();
+
+        assertEquals(files * batches, writes.size());
+        for (int file = 0; file < files; file++) {
+            String prefix = file + ":";
+            List<String> ofFile = writes.stream().filter(write -> write.startsWith(prefix)).toList();
+            assertEquals(List.of(prefix + 1, prefix + 2, prefix + 3, prefix + 4, prefix + 5 + ":completed"), ofFile);
+        }
+        int firstCompleted = writes.indexOf(writes.stream().filter(write -> write.endsWith(":completed")).findFirst().orElseThrow());
+        long filesStarted = writes.subList(0, firstCompleted).stream().map(write -> write.substring(0, write.indexOf(':'))).distinct().count();
+        assertEquals(files, filesStarted, "every file should be written before any finishes: " + writes);
+        assertEquals(0, pipeline.getMetrics().get("activeFiles"));
+        assertEquals(0, pipeline.getMetrics().get("batchesQueuedForWrite"));
+    }
+
+    @Test
+    void failedBatchStopsTheFileAndReachesTheReader() {
+        List<Long> written = Collections.synchronizedList(new ArrayList<>());
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> {
+            try (IngestPipeline.Run<Integer> run = pipeline.start(CONVERTER, (batch, offset, row, completed) -> {
+                if (row == 3) {
+                    throw new IllegalStateException("insert failed");
+                }
+                written.add(row);
+                sleep(5);
+            })) {
+                for (int batch = 1; batch <= 50; batch++) {
+                    run.submit(List.of(batch), batch, batch, batch == 50);
+                }
+                run.finish();
+            }
+        });
+
+        assertEquals("insert failed", failure.getMessage());
+        assertEquals(List.of(1L, 2L), written);
+        assertEquals(0, pipeline.getMetrics().get("activeFiles"));
+        assertEquals(0, pipeline.getMetrics().get("batchesQueuedForWrite"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}